@@ -13,6 +13,7 @@ import fin.c3po.common.web.PageMeta;
 import fin.c3po.course.Course;
 import fin.c3po.course.CourseRepository;
 import fin.c3po.course.CourseStatus;
+import fin.c3po.todo.TodoInboxService;
 import fin.c3po.user.UserAccount;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -51,6 +52,7 @@ public class ApprovalController {
     private final ApprovalRequestRepository approvalRequestRepository;
     private final CourseRepository courseRepository;
     private final ObjectMapper objectMapper;
+    private final TodoInboxService todoInboxService;
 
     @GetMapping
     public ApiResponse<List<ApprovalResponse>> listApprovals(
@@ -109,6 +111,7 @@ public class ApprovalController {
         }
 
         ApprovalRequest saved = approvalRequestRepository.save(approval);
+        todoInboxService.approvalsChanged();
         return ApiResponse.success(toResponse(saved));
     }
 
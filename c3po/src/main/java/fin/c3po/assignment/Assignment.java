@@ -1,19 +1,17 @@
 package fin.c3po.assignment;
 
 import fin.c3po.common.domain.BaseEntity;
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.OnDelete;
-import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -24,7 +22,10 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "assignments")
+@Table(name = "assignments", indexes = {
+        @Index(name = "idx_assignments_release_at", columnList = "releaseAt"),
+        @Index(name = "idx_assignments_deadline", columnList = "deadline")
+})
 public class Assignment extends BaseEntity {
 
     @Column(nullable = false)
@@ -45,16 +46,35 @@ public class Assignment extends BaseEntity {
 
     private Instant publishedAt;
 
+    /**
+     * 截止前 24 小时提醒的发送时间，修改截止时间后重置
+     */
+    private Instant reminderSentAt;
+
+    /**
+     * 测验开考前为选课学生批量预建作答的时间，避免重复预建
+     */
+    private Instant provisionedAt;
+
     private Boolean allowResubmit;
 
     private Integer maxResubmit;
 
+    /**
+     * 测验作答时限（秒），为空表示不限时；作答开始时据此计算每份作答的 expiresAt
+     */
+    private Integer timeLimitSeconds;
+
     @Column(length = 4096)
     private String gradingRubric; // JSON string for rubric (kept simple)
 
-    @ElementCollection
-    @CollectionTable(name = "assignment_visibility_tags", joinColumns = @JoinColumn(name = "assignment_id"))
+    @Column(length = 16384)
+    private String answerKey; // JSON string of AnswerKeyItem list, quiz only
+
+    /**
+     * 可见范围标签，存为数组列，随作业行一起读出
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
     @Column(name = "visibility_tags")
-    @OnDelete(action = OnDeleteAction.CASCADE)
     private List<String> visibilityTags = new ArrayList<>();
 }
@@ -0,0 +1,10 @@
+package fin.c3po.assignment;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 作业 ID 与某个时间点（发布时间或截止时间）的轻量投影
+ */
+public record AssignmentInstant(UUID id, Instant at) {
+}
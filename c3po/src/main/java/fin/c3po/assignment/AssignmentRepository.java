@@ -1,18 +1,51 @@
 package fin.c3po.assignment;
 
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 public interface AssignmentRepository extends JpaRepository<Assignment, UUID> {
-    @EntityGraph(attributePaths = { "visibilityTags" })
     List<Assignment> findByCourseId(UUID courseId);
 
-    @EntityGraph(attributePaths = { "visibilityTags" })
-    Optional<Assignment> findWithTagsById(UUID id);
+    List<Assignment> findByCourseIdIn(Collection<UUID> courseIds);
 
     long countByCourseId(UUID courseId);
+
+    @Query("select a.id from Assignment a where a.courseId in :courseIds")
+    List<UUID> findIdsByCourseIdIn(@Param("courseIds") Collection<UUID> courseIds);
+
+    @Query("select new fin.c3po.assignment.AssignmentInstant(a.id, a.releaseAt) from Assignment a "
+            + "where (a.published = false or a.published is null) "
+            + "and a.releaseAt >= :from and a.releaseAt < :to")
+    List<AssignmentInstant> findPendingReleases(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("select new fin.c3po.assignment.AssignmentInstant(a.id, a.deadline) from Assignment a "
+            + "where a.reminderSentAt is null and a.deadline >= :from and a.deadline < :to")
+    List<AssignmentInstant> findPendingReminders(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("select new fin.c3po.assignment.AssignmentInstant(a.id, a.deadline) from Assignment a "
+            + "where a.deadline >= :from and a.deadline < :to")
+    List<AssignmentInstant> findDeadlines(@Param("from") Instant from, @Param("to") Instant to);
+
+    /**
+     * 条件发布：仅当仍未发布且已到发布时间时生效，多实例下同一作业只会被发布一次
+     */
+    @Modifying
+    @Query("update Assignment a set a.published = true, a.publishedAt = :now "
+            + "where a.id = :id and (a.published = false or a.published is null) and a.releaseAt <= :now")
+    int markReleased(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update Assignment a set a.provisionedAt = :now where a.id = :id and a.provisionedAt is null")
+    int markProvisioned(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update Assignment a set a.reminderSentAt = :now where a.id = :id and a.reminderSentAt is null")
+    int markReminderSent(@Param("id") UUID id, @Param("now") Instant now);
 }
@@ -0,0 +1,65 @@
+package fin.c3po.assignment;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 开考时高频读取的作业定义缓存：只保存开始作答需要的字段，短 TTL 兜底，
+ * 本实例修改作业时显式失效；开考瞬间同一作业的数千次开始请求只读一次库
+ */
+@Component
+@RequiredArgsConstructor
+public class QuizDefinitionCache {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final AssignmentRepository assignmentRepository;
+    private final Map<UUID, Cached> cache = new ConcurrentHashMap<>();
+
+    public Optional<QuizDefinition> get(UUID assignmentId) {
+        Instant now = Instant.now();
+        Cached cached = cache.get(assignmentId);
+        if (cached != null && cached.loadedAt().plus(TTL).isAfter(now)) {
+            return Optional.of(cached.definition());
+        }
+        Optional<QuizDefinition> loaded = assignmentRepository.findById(assignmentId).map(QuizDefinition::of);
+        loaded.ifPresentOrElse(definition -> cache.put(assignmentId, new Cached(definition, now)),
+                () -> cache.remove(assignmentId));
+        return loaded;
+    }
+
+    public void evict(UUID assignmentId) {
+        cache.remove(assignmentId);
+    }
+
+    public record QuizDefinition(UUID id, UUID courseId, AssignmentType type, boolean published, Instant releaseAt,
+                                 Instant deadline, Integer timeLimitSeconds) {
+
+        static QuizDefinition of(Assignment assignment) {
+            return new QuizDefinition(assignment.getId(), assignment.getCourseId(), assignment.getType(),
+                    Boolean.TRUE.equals(assignment.getPublished()), assignment.getReleaseAt(),
+                    assignment.getDeadline(), assignment.getTimeLimitSeconds());
+        }
+
+        /**
+         * 已发布，或定时发布时间已到（时间轮尚未处理时也视为已开放）
+         */
+        public boolean isOpen(Instant now) {
+            return published || (releaseAt != null && !releaseAt.isAfter(now));
+        }
+
+        public boolean isClosed(Instant now) {
+            return deadline != null && !deadline.isAfter(now);
+        }
+    }
+
+    private record Cached(QuizDefinition definition, Instant loadedAt) {
+    }
+}
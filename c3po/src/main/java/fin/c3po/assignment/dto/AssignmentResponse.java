@@ -18,6 +18,7 @@ public class AssignmentResponse {
     Instant deadline;
     Boolean allowResubmit;
     Integer maxResubmit;
+    Integer timeLimitSeconds;
     List<CreateAssignmentRequest.RubricItem> gradingRubric;
     List<String> visibilityTags;
     Instant releaseAt;
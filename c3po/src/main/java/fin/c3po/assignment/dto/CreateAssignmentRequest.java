@@ -31,6 +31,9 @@ public class CreateAssignmentRequest {
     @Positive
     private Integer maxResubmit;
 
+    @Positive
+    private Integer timeLimitSeconds;
+
     @Valid
     private List<RubricItem> gradingRubric = new ArrayList<>();
 
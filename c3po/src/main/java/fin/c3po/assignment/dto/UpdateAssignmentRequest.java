@@ -2,6 +2,7 @@ package fin.c3po.assignment.dto;
 
 import fin.c3po.assignment.AssignmentType;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
@@ -24,6 +25,12 @@ public class UpdateAssignmentRequest {
 
     private Integer maxResubmit;
 
+    /**
+     * 测验作答时限（秒），传 0 取消限时
+     */
+    @PositiveOrZero
+    private Integer timeLimitSeconds;
+
     @Valid
     private List<CreateAssignmentRequest.RubricItem> gradingRubric;
 
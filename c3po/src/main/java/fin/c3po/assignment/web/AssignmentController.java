@@ -5,6 +5,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import fin.c3po.assignment.Assignment;
 import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.assignment.QuizDefinitionCache;
 import fin.c3po.assignment.dto.AssignmentResponse;
 import fin.c3po.assignment.dto.CreateAssignmentRequest;
 import fin.c3po.assignment.dto.DuplicateAssignmentRequest;
@@ -13,6 +14,8 @@ import fin.c3po.common.web.ApiResponse;
 import fin.c3po.course.Course;
 import fin.c3po.course.CourseRepository;
 import fin.c3po.notify.NotificationService;
+import fin.c3po.schedule.AssignmentScheduler;
+import fin.c3po.todo.TodoInboxService;
 import fin.c3po.user.UserAccount;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -45,6 +48,9 @@ public class AssignmentController {
     private final CourseRepository courseRepository;
     private final ObjectMapper objectMapper;
     private final NotificationService notificationService;
+    private final AssignmentScheduler assignmentScheduler;
+    private final QuizDefinitionCache quizDefinitionCache;
+    private final TodoInboxService todoInboxService;
 
     private static final TypeReference<List<CreateAssignmentRequest.RubricItem>> RUBRIC_TYPE = new TypeReference<>() {
     };
@@ -61,7 +67,7 @@ public class AssignmentController {
 
     @GetMapping("/assignments/{assignmentId}")
     public ApiResponse<AssignmentResponse> getAssignment(@PathVariable UUID assignmentId) {
-        Assignment assignment = assignmentRepository.findWithTagsById(assignmentId)
+        Assignment assignment = assignmentRepository.findById(assignmentId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
         return ApiResponse.success(toResponse(assignment));
     }
@@ -84,6 +90,7 @@ public class AssignmentController {
         assignment.setDeadline(request.getDeadline());
         assignment.setAllowResubmit(request.getAllowResubmit());
         assignment.setMaxResubmit(request.getMaxResubmit());
+        assignment.setTimeLimitSeconds(request.getTimeLimitSeconds());
         assignment.setGradingRubric(toJson(request.getGradingRubric()));
         assignment.setReleaseAt(request.getVisibility() != null ? request.getVisibility().getReleaseAt() : null);
         assignment.getVisibilityTags().clear();
@@ -92,6 +99,8 @@ public class AssignmentController {
         }
 
         Assignment saved = assignmentRepository.save(assignment);
+        assignmentScheduler.track(saved);
+        todoInboxService.assignmentChanged(saved.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(toResponse(saved)));
     }
 
@@ -122,12 +131,18 @@ public class AssignmentController {
         if (request.getDeadline() != null) {
             assignment.setDeadline(request.getDeadline());
         }
+        if (deadlineChanged) {
+            assignment.setReminderSentAt(null);
+        }
         if (request.getAllowResubmit() != null) {
             assignment.setAllowResubmit(request.getAllowResubmit());
         }
         if (request.getMaxResubmit() != null) {
             assignment.setMaxResubmit(request.getMaxResubmit());
         }
+        if (request.getTimeLimitSeconds() != null) {
+            assignment.setTimeLimitSeconds(request.getTimeLimitSeconds() > 0 ? request.getTimeLimitSeconds() : null);
+        }
         if (request.getGradingRubric() != null) {
             assignment.setGradingRubric(toJson(request.getGradingRubric()));
         }
@@ -140,6 +155,9 @@ public class AssignmentController {
         }
 
         Assignment saved = assignmentRepository.save(assignment);
+        assignmentScheduler.track(saved);
+        quizDefinitionCache.evict(saved.getId());
+        todoInboxService.assignmentChanged(saved.getId());
 
         // 如果作业已发布且截止时间修改，通知选课学生
         if (Boolean.TRUE.equals(saved.getPublished()) && deadlineChanged) {
@@ -172,6 +190,8 @@ public class AssignmentController {
             assignment.setReleaseAt(Instant.now());
         }
         Assignment saved = assignmentRepository.save(assignment);
+        quizDefinitionCache.evict(saved.getId());
+        todoInboxService.assignmentChanged(saved.getId());
 
         // 通知选课学生作业已发布
         String title = "新作业已发布";
@@ -208,12 +228,16 @@ public class AssignmentController {
         clone.setDeadline(assignment.getDeadline());
         clone.setAllowResubmit(assignment.getAllowResubmit());
         clone.setMaxResubmit(assignment.getMaxResubmit());
+        clone.setTimeLimitSeconds(assignment.getTimeLimitSeconds());
         clone.setGradingRubric(assignment.getGradingRubric());
+        clone.setAnswerKey(assignment.getAnswerKey());
         clone.setReleaseAt(assignment.getReleaseAt());
         clone.setPublished(false);
         clone.setVisibilityTags(new ArrayList<>(assignment.getVisibilityTags()));
 
         Assignment saved = assignmentRepository.save(clone);
+        assignmentScheduler.track(saved);
+        todoInboxService.assignmentChanged(saved.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(toResponse(saved)));
     }
 
@@ -243,6 +267,7 @@ public class AssignmentController {
                 .deadline(assignment.getDeadline())
                 .allowResubmit(assignment.getAllowResubmit())
                 .maxResubmit(assignment.getMaxResubmit())
+                .timeLimitSeconds(assignment.getTimeLimitSeconds())
                 .gradingRubric(rubric)
                 .visibilityTags(new ArrayList<>(assignment.getVisibilityTags()))
                 .releaseAt(assignment.getReleaseAt())
@@ -11,7 +11,7 @@ public class ApiResponse<T> {
     String traceId;
     boolean success;
     T data;
-    PageMeta meta;
+    Object meta;
     Object error;
 
     public static <T> ApiResponse<T> success(T data) {
@@ -34,6 +34,16 @@ public class ApiResponse<T> {
                 .build();
     }
 
+    public static <T> ApiResponse<T> success(T data, CursorMeta meta) {
+        return ApiResponse.<T>builder()
+                .traceId(UUID.randomUUID().toString())
+                .success(true)
+                .data(data)
+                .meta(meta)
+                .error(null)
+                .build();
+    }
+
     public static <T> ApiResponse<T> failure(Object error) {
         return ApiResponse.<T>builder()
                 .traceId(UUID.randomUUID().toString())
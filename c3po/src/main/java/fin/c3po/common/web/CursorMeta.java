@@ -0,0 +1,16 @@
+package fin.c3po.common.web;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 游标（keyset）分页元数据：nextCursor 为空表示已到末页
+ */
+@Value
+@Builder
+public class CursorMeta {
+    int limit;
+    String nextCursor;
+    boolean hasMore;
+    String sort;
+}
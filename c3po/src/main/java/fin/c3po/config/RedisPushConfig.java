@@ -0,0 +1,26 @@
+package fin.c3po.config;
+
+import fin.c3po.notify.RedisNotificationBus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 启用 Redis 时订阅通知推送频道；未启用时应用不会连接 Redis
+ */
+@Configuration
+@ConditionalOnProperty(name = "c3po.redis.enabled", havingValue = "true")
+public class RedisPushConfig {
+
+    @Bean
+    public RedisMessageListenerContainer notificationPushListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           RedisNotificationBus notificationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(notificationBus, new ChannelTopic(RedisNotificationBus.CHANNEL));
+        return container;
+    }
+}
@@ -12,6 +12,7 @@ public interface CourseRepository extends JpaRepository<Course, UUID>, JpaSpecif
     Page<Course> findByNameContainingIgnoreCase(String keyword, Pageable pageable);
     long countByStatus(CourseStatus status);
     List<Course> findByTeacherId(UUID teacherId);
+    long countByTeacherId(UUID teacherId);
 }
 
 
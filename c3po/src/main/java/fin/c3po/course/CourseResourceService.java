@@ -0,0 +1,29 @@
+package fin.c3po.course;
+
+import fin.c3po.course.dto.CreateCourseResourceRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * 课程资源创建：供资源回调接口与分片上传完成后的自动回调共用
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseResourceService {
+
+    private final CourseResourceRepository courseResourceRepository;
+
+    @Transactional
+    public CourseResource createResource(UUID moduleId, CreateCourseResourceRequest request) {
+        CourseResource resource = new CourseResource();
+        resource.setModuleId(moduleId);
+        resource.setType(request.getType());
+        resource.setName(request.getName());
+        resource.setFileSize(request.getFileSize());
+        resource.setDownloadUrl(request.getDownloadUrl());
+        return courseResourceRepository.save(resource);
+    }
+}
@@ -0,0 +1,170 @@
+package fin.c3po.course;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.course.dto.CourseRolloverRequest;
+import fin.c3po.report.ReportJob;
+import fin.c3po.report.ReportJobRepository;
+import fin.c3po.report.ReportJobStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 学期滚动：批量复制课程及其模块、资源、作业。
+ * 按批次读取源数据，在内存中完成 ID 重映射后用 JDBC 批量插入，避免逐实体 save。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseRolloverService {
+
+    private static final int COURSES_PER_BATCH = 20;
+
+    private final CourseRepository courseRepository;
+    private final CourseModuleRepository courseModuleRepository;
+    private final CourseResourceRepository courseResourceRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final ReportJobRepository reportJobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Async
+    public void runRollover(UUID jobId, CourseRolloverRequest request) {
+        ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != ReportJobStatus.QUEUED) {
+            return;
+        }
+        List<UUID> sourceIds = request.getSourceCourseIds().stream().distinct().toList();
+        job.setStatus(ReportJobStatus.PROCESSING);
+        job.setTotalItems(sourceIds.size());
+        job.setProcessedItems(0);
+        reportJobRepository.save(job);
+
+        Duration offset = request.getOffset() != null ? request.getOffset() : Duration.ZERO;
+        int processed = 0;
+        try {
+            for (int from = 0; from < sourceIds.size(); from += COURSES_PER_BATCH) {
+                if (isCancelled(jobId)) {
+                    log.info("Rollover job {} cancelled after {} courses", jobId, processed);
+                    return;
+                }
+                List<UUID> batch = sourceIds.subList(from, Math.min(from + COURSES_PER_BATCH, sourceIds.size()));
+                transactionTemplate.executeWithoutResult(status ->
+                        cloneBatch(batch, request.getTargetSemester(), offset));
+                processed += batch.size();
+                updateProgress(jobId, processed);
+            }
+            finish(jobId, ReportJobStatus.SUCCEEDED);
+            log.info("Rollover job {} cloned {} courses", jobId, processed);
+        } catch (RuntimeException ex) {
+            log.error("Rollover job {} failed after {} courses", jobId, processed, ex);
+            finish(jobId, ReportJobStatus.FAILED);
+        }
+    }
+
+    private void cloneBatch(List<UUID> sourceCourseIds, String targetSemester, Duration offset) {
+        Instant now = Instant.now();
+        Map<UUID, UUID> courseIdMap = new HashMap<>();
+        Map<UUID, UUID> moduleIdMap = new HashMap<>();
+
+        List<Object[]> courseRows = new ArrayList<>();
+        for (Course course : courseRepository.findAllById(sourceCourseIds)) {
+            UUID newId = UUID.randomUUID();
+            courseIdMap.put(course.getId(), newId);
+            courseRows.add(new Object[] {
+                    newId, ts(now), ts(now), course.getName(),
+                    targetSemester != null ? targetSemester : course.getSemester(),
+                    course.getCredit(), CourseStatus.DRAFT.name(), course.getEnrollLimit(), course.getTeacherId()
+            });
+        }
+        if (courseRows.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> moduleRows = new ArrayList<>();
+        for (CourseModule module : courseModuleRepository.findByCourseIdIn(courseIdMap.keySet())) {
+            UUID newId = UUID.randomUUID();
+            moduleIdMap.put(module.getId(), newId);
+            moduleRows.add(new Object[] {
+                    newId, ts(now), ts(now), courseIdMap.get(module.getCourseId()), module.getTitle(),
+                    module.getDisplayOrder(), ts(shift(module.getReleaseAt(), offset))
+            });
+        }
+
+        List<Object[]> resourceRows = new ArrayList<>();
+        if (!moduleIdMap.isEmpty()) {
+            for (CourseResource resource : courseResourceRepository.findByModuleIdIn(moduleIdMap.keySet())) {
+                resourceRows.add(new Object[] {
+                        UUID.randomUUID(), ts(now), ts(now), moduleIdMap.get(resource.getModuleId()),
+                        resource.getType().name(), resource.getName(), resource.getFileSize(), resource.getDownloadUrl()
+                });
+            }
+        }
+
+        List<Object[]> assignmentRows = new ArrayList<>();
+        for (Assignment assignment : assignmentRepository.findByCourseIdIn(courseIdMap.keySet())) {
+            UUID newId = UUID.randomUUID();
+            assignmentRows.add(new Object[] {
+                    newId, ts(now), ts(now), courseIdMap.get(assignment.getCourseId()), assignment.getTitle(),
+                    assignment.getType().name(), ts(shift(assignment.getDeadline(), offset)),
+                    ts(shift(assignment.getReleaseAt(), offset)), Boolean.FALSE,
+                    assignment.getAllowResubmit(), assignment.getMaxResubmit(), assignment.getGradingRubric(),
+                    assignment.getAnswerKey(), assignment.getTimeLimitSeconds(),
+                    assignment.getVisibilityTags() != null ? assignment.getVisibilityTags().toArray(String[]::new) : null
+            });
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO courses (id, created_at, updated_at, name, semester, credit, status, "
+                + "enroll_limit, teacher_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", courseRows);
+        jdbcTemplate.batchUpdate("INSERT INTO course_modules (id, created_at, updated_at, course_id, title, "
+                + "display_order, release_at) VALUES (?, ?, ?, ?, ?, ?, ?)", moduleRows);
+        jdbcTemplate.batchUpdate("INSERT INTO course_resources (id, created_at, updated_at, module_id, type, name, "
+                + "file_size, download_url) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", resourceRows);
+        jdbcTemplate.batchUpdate("INSERT INTO assignments (id, created_at, updated_at, course_id, title, type, "
+                + "deadline, release_at, published, allow_resubmit, max_resubmit, grading_rubric, answer_key, "
+                + "time_limit_seconds, visibility_tags) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                assignmentRows);
+    }
+
+    private boolean isCancelled(UUID jobId) {
+        return reportJobRepository.findById(jobId)
+                .map(job -> job.getStatus() == ReportJobStatus.CANCELLED)
+                .orElse(true);
+    }
+
+    private void updateProgress(UUID jobId, int processed) {
+        reportJobRepository.findById(jobId).ifPresent(job -> {
+            job.setProcessedItems(processed);
+            reportJobRepository.save(job);
+        });
+    }
+
+    private void finish(UUID jobId, ReportJobStatus status) {
+        reportJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setCompletedAt(Instant.now());
+            reportJobRepository.save(job);
+        });
+    }
+
+    private static Instant shift(Instant instant, Duration offset) {
+        return instant != null ? instant.plus(offset) : null;
+    }
+
+    private static Timestamp ts(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+}
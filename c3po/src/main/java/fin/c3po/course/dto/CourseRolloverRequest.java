@@ -0,0 +1,29 @@
+package fin.c3po.course.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+public class CourseRolloverRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull UUID> sourceCourseIds = new ArrayList<>();
+
+    @Size(max = 32)
+    private String targetSemester;
+
+    /**
+     * 截止时间、发布时间的平移量（ISO-8601，如 P182D）
+     */
+    private Duration offset;
+}
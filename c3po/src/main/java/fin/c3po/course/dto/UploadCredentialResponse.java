@@ -4,6 +4,7 @@ import lombok.Builder;
 import lombok.Value;
 
 import java.time.Instant;
+import java.util.UUID;
 
 @Value
 @Builder
@@ -12,6 +13,13 @@ public class UploadCredentialResponse {
     String method;
     Instant expiresAt;
     String callbackUrl;
+
+    // 分片上传会话（仅在申请时提供文件信息才返回）
+    UUID sessionId;
+    Integer chunkSize;
+    Integer chunkCount;
+    String statusUrl;
+    String completeUrl;
 }
 
 
@@ -21,15 +21,17 @@ import fin.c3po.course.dto.UpdateCourseRequest;
 import fin.c3po.course.dto.CourseStudentResponse;
 import fin.c3po.profile.TeacherProfile;
 import fin.c3po.profile.TeacherProfileRepository;
+import fin.c3po.profile.TeacherStatsCache;
 import fin.c3po.selection.CourseSelection;
 import fin.c3po.selection.CourseSelectionRepository;
 import fin.c3po.selection.SelectionStatus;
 import fin.c3po.assignment.Assignment;
 import fin.c3po.assignment.AssignmentRepository;
 import fin.c3po.course.CourseModuleRepository;
-import fin.c3po.submission.Submission;
 import fin.c3po.submission.SubmissionRepository;
 import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.submission.SubmissionSummary;
+import fin.c3po.todo.TodoInboxService;
 import fin.c3po.user.UserAccount;
 import fin.c3po.user.UserAccountRepository;
 import jakarta.validation.Valid;
@@ -85,6 +87,8 @@ public class CourseController {
     private final UserAccountRepository userAccountRepository;
     private final TeacherProfileRepository teacherProfileRepository;
     private final ObjectMapper objectMapper;
+    private final TodoInboxService todoInboxService;
+    private final TeacherStatsCache teacherStatsCache;
 
     @GetMapping("/courses")
     public ApiResponse<List<CourseResponse>> listCourses(
@@ -321,6 +325,9 @@ public class CourseController {
         }
 
         Course saved = courseRepository.save(course);
+        if (request.getName() != null) {
+            todoInboxService.courseChanged(saved.getId());
+        }
         return ApiResponse.success(toCourseResponse(saved));
     }
 
@@ -346,6 +353,7 @@ public class CourseController {
         approvalRequest.setApplicantId(currentUser.getId());
         approvalRequest.setPayload(toJson(Map.of("courseId", courseId)));
         ApprovalRequest saved = approvalRequestRepository.save(approvalRequest);
+        todoInboxService.approvalsChanged();
 
         CoursePublishResponse response = CoursePublishResponse.builder()
                 .courseId(courseId)
@@ -394,6 +402,8 @@ public class CourseController {
         selection.setSelectedAt(Instant.now());
 
         CourseSelection saved = courseSelectionRepository.save(selection);
+        todoInboxService.userChanged(studentId);
+        teacherStatsCache.evict(course.getTeacherId());
         CourseEnrollmentResponse response = CourseEnrollmentResponse.builder()
                 .selectionId(saved.getId())
                 .courseId(saved.getCourseId())
@@ -420,6 +430,8 @@ public class CourseController {
         selection.setStatus(SelectionStatus.DROPPED);
         selection.setSelectedAt(Instant.now());
         courseSelectionRepository.save(selection);
+        todoInboxService.userChanged(selection.getStudentId());
+        teacherStatsCache.evictCourse(courseId);
         return ResponseEntity.noContent().build();
     }
 
@@ -442,16 +454,16 @@ public class CourseController {
         List<StudentCourseResponse> responses = new ArrayList<>();
         for (CourseSelection selection : selections) {
             courseRepository.findById(selection.getCourseId()).ifPresent(course -> {
-                List<Submission> submissions = selectionSubmissions(course.getId(), studentId);
+                List<SubmissionSummary> submissions = selectionSubmissions(course.getId(), studentId);
                 List<Assignment> assignments = assignmentRepository.findByCourseId(course.getId());
                 int totalAssignments = assignments.size();
                 int completedAssignments = (int) assignments.stream()
                         .filter(assignment -> submissions.stream()
-                                .anyMatch(submission -> submission.getAssignmentId().equals(assignment.getId())))
+                                .anyMatch(submission -> submission.assignmentId().equals(assignment.getId())))
                         .count();
                 int gradedAssignments = (int) submissions.stream()
-                        .filter(submission -> submission.getStatus() == SubmissionStatus.GRADED)
-                        .map(Submission::getAssignmentId)
+                        .filter(submission -> submission.status() == SubmissionStatus.GRADED)
+                        .map(SubmissionSummary::assignmentId)
                         .distinct()
                         .count();
                 int pendingAssignments = Math.max(totalAssignments - gradedAssignments, 0);
@@ -516,12 +528,13 @@ public class CourseController {
         Map<UUID, Integer> missingAssignmentsByStudent = new HashMap<>();
 
         for (Assignment assignment : assignments) {
-            List<Submission> assignmentSubmissions = submissionRepository.findByAssignmentId(assignment.getId());
-            Map<UUID, Submission> latestByStudent = new HashMap<>();
-            for (Submission submission : assignmentSubmissions) {
-                Submission current = latestByStudent.get(submission.getStudentId());
+            List<SubmissionSummary> assignmentSubmissions = submissionRepository
+                    .findSummariesByAssignmentId(assignment.getId());
+            Map<UUID, SubmissionSummary> latestByStudent = new HashMap<>();
+            for (SubmissionSummary submission : assignmentSubmissions) {
+                SubmissionSummary current = latestByStudent.get(submission.studentId());
                 if (current == null || isLater(submission, current)) {
-                    latestByStudent.put(submission.getStudentId(), submission);
+                    latestByStudent.put(submission.studentId(), submission);
                 }
             }
 
@@ -529,17 +542,17 @@ public class CourseController {
             int assignmentScoreCount = 0;
 
             for (UUID studentId : enrolledStudents) {
-                Submission submission = latestByStudent.get(studentId);
+                SubmissionSummary submission = latestByStudent.get(studentId);
                 DoubleSummaryStatistics studentStats = scoreStatsByStudent
                         .computeIfAbsent(studentId, key -> new DoubleSummaryStatistics());
 
                 if (submission != null) {
-                    if (submission.getStatus() == SubmissionStatus.GRADED) {
+                    if (submission.status() == SubmissionStatus.GRADED) {
                         gradedSubmissions++;
                     } else {
                         pendingSubmissions++;
                     }
-                    Integer score = submission.getScore();
+                    Integer score = submission.score();
                     if (score != null) {
                         studentStats.accept(score);
                         assignmentScoreTotal += score;
@@ -549,7 +562,7 @@ public class CourseController {
 
                     Instant deadline = assignment.getDeadline();
                     if (deadline != null) {
-                        Instant submittedAt = submission.getSubmittedAt();
+                        Instant submittedAt = submission.submittedAt();
                         if (submittedAt == null || submittedAt.isAfter(deadline)) {
                             overdueStudents.add(studentId);
                         }
@@ -628,9 +641,9 @@ public class CourseController {
         return ApiResponse.success(response);
     }
 
-    private boolean isLater(Submission candidate, Submission current) {
-        Instant candidateTs = resolveSubmissionTimestamp(candidate);
-        Instant currentTs = resolveSubmissionTimestamp(current);
+    private boolean isLater(SubmissionSummary candidate, SubmissionSummary current) {
+        Instant candidateTs = candidate.submittedAt();
+        Instant currentTs = current.submittedAt();
         if (candidateTs == null) {
             return false;
         }
@@ -640,16 +653,6 @@ public class CourseController {
         return candidateTs.isAfter(currentTs);
     }
 
-    private Instant resolveSubmissionTimestamp(Submission submission) {
-        if (submission.getSubmittedAt() != null) {
-            return submission.getSubmittedAt();
-        }
-        if (submission.getUpdatedAt() != null) {
-            return submission.getUpdatedAt();
-        }
-        return submission.getCreatedAt();
-    }
-
     private Double computeMedian(List<Double> values) {
         if (values.isEmpty()) {
             return null;
@@ -786,10 +789,9 @@ public class CourseController {
                 .build();
     }
 
-    private List<Submission> selectionSubmissions(UUID courseId, UUID studentId) {
+    private List<SubmissionSummary> selectionSubmissions(UUID courseId, UUID studentId) {
         return assignmentRepository.findByCourseId(courseId).stream()
-                .map(assignment -> submissionRepository
-                        .findTopByAssignmentIdAndStudentIdOrderBySubmittedAtDesc(assignment.getId(), studentId))
+                .map(assignment -> submissionRepository.findLatestSummary(assignment.getId(), studentId))
                 .flatMap(Optional::stream)
                 .toList();
     }
@@ -7,11 +7,15 @@ import fin.c3po.course.CourseModuleRepository;
 import fin.c3po.course.CourseRepository;
 import fin.c3po.course.CourseResource;
 import fin.c3po.course.CourseResourceRepository;
+import fin.c3po.course.CourseResourceService;
 import fin.c3po.course.dto.CourseModuleResponse;
 import fin.c3po.course.dto.CourseResourceResponse;
 import fin.c3po.course.dto.CreateCourseModuleRequest;
 import fin.c3po.course.dto.CreateCourseResourceRequest;
 import fin.c3po.course.dto.UploadCredentialResponse;
+import fin.c3po.storage.ChunkedUploadService;
+import fin.c3po.storage.UploadSession;
+import fin.c3po.storage.dto.CreateUploadSessionRequest;
 import fin.c3po.user.UserAccount;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -41,6 +45,8 @@ public class CourseModuleController {
     private final CourseRepository courseRepository;
     private final CourseModuleRepository courseModuleRepository;
     private final CourseResourceRepository courseResourceRepository;
+    private final CourseResourceService courseResourceService;
+    private final ChunkedUploadService chunkedUploadService;
 
     @GetMapping("/courses/{courseId}/modules")
     public ApiResponse<List<CourseModuleResponse>> listModules(@PathVariable UUID courseId) {
@@ -94,28 +100,52 @@ public class CourseModuleController {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to manage resources");
         }
 
-        CourseResource resource = new CourseResource();
-        resource.setModuleId(moduleId);
-        resource.setType(request.getType());
-        resource.setName(request.getName());
-        resource.setFileSize(request.getFileSize());
-        resource.setDownloadUrl(request.getDownloadUrl());
-
-        CourseResource saved = courseResourceRepository.save(resource);
+        CourseResource saved = courseResourceService.createResource(moduleId, request);
         return ApiResponse.success(toResourceResponse(saved));
     }
 
+    /**
+     * 申请上传凭证：携带文件信息时创建可续传的分片上传会话（HMAC 签名、限时），
+     * 全部分片上传并完成后自动回调创建课程资源
+     */
     @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
     @PostMapping("/modules/{moduleId}/resources/upload-url")
-    public ApiResponse<UploadCredentialResponse> createUploadUrl(@PathVariable UUID moduleId) {
-        courseModuleRepository.findById(moduleId)
+    public ApiResponse<UploadCredentialResponse> createUploadUrl(
+            @PathVariable UUID moduleId,
+            @Valid @RequestBody(required = false) CreateUploadSessionRequest request,
+            @AuthenticationPrincipal UserAccount currentUser) {
+        CourseModule module = courseModuleRepository.findById(moduleId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Module not found"));
 
+        if (request == null) {
+            UploadCredentialResponse response = UploadCredentialResponse.builder()
+                    .uploadUrl("/api/v1/files")
+                    .method("PUT")
+                    .expiresAt(Instant.now().plus(10, ChronoUnit.MINUTES))
+                    .callbackUrl("/api/v1/modules/" + moduleId + "/resources")
+                    .build();
+            return ApiResponse.success(response);
+        }
+
+        Course course = courseRepository.findById(module.getCourseId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        if (!currentUser.getRole().equals(fin.c3po.user.UserRole.ADMIN)
+                && !course.getTeacherId().equals(currentUser.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to manage resources");
+        }
+
+        UploadSession session = chunkedUploadService.createSession(moduleId, currentUser.getId(), request);
+        String query = chunkedUploadService.signedQuery(session);
         UploadCredentialResponse response = UploadCredentialResponse.builder()
-                .uploadUrl("https://oss.c3po.local/upload/" + moduleId)
+                .uploadUrl("/api/v1/uploads/" + session.getId() + "/chunks/{index}?" + query)
                 .method("PUT")
-                .expiresAt(Instant.now().plus(10, ChronoUnit.MINUTES))
+                .expiresAt(session.getExpiresAt())
                 .callbackUrl("/api/v1/modules/" + moduleId + "/resources")
+                .sessionId(session.getId())
+                .chunkSize(session.getChunkSize())
+                .chunkCount(session.getChunkCount())
+                .statusUrl("/api/v1/uploads/" + session.getId() + "?" + query)
+                .completeUrl("/api/v1/uploads/" + session.getId() + "/complete?" + query)
                 .build();
         return ApiResponse.success(response);
     }
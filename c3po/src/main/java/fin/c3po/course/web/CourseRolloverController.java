@@ -0,0 +1,104 @@
+package fin.c3po.course.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseRolloverService;
+import fin.c3po.course.dto.CourseRolloverRequest;
+import fin.c3po.report.ReportJob;
+import fin.c3po.report.ReportJobStatus;
+import fin.c3po.report.ReportJobRepository;
+import fin.c3po.report.ReportJobType;
+import fin.c3po.report.dto.ReportJobResponse;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1")
+@Validated
+@RequiredArgsConstructor
+public class CourseRolloverController {
+
+    private final CourseRepository courseRepository;
+    private final ReportJobRepository reportJobRepository;
+    private final CourseRolloverService courseRolloverService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 学期滚动：后台批量复制课程（含模块、资源、作业），进度通过 /jobs/{jobId} 查询
+     */
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @PostMapping("/courses/rollover")
+    public ResponseEntity<ApiResponse<ReportJobResponse>> rolloverCourses(
+            @Valid @RequestBody CourseRolloverRequest request,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        if (currentUser == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Not authenticated");
+        }
+
+        Set<UUID> sourceIds = new HashSet<>(request.getSourceCourseIds());
+        List<Course> courses = courseRepository.findAllById(sourceIds);
+        if (courses.size() != sourceIds.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Some source courses not found");
+        }
+        if (currentUser.getRole() != UserRole.ADMIN) {
+            boolean foreignCourse = courses.stream()
+                    .anyMatch(course -> !course.getTeacherId().equals(currentUser.getId()));
+            if (foreignCourse) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to roll over these courses");
+            }
+        }
+
+        ReportJob job = new ReportJob();
+        job.setJobType(ReportJobType.COURSE_ROLLOVER);
+        job.setStatus(ReportJobStatus.QUEUED);
+        job.setTotalItems(sourceIds.size());
+        job.setProcessedItems(0);
+        job.setParams(toJson(Map.of(
+                "courseCount", sourceIds.size(),
+                "targetSemester", request.getTargetSemester() != null ? request.getTargetSemester() : "",
+                "offset", request.getOffset() != null ? request.getOffset().toString() : "PT0S")));
+        ReportJob saved = reportJobRepository.save(job);
+
+        courseRolloverService.runRollover(saved.getId(), request);
+
+        ReportJobResponse response = ReportJobResponse.builder()
+                .id(saved.getId())
+                .jobType(saved.getJobType())
+                .status(saved.getStatus())
+                .totalItems(saved.getTotalItems())
+                .processedItems(saved.getProcessedItems())
+                .createdAt(saved.getCreatedAt())
+                .build();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(response));
+    }
+
+    private String toJson(Map<String, Object> params) {
+        try {
+            return objectMapper.writeValueAsString(params);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to serialize payload");
+        }
+    }
+}
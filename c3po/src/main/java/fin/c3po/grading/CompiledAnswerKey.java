@@ -0,0 +1,188 @@
+package fin.c3po.grading;
+
+import fin.c3po.grading.dto.AnswerKeyItem;
+import fin.c3po.submission.dto.CreateQuizAttemptRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 编译后的答案：每道题预先构建好匹配器（归一化后的答案集合、预编译正则、数值区间），
+ * 批改时每题只需一次哈希查找和一次匹配，实例不可变，可在线程间共享
+ */
+public final class CompiledAnswerKey {
+
+    private static final Pattern OPTION_SEPARATOR = Pattern.compile("[\\s,;，；]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, CompiledItem> items;
+    private final List<String> questionIds;
+    private final double totalPoints;
+
+    private CompiledAnswerKey(Map<String, CompiledItem> items, List<String> questionIds, double totalPoints) {
+        this.items = items;
+        this.questionIds = questionIds;
+        this.totalPoints = totalPoints;
+    }
+
+    public static CompiledAnswerKey compile(List<AnswerKeyItem> items) {
+        Map<String, CompiledItem> compiled = new HashMap<>(items.size() * 2);
+        List<String> questionIds = new ArrayList<>(items.size());
+        double total = 0;
+        for (AnswerKeyItem item : items) {
+            Set<String> correctOptions = isChoice(item.getType())
+                    ? options(String.join(",", item.getAccepted()))
+                    : Set.of();
+            compiled.put(item.getQuestionId(), new CompiledItem(item.getType(), item.getPoints(),
+                    Set.copyOf(correctOptions), compileItem(item)));
+            questionIds.add(item.getQuestionId());
+            total += item.getPoints();
+        }
+        return new CompiledAnswerKey(Map.copyOf(compiled), List.copyOf(questionIds), total);
+    }
+
+    /**
+     * 答案中的题目，保持录入顺序
+     */
+    public List<String> questionIds() {
+        return questionIds;
+    }
+
+    public double pointsOf(String questionId) {
+        CompiledItem item = items.get(questionId);
+        return item != null ? item.points() : 0;
+    }
+
+    /**
+     * 选择/判断题作答中选中的选项（归一化为大写）；其他题型返回空集合
+     */
+    public Set<String> selectedOptions(String questionId, String answer) {
+        CompiledItem item = items.get(questionId);
+        if (item == null || !isChoice(item.type())) {
+            return Set.of();
+        }
+        return options(answer);
+    }
+
+    public Set<String> correctOptions(String questionId) {
+        CompiledItem item = items.get(questionId);
+        return item != null ? item.correctOptions() : Set.of();
+    }
+
+    /**
+     * 批改一份作答，把每题得分写回答案对象；作答中出现答案未覆盖的题目时结果标记为不完整
+     */
+    public QuizGradeResult grade(List<CreateQuizAttemptRequest.Answer> answers) {
+        double earned = 0;
+        boolean complete = true;
+        for (CreateQuizAttemptRequest.Answer answer : answers) {
+            CompiledItem item = items.get(answer.getQuestionId());
+            if (item == null) {
+                complete = false;
+                continue;
+            }
+            double points = item.matcher().score(answer.getAnswer());
+            answer.setScore(points);
+            earned += points;
+        }
+        int score = totalPoints > 0 ? (int) Math.round(earned * 100 / totalPoints) : 0;
+        return new QuizGradeResult(Math.max(0, Math.min(100, score)), earned, complete);
+    }
+
+    private static QuestionMatcher compileItem(AnswerKeyItem item) {
+        double points = item.getPoints();
+        boolean caseSensitive = Boolean.TRUE.equals(item.getCaseSensitive());
+        return switch (item.getType()) {
+            case SINGLE_CHOICE, TRUE_FALSE -> {
+                Set<String> accepted = item.getAccepted().stream()
+                        .map(CompiledAnswerKey::normalizeOption)
+                        .collect(Collectors.toUnmodifiableSet());
+                yield answer -> answer != null && accepted.contains(normalizeOption(answer)) ? points : 0;
+            }
+            case MULTIPLE_CHOICE -> {
+                Set<String> correct = options(String.join(",", item.getAccepted()));
+                boolean partial = Boolean.TRUE.equals(item.getPartialCredit());
+                yield answer -> {
+                    Set<String> selected = options(answer);
+                    if (selected.equals(correct)) {
+                        return points;
+                    }
+                    if (partial && !selected.isEmpty() && correct.containsAll(selected)) {
+                        return points * selected.size() / correct.size();
+                    }
+                    return 0;
+                };
+            }
+            case TEXT -> {
+                Set<String> accepted = item.getAccepted().stream()
+                        .map(value -> normalizeText(value, caseSensitive))
+                        .collect(Collectors.toUnmodifiableSet());
+                yield answer -> answer != null && accepted.contains(normalizeText(answer, caseSensitive)) ? points : 0;
+            }
+            case NUMERIC -> {
+                double[] targets = item.getAccepted().stream().mapToDouble(Double::parseDouble).toArray();
+                double tolerance = item.getTolerance() != null ? item.getTolerance() : 1e-9;
+                yield answer -> {
+                    double value;
+                    try {
+                        value = Double.parseDouble(answer.trim());
+                    } catch (NumberFormatException | NullPointerException e) {
+                        return 0;
+                    }
+                    return Arrays.stream(targets).anyMatch(target -> Math.abs(target - value) <= tolerance) ? points : 0;
+                };
+            }
+            case REGEX -> {
+                List<Pattern> patterns = item.getAccepted().stream()
+                        .map(regex -> Pattern.compile(regex, caseSensitive ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE))
+                        .toList();
+                yield answer -> answer != null
+                        && patterns.stream().anyMatch(pattern -> pattern.matcher(answer.trim()).matches()) ? points : 0;
+            }
+        };
+    }
+
+    private static boolean isChoice(QuestionType type) {
+        return type == QuestionType.SINGLE_CHOICE || type == QuestionType.MULTIPLE_CHOICE
+                || type == QuestionType.TRUE_FALSE;
+    }
+
+    private static Set<String> options(String value) {
+        Set<String> options = new HashSet<>();
+        if (value == null) {
+            return options;
+        }
+        for (String option : OPTION_SEPARATOR.split(value.trim())) {
+            if (!option.isEmpty()) {
+                options.add(option.toUpperCase(Locale.ROOT));
+            }
+        }
+        return options;
+    }
+
+    private static String normalizeOption(String value) {
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String normalizeText(String value, boolean caseSensitive) {
+        String collapsed = WHITESPACE.matcher(value.trim()).replaceAll(" ");
+        return caseSensitive ? collapsed : collapsed.toLowerCase(Locale.ROOT);
+    }
+
+    private record CompiledItem(QuestionType type, double points, Set<String> correctOptions,
+                                QuestionMatcher matcher) {
+    }
+
+    @FunctionalInterface
+    private interface QuestionMatcher {
+        double score(String answer);
+    }
+}
@@ -0,0 +1,10 @@
+package fin.c3po.grading;
+
+public enum QuestionType {
+    SINGLE_CHOICE,
+    MULTIPLE_CHOICE,
+    TRUE_FALSE,
+    TEXT,
+    NUMERIC,
+    REGEX
+}
@@ -0,0 +1,133 @@
+package fin.c3po.grading;
+
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.report.ReportJob;
+import fin.c3po.report.ReportJobRepository;
+import fin.c3po.report.ReportJobStatus;
+import fin.c3po.submission.QuizAnswerRepository;
+import fin.c3po.submission.QuizAnswerRow;
+import fin.c3po.submission.QuizAttemptGradeRow;
+import fin.c3po.submission.QuizAttemptRepository;
+import fin.c3po.submission.dto.CreateQuizAttemptRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 从作答数据重算题目分析计数器：在一个事务里清空旧计数、读取作答快照并标记，
+ * 各作答的增量并行计算后合并写入
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAnalyticsRebuilder {
+
+    private static final int UPDATE_BATCH_SIZE = 1000;
+
+    private final AssignmentRepository assignmentRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizAnswerRepository quizAnswerRepository;
+    private final QuizGrader quizGrader;
+    private final QuizStatsWriter statsWriter;
+    private final ReportJobRepository reportJobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Async
+    public void rebuild(UUID jobId, UUID assignmentId) {
+        ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != ReportJobStatus.QUEUED) {
+            return;
+        }
+        try {
+            CompiledAnswerKey key = assignmentRepository.findById(assignmentId)
+                    .flatMap(quizGrader::keyFor)
+                    .orElse(null);
+            job.setStatus(ReportJobStatus.PROCESSING);
+            job.setProcessedItems(0);
+            reportJobRepository.save(job);
+
+            // 先清空再在同一事务内读取作答快照，读取期间提交的作答要么被本次重建计入，要么由自身的计入分析累加
+            Integer rebuilt = transactionTemplate.execute(status -> {
+                statsWriter.reset(assignmentId);
+                List<QuizAttemptGradeRow> attempts = quizAttemptRepository.findGradeRows(assignmentId,
+                        QuizAnalyticsService.ANALYZED_STATUSES);
+                List<QuizAttemptGradeRow> marked = mark(attempts);
+                if (marked.isEmpty()) {
+                    return 0;
+                }
+                Map<UUID, List<CreateQuizAttemptRequest.Answer>> answers = answersOf(assignmentId);
+                QuizStatsDelta total = marked.parallelStream()
+                        .map(attempt -> QuizStatsDelta.ofAttempt(key,
+                                answers.getOrDefault(attempt.id(), new ArrayList<>()), scoreOf(attempt)))
+                        .collect(QuizStatsDelta::new, QuizStatsDelta::merge, QuizStatsDelta::merge);
+                statsWriter.apply(assignmentId, total, Timestamp.from(Instant.now()));
+                return marked.size();
+            });
+            int processed = rebuilt != null ? rebuilt : 0;
+
+            reportJobRepository.findById(jobId).ifPresent(current -> {
+                current.setStatus(ReportJobStatus.SUCCEEDED);
+                current.setTotalItems(processed);
+                current.setProcessedItems(processed);
+                current.setCompletedAt(Instant.now());
+                reportJobRepository.save(current);
+            });
+            log.info("Rebuilt quiz analytics of assignment {} from {} attempts", assignmentId, processed);
+        } catch (RuntimeException e) {
+            log.error("Quiz analytics rebuild job {} failed", jobId, e);
+            reportJobRepository.findById(jobId).ifPresent(current -> {
+                current.setStatus(ReportJobStatus.FAILED);
+                current.setCompletedAt(Instant.now());
+                reportJobRepository.save(current);
+            });
+        }
+    }
+
+    /**
+     * 只在 analyzed_at 仍为空时标记，已被并发的计入分析抢先累加的作答不再重复计入，返回本次标记成功的作答
+     */
+    private List<QuizAttemptGradeRow> mark(List<QuizAttemptGradeRow> attempts) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<QuizAttemptGradeRow> marked = new ArrayList<>(attempts.size());
+        for (int from = 0; from < attempts.size(); from += UPDATE_BATCH_SIZE) {
+            List<QuizAttemptGradeRow> batch = attempts.subList(from, Math.min(from + UPDATE_BATCH_SIZE, attempts.size()));
+            int[] counts = jdbcTemplate.batchUpdate("UPDATE quiz_attempts SET analyzed_at = ?, analyzed_score = ? "
+                            + "WHERE id = ? AND analyzed_at IS NULL",
+                    batch.stream().map(attempt -> new Object[] { now, scoreOf(attempt), attempt.id() }).toList());
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    marked.add(batch.get(i));
+                }
+            }
+        }
+        return marked;
+    }
+
+    private Map<UUID, List<CreateQuizAttemptRequest.Answer>> answersOf(UUID assignmentId) {
+        Map<UUID, List<CreateQuizAttemptRequest.Answer>> answers = new HashMap<>();
+        for (QuizAnswerRow row : quizAnswerRepository.findRowsByAssignment(assignmentId,
+                QuizAnalyticsService.ANALYZED_STATUSES)) {
+            CreateQuizAttemptRequest.Answer answer = new CreateQuizAttemptRequest.Answer();
+            answer.setQuestionId(row.questionId());
+            answer.setAnswer(row.answer());
+            answers.computeIfAbsent(row.attemptId(), id -> new ArrayList<>()).add(answer);
+        }
+        return answers;
+    }
+
+    private static int scoreOf(QuizAttemptGradeRow attempt) {
+        return attempt.score() != null ? attempt.score() : 0;
+    }
+}
@@ -0,0 +1,161 @@
+package fin.c3po.grading;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.grading.dto.QuizAnalyticsResponse;
+import fin.c3po.report.ReportJob;
+import fin.c3po.report.ReportJobRepository;
+import fin.c3po.report.ReportJobStatus;
+import fin.c3po.report.ReportJobType;
+import fin.c3po.submission.QuizAnswerService;
+import fin.c3po.submission.QuizAttempt;
+import fin.c3po.submission.QuizAttemptStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 测验题目分析：作答提交/改分时把增量累加到计数器，查询时只读计数器行，
+ * 与作答数量无关；计数器失真（答案变更、历史数据）时由重建任务从头计算
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAnalyticsService {
+
+    static final List<QuizAttemptStatus> ANALYZED_STATUSES = List.of(QuizAttemptStatus.SUBMITTED, QuizAttemptStatus.GRADED);
+
+    private final QuizItemStatRepository itemStatRepository;
+    private final QuizOptionStatRepository optionStatRepository;
+    private final QuizScoreStatRepository scoreStatRepository;
+    private final QuizAnswerService quizAnswerService;
+    private final QuizGrader quizGrader;
+    private final ReportJobRepository reportJobRepository;
+    private final QuizStatsWriter statsWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final QuizAnalyticsRebuilder rebuilder;
+
+    /**
+     * 作答进入已提交/已批改状态或被改分后调用；用 analyzed_at/analyzed_score 条件更新保证每份作答只计入一次，
+     * 分析失败只记日志，不影响提交本身
+     */
+    public void record(QuizAttempt attempt, Assignment assignment) {
+        if (!ANALYZED_STATUSES.contains(attempt.getStatus())) {
+            return;
+        }
+        int score = attempt.getScore() != null ? attempt.getScore() : 0;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Timestamp now = Timestamp.from(Instant.now());
+                CompiledAnswerKey key = quizGrader.keyFor(assignment).orElse(null);
+                int claimed = jdbcTemplate.update("UPDATE quiz_attempts SET analyzed_at = ?, analyzed_score = ? "
+                        + "WHERE id = ? AND analyzed_at IS NULL", now, score, attempt.getId());
+                if (claimed == 1) {
+                    statsWriter.apply(assignment.getId(), QuizStatsDelta.ofAttempt(key,
+                            quizAnswerService.answersOf(attempt.getId()), score), now);
+                    return;
+                }
+                Integer previous = jdbcTemplate.queryForObject(
+                        "SELECT analyzed_score FROM quiz_attempts WHERE id = ?", Integer.class, attempt.getId());
+                if (previous == null || previous == score) {
+                    return;
+                }
+                int rescored = jdbcTemplate.update("UPDATE quiz_attempts SET analyzed_score = ? "
+                        + "WHERE id = ? AND analyzed_score = ?", score, attempt.getId(), previous);
+                if (rescored == 1) {
+                    statsWriter.apply(assignment.getId(), QuizStatsDelta.ofRescore(key,
+                            quizAnswerService.answersOf(attempt.getId()), previous, score), now);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to record quiz analytics for attempt {}", attempt.getId(), e);
+        }
+    }
+
+    public QuizAnalyticsResponse analytics(Assignment assignment) {
+        CompiledAnswerKey key = quizGrader.keyFor(assignment).orElse(null);
+        QuizScoreStat scoreStat = scoreStatRepository.findByAssignmentId(assignment.getId()).orElse(null);
+        long attempts = scoreStat != null ? scoreStat.getAttempts() : 0;
+
+        Map<String, List<QuizOptionStat>> optionsByQuestion = new LinkedHashMap<>();
+        for (QuizOptionStat option : optionStatRepository.findByAssignmentIdOrderByQuestionIdAscOptionValueAsc(assignment.getId())) {
+            optionsByQuestion.computeIfAbsent(option.getQuestionId(), id -> new ArrayList<>()).add(option);
+        }
+        List<String> order = key != null ? key.questionIds() : List.of();
+        List<QuizAnalyticsResponse.ItemAnalysis> items = itemStatRepository.findByAssignmentId(assignment.getId()).stream()
+                .sorted(Comparator.comparingInt((QuizItemStat stat) -> {
+                    int index = order.indexOf(stat.getQuestionId());
+                    return index >= 0 ? index : Integer.MAX_VALUE;
+                }).thenComparing(QuizItemStat::getQuestionId))
+                .map(stat -> toItem(stat, key, optionsByQuestion.getOrDefault(stat.getQuestionId(), List.of())))
+                .toList();
+
+        QuizAnalyticsResponse.QuizAnalyticsResponseBuilder builder = QuizAnalyticsResponse.builder()
+                .assignmentId(assignment.getId())
+                .attempts(attempts)
+                .items(items);
+        if (attempts > 0) {
+            double mean = scoreStat.getScoreSum() / attempts;
+            builder.meanScore(mean)
+                    .scoreStdDev(Math.sqrt(Math.max(0, scoreStat.getScoreSquares() / attempts - mean * mean)))
+                    .updatedAt(scoreStat.getUpdatedAt());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 排队一次重建任务，进度通过 /jobs/{jobId} 查询
+     */
+    public ReportJob requestRebuild(UUID assignmentId) {
+        ReportJob job = new ReportJob();
+        job.setJobType(ReportJobType.QUIZ_ANALYTICS_REBUILD);
+        job.setStatus(ReportJobStatus.QUEUED);
+        job.setParams("{\"assignmentId\":\"" + assignmentId + "\"}");
+        ReportJob saved = reportJobRepository.save(job);
+        rebuilder.rebuild(saved.getId(), assignmentId);
+        return saved;
+    }
+
+    private static QuizAnalyticsResponse.ItemAnalysis toItem(QuizItemStat stat, CompiledAnswerKey key,
+                                                             List<QuizOptionStat> options) {
+        double n = stat.getScored();
+        Double difficulty = n > 0 ? stat.getSumX() / n : null;
+        Double discrimination = null;
+        if (n > 1) {
+            double varianceX = n * stat.getSumX2() - stat.getSumX() * stat.getSumX();
+            double varianceY = n * stat.getSumY2() - stat.getSumY() * stat.getSumY();
+            if (varianceX > 0 && varianceY > 0) {
+                discrimination = (n * stat.getSumXy() - stat.getSumX() * stat.getSumY()) / Math.sqrt(varianceX * varianceY);
+            }
+        }
+        Set<String> correct = key != null ? key.correctOptions(stat.getQuestionId()) : Set.of();
+        List<QuizAnalyticsResponse.OptionFrequency> frequencies = options.stream()
+                .map(option -> QuizAnalyticsResponse.OptionFrequency.builder()
+                        .option(option.getOptionValue())
+                        .selections(option.getSelections())
+                        .rate(stat.getResponses() > 0 ? (double) option.getSelections() / stat.getResponses() : null)
+                        .correct(correct.contains(option.getOptionValue()))
+                        .build())
+                .toList();
+        return QuizAnalyticsResponse.ItemAnalysis.builder()
+                .questionId(stat.getQuestionId())
+                .responses(stat.getResponses())
+                .scored(stat.getScored())
+                .difficulty(difficulty)
+                .discrimination(discrimination)
+                .options(frequencies)
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+package fin.c3po.grading;
+
+/**
+ * 自动批改结果；complete 为 false 表示存在答案未覆盖的题目，需要教师复核
+ */
+public record QuizGradeResult(int score, double earnedPoints, boolean complete) {
+}
@@ -0,0 +1,75 @@
+package fin.c3po.grading;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.assignment.Assignment;
+import fin.c3po.grading.dto.AnswerKeyItem;
+import fin.c3po.submission.dto.CreateQuizAttemptRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 测验自动批改：按作业缓存编译后的答案，以作业的 updatedAt 作为版本，答案修改后自动失效
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizGrader {
+
+    private static final TypeReference<List<AnswerKeyItem>> KEY_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, CachedKey> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 取得作业的编译后答案；作业未配置答案时返回 empty
+     */
+    public Optional<CompiledAnswerKey> keyFor(Assignment assignment) {
+        if (assignment.getAnswerKey() == null || assignment.getAnswerKey().isBlank()) {
+            cache.remove(assignment.getId());
+            return Optional.empty();
+        }
+        CachedKey cached = cache.get(assignment.getId());
+        if (cached != null && Objects.equals(cached.version(), assignment.getUpdatedAt())) {
+            return Optional.of(cached.key());
+        }
+        try {
+            CompiledAnswerKey key = CompiledAnswerKey.compile(parse(assignment.getAnswerKey()));
+            cache.put(assignment.getId(), new CachedKey(assignment.getUpdatedAt(), key));
+            return Optional.of(key);
+        } catch (RuntimeException e) {
+            log.warn("Ignoring invalid answer key of assignment {}", assignment.getId(), e);
+            return Optional.empty();
+        }
+    }
+
+    public Optional<QuizGradeResult> grade(Assignment assignment, List<CreateQuizAttemptRequest.Answer> answers) {
+        return keyFor(assignment).map(key -> key.grade(answers));
+    }
+
+    public List<AnswerKeyItem> parse(String json) {
+        try {
+            return objectMapper.readValue(json, KEY_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid answer key JSON", e);
+        }
+    }
+
+    public void evict(UUID assignmentId) {
+        cache.remove(assignmentId);
+    }
+
+    private record CachedKey(Instant version, CompiledAnswerKey key) {
+    }
+}
@@ -0,0 +1,52 @@
+package fin.c3po.grading;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * 单题分析计数器：x 为该题得分率（0~1），y 为作答总分；计数只通过原子 SQL 累加
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "quiz_item_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_quiz_item_stats_assignment_question", columnNames = {"assignmentId", "questionId"})
+})
+public class QuizItemStat extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID assignmentId;
+
+    @Column(nullable = false, length = 64)
+    private String questionId;
+
+    @Column(nullable = false)
+    private long responses;
+
+    @Column(nullable = false)
+    private long scored;
+
+    @Column(nullable = false)
+    private double sumX;
+
+    @Column(nullable = false)
+    private double sumX2;
+
+    @Column(nullable = false)
+    private double sumY;
+
+    @Column(nullable = false)
+    private double sumY2;
+
+    @Column(nullable = false)
+    private double sumXy;
+}
@@ -0,0 +1,10 @@
+package fin.c3po.grading;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface QuizItemStatRepository extends JpaRepository<QuizItemStat, UUID> {
+    List<QuizItemStat> findByAssignmentId(UUID assignmentId);
+}
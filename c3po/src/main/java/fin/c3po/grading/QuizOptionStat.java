@@ -0,0 +1,38 @@
+package fin.c3po.grading;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * 选择题各选项被选中的次数，用于干扰项分析
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "quiz_option_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_quiz_option_stats_option",
+                columnNames = {"assignmentId", "questionId", "optionValue"})
+})
+public class QuizOptionStat extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID assignmentId;
+
+    @Column(nullable = false, length = 64)
+    private String questionId;
+
+    @Column(nullable = false, length = 128)
+    private String optionValue;
+
+    @Column(nullable = false)
+    private long selections;
+}
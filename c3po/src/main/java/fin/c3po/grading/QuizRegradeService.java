@@ -0,0 +1,109 @@
+package fin.c3po.grading;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.grading.dto.QuizRegradeResponse;
+import fin.c3po.submission.QuizAnswerRepository;
+import fin.c3po.submission.QuizAnswerRow;
+import fin.c3po.submission.QuizAttemptGradeRow;
+import fin.c3po.submission.QuizAttemptRepository;
+import fin.c3po.submission.QuizAttemptStatus;
+import fin.c3po.submission.dto.CreateQuizAttemptRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 答案更正后的整卷重批：只读取作答状态与单题答案投影，并行批改，
+ * 结果用 JDBC 批量更新写回，不经过实体加载和逐条 save
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizRegradeService {
+
+    private static final int UPDATE_BATCH_SIZE = 1000;
+    private static final List<QuizAttemptStatus> GRADABLE = List.of(QuizAttemptStatus.SUBMITTED, QuizAttemptStatus.GRADED);
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizAnswerRepository quizAnswerRepository;
+    private final QuizGrader quizGrader;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public QuizRegradeResponse regrade(Assignment assignment) {
+        long started = System.nanoTime();
+        CompiledAnswerKey key = quizGrader.keyFor(assignment)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Quiz has no answer key"));
+        List<QuizAttemptGradeRow> attempts = quizAttemptRepository.findGradeRows(assignment.getId(), GRADABLE);
+        Map<UUID, List<CreateQuizAttemptRequest.Answer>> answers = new HashMap<>();
+        for (QuizAnswerRow row : quizAnswerRepository.findRowsByAssignment(assignment.getId(), GRADABLE)) {
+            CreateQuizAttemptRequest.Answer answer = new CreateQuizAttemptRequest.Answer();
+            answer.setQuestionId(row.questionId());
+            answer.setAnswer(row.answer());
+            answers.computeIfAbsent(row.attemptId(), id -> new ArrayList<>()).add(answer);
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Regraded> results = attempts.parallelStream()
+                .filter(attempt -> answers.containsKey(attempt.id()))
+                .map(attempt -> regradeAttempt(key, attempt, answers.get(attempt.id())))
+                .toList();
+
+        List<Object[]> attemptUpdates = new ArrayList<>(results.size());
+        List<Object[]> answerUpdates = new ArrayList<>();
+        for (Regraded result : results) {
+            attemptUpdates.add(new Object[] { result.score(), result.status().name(), now, result.attemptId() });
+            for (CreateQuizAttemptRequest.Answer answer : result.answers()) {
+                answerUpdates.add(new Object[] { answer.getScore(), now, result.attemptId(), answer.getQuestionId() });
+            }
+        }
+        batchUpdate("UPDATE quiz_attempts SET score = ?, status = ?, updated_at = ? WHERE id = ?", attemptUpdates);
+        batchUpdate("UPDATE quiz_answers SET score = ?, updated_at = ? WHERE attempt_id = ? AND question_id = ?",
+                answerUpdates);
+
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        log.info("Regraded {} of {} attempts for assignment {} in {} ms",
+                results.size(), attempts.size(), assignment.getId(), elapsed);
+        return QuizRegradeResponse.builder()
+                .assignmentId(assignment.getId())
+                .attempts(attempts.size())
+                .regraded(results.size())
+                .elapsedMillis(elapsed)
+                .build();
+    }
+
+    /**
+     * 答案未完全覆盖的作答：已人工批改的保留原分数，只刷新各题得分
+     */
+    private Regraded regradeAttempt(CompiledAnswerKey key, QuizAttemptGradeRow attempt,
+                                    List<CreateQuizAttemptRequest.Answer> answers) {
+        QuizGradeResult result = key.grade(answers);
+        QuizAttemptStatus status = result.complete() ? QuizAttemptStatus.GRADED : attempt.status();
+        Integer score = result.complete() || attempt.status() != QuizAttemptStatus.GRADED
+                ? Integer.valueOf(result.score())
+                : attempt.score();
+        return new Regraded(attempt.id(), score, status, answers);
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += UPDATE_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + UPDATE_BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private record Regraded(UUID attemptId, Integer score, QuizAttemptStatus status,
+                            List<CreateQuizAttemptRequest.Answer> answers) {
+    }
+}
@@ -0,0 +1,34 @@
+package fin.c3po.grading;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * 测验总分计数器：已计入分析的作答数及总分的一阶/二阶和
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "quiz_score_stats")
+public class QuizScoreStat extends BaseEntity {
+
+    @Column(nullable = false, unique = true)
+    private UUID assignmentId;
+
+    @Column(nullable = false)
+    private long attempts;
+
+    @Column(nullable = false)
+    private double scoreSum;
+
+    @Column(nullable = false)
+    private double scoreSquares;
+}
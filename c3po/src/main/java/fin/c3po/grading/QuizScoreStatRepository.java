@@ -0,0 +1,10 @@
+package fin.c3po.grading;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface QuizScoreStatRepository extends JpaRepository<QuizScoreStat, UUID> {
+    Optional<QuizScoreStat> findByAssignmentId(UUID assignmentId);
+}
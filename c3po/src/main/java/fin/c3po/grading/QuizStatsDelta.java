@@ -0,0 +1,152 @@
+package fin.c3po.grading;
+
+import fin.c3po.submission.dto.CreateQuizAttemptRequest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 题目分析计数器的增量：每道题保存作答数与得分率 x、总分 y 的一阶/二阶矩，
+ * 区分度（点二列相关）和难度都可以直接由这些和算出，增量之间可以直接相加合并
+ */
+final class QuizStatsDelta {
+
+    private final Map<String, ItemSums> items = new LinkedHashMap<>();
+    private final Map<String, Map<String, Long>> options = new HashMap<>();
+    private long attempts;
+    private double scoreSum;
+    private double scoreSquares;
+
+    /**
+     * 一份已提交作答的贡献；key 为 null（未配置答案）时只累计总分
+     */
+    static QuizStatsDelta ofAttempt(CompiledAnswerKey key, List<CreateQuizAttemptRequest.Answer> answers, int score) {
+        QuizStatsDelta delta = new QuizStatsDelta();
+        delta.attempts = 1;
+        delta.scoreSum = score;
+        delta.scoreSquares = (double) score * score;
+        if (key == null) {
+            return delta;
+        }
+        Map<String, CreateQuizAttemptRequest.Answer> byQuestion = gradedByQuestion(key, answers);
+        for (String questionId : key.questionIds()) {
+            CreateQuizAttemptRequest.Answer answer = byQuestion.get(questionId);
+            boolean answered = answer != null && answer.getAnswer() != null && !answer.getAnswer().isBlank();
+            double x = answered ? ratio(key, questionId, answer) : 0;
+            ItemSums sums = delta.item(questionId);
+            sums.responses += answered ? 1 : 0;
+            sums.scored += 1;
+            sums.sumX += x;
+            sums.sumX2 += x * x;
+            sums.sumY += score;
+            sums.sumY2 += (double) score * score;
+            sums.sumXY += x * score;
+            if (answered) {
+                for (String option : key.selectedOptions(questionId, answer.getAnswer())) {
+                    delta.options.computeIfAbsent(questionId, id -> new HashMap<>()).merge(option, 1L, Long::sum);
+                }
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * 人工改分：各题得分率不变，只修正与总分相关的矩
+     */
+    static QuizStatsDelta ofRescore(CompiledAnswerKey key, List<CreateQuizAttemptRequest.Answer> answers,
+                                    int oldScore, int newScore) {
+        QuizStatsDelta delta = new QuizStatsDelta();
+        double diff = newScore - oldScore;
+        double squaresDiff = (double) newScore * newScore - (double) oldScore * oldScore;
+        delta.scoreSum = diff;
+        delta.scoreSquares = squaresDiff;
+        if (key == null) {
+            return delta;
+        }
+        Map<String, CreateQuizAttemptRequest.Answer> byQuestion = gradedByQuestion(key, answers);
+        for (String questionId : key.questionIds()) {
+            CreateQuizAttemptRequest.Answer answer = byQuestion.get(questionId);
+            boolean answered = answer != null && answer.getAnswer() != null && !answer.getAnswer().isBlank();
+            double x = answered ? ratio(key, questionId, answer) : 0;
+            ItemSums sums = delta.item(questionId);
+            sums.sumY += diff;
+            sums.sumY2 += squaresDiff;
+            sums.sumXY += x * diff;
+        }
+        return delta;
+    }
+
+    QuizStatsDelta merge(QuizStatsDelta other) {
+        attempts += other.attempts;
+        scoreSum += other.scoreSum;
+        scoreSquares += other.scoreSquares;
+        other.items.forEach((questionId, sums) -> item(questionId).add(sums));
+        other.options.forEach((questionId, counts) -> {
+            Map<String, Long> target = options.computeIfAbsent(questionId, id -> new HashMap<>());
+            counts.forEach((option, count) -> target.merge(option, count, Long::sum));
+        });
+        return this;
+    }
+
+    Map<String, ItemSums> items() {
+        return items;
+    }
+
+    Map<String, Map<String, Long>> options() {
+        return options;
+    }
+
+    long attempts() {
+        return attempts;
+    }
+
+    double scoreSum() {
+        return scoreSum;
+    }
+
+    double scoreSquares() {
+        return scoreSquares;
+    }
+
+    private ItemSums item(String questionId) {
+        return items.computeIfAbsent(questionId, id -> new ItemSums());
+    }
+
+    private static Map<String, CreateQuizAttemptRequest.Answer> gradedByQuestion(
+            CompiledAnswerKey key, List<CreateQuizAttemptRequest.Answer> answers) {
+        key.grade(answers);
+        Map<String, CreateQuizAttemptRequest.Answer> byQuestion = new HashMap<>(answers.size() * 2);
+        answers.forEach(answer -> byQuestion.put(answer.getQuestionId(), answer));
+        return byQuestion;
+    }
+
+    private static double ratio(CompiledAnswerKey key, String questionId, CreateQuizAttemptRequest.Answer answer) {
+        double points = key.pointsOf(questionId);
+        if (points <= 0 || answer.getScore() == null) {
+            return 0;
+        }
+        return Math.max(0, Math.min(1, answer.getScore() / points));
+    }
+
+    static final class ItemSums {
+        long responses;
+        long scored;
+        double sumX;
+        double sumX2;
+        double sumY;
+        double sumY2;
+        double sumXY;
+
+        private void add(ItemSums other) {
+            responses += other.responses;
+            scored += other.scored;
+            sumX += other.sumX;
+            sumX2 += other.sumX2;
+            sumY += other.sumY;
+            sumY2 += other.sumY2;
+            sumXY += other.sumXY;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package fin.c3po.grading;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 题目分析计数器的写入，全部是 INSERT ... ON CONFLICT DO UPDATE 的原子累加，
+ * 缺行时插入、已有行时 "列 = 列 + EXCLUDED.列"，多个实例并发提交也不会丢计数，也不依赖批量更新的返回行数
+ */
+@Component
+@RequiredArgsConstructor
+public class QuizStatsWriter {
+
+    private static final int OPTION_MAX_LENGTH = 128;
+
+    private static final String UPSERT_ITEM = "INSERT INTO quiz_item_stats (id, created_at, updated_at, assignment_id, "
+            + "question_id, responses, scored, sum_x, sum_x2, sum_y, sum_y2, sum_xy) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (assignment_id, question_id) DO UPDATE SET "
+            + "responses = quiz_item_stats.responses + EXCLUDED.responses, "
+            + "scored = quiz_item_stats.scored + EXCLUDED.scored, "
+            + "sum_x = quiz_item_stats.sum_x + EXCLUDED.sum_x, sum_x2 = quiz_item_stats.sum_x2 + EXCLUDED.sum_x2, "
+            + "sum_y = quiz_item_stats.sum_y + EXCLUDED.sum_y, sum_y2 = quiz_item_stats.sum_y2 + EXCLUDED.sum_y2, "
+            + "sum_xy = quiz_item_stats.sum_xy + EXCLUDED.sum_xy, updated_at = EXCLUDED.updated_at";
+    private static final String UPSERT_OPTION = "INSERT INTO quiz_option_stats (id, created_at, updated_at, "
+            + "assignment_id, question_id, option_value, selections) VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (assignment_id, question_id, option_value) DO UPDATE SET "
+            + "selections = quiz_option_stats.selections + EXCLUDED.selections, updated_at = EXCLUDED.updated_at";
+    private static final String UPSERT_SCORE = "INSERT INTO quiz_score_stats (id, created_at, updated_at, assignment_id, "
+            + "attempts, score_sum, score_squares) VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (assignment_id) DO UPDATE SET attempts = quiz_score_stats.attempts + EXCLUDED.attempts, "
+            + "score_sum = quiz_score_stats.score_sum + EXCLUDED.score_sum, "
+            + "score_squares = quiz_score_stats.score_squares + EXCLUDED.score_squares, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 清空作业的计数器，供重建任务在同一事务内重新写入；同时锁住该作业已有的作答行，
+     * 事务提交前并发的计入分析会等待，提交后因 analyzed_at 已被重建设置而跳过
+     */
+    void reset(UUID assignmentId) {
+        jdbcTemplate.update("DELETE FROM quiz_item_stats WHERE assignment_id = ?", assignmentId);
+        jdbcTemplate.update("DELETE FROM quiz_option_stats WHERE assignment_id = ?", assignmentId);
+        jdbcTemplate.update("DELETE FROM quiz_score_stats WHERE assignment_id = ?", assignmentId);
+        jdbcTemplate.update("UPDATE quiz_attempts SET analyzed_at = NULL, analyzed_score = NULL WHERE assignment_id = ?",
+                assignmentId);
+    }
+
+    /**
+     * 把增量累加到计数器，每张表一次批量 upsert
+     */
+    void apply(UUID assignmentId, QuizStatsDelta delta, Timestamp now) {
+        List<Object[]> items = new ArrayList<>();
+        delta.items().forEach((questionId, sums) -> items.add(new Object[] { UUID.randomUUID(), now, now, assignmentId,
+                questionId, sums.responses, sums.scored, sums.sumX, sums.sumX2, sums.sumY, sums.sumY2, sums.sumXY }));
+        if (!items.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ITEM, items);
+        }
+
+        // 截断后可能有两个选项落到同一个值，同一条语句里重复的冲突键会报错，先合并
+        Map<List<String>, Long> merged = new LinkedHashMap<>();
+        delta.options().forEach((questionId, counts) -> counts.forEach((option, count) -> {
+            String value = option.length() > OPTION_MAX_LENGTH ? option.substring(0, OPTION_MAX_LENGTH) : option;
+            merged.merge(List.of(questionId, value), count.longValue(), Long::sum);
+        }));
+        List<Object[]> options = new ArrayList<>();
+        merged.forEach((key, count) -> options.add(new Object[] { UUID.randomUUID(), now, now, assignmentId,
+                key.get(0), key.get(1), count }));
+        if (!options.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_OPTION, options);
+        }
+
+        jdbcTemplate.update(UPSERT_SCORE, UUID.randomUUID(), now, now, assignmentId, delta.attempts(),
+                delta.scoreSum(), delta.scoreSquares());
+    }
+}
@@ -0,0 +1,42 @@
+package fin.c3po.grading;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.submission.QuizAnswerService;
+import fin.c3po.submission.QuizAttempt;
+import fin.c3po.submission.QuizAttemptRepository;
+import fin.c3po.submission.QuizAttemptStatus;
+import fin.c3po.submission.dto.CreateQuizAttemptRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 作答提交后的收尾，手动提交与超时自动提交共用
+ */
+@Service
+@RequiredArgsConstructor
+public class QuizSubmissionGrader {
+
+    private final QuizGrader quizGrader;
+    private final QuizAnswerService quizAnswerService;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizAnalyticsService quizAnalyticsService;
+
+    /**
+     * 配置了答案的测验自动批改，答案未覆盖全部题目时给出暂定分数并保持待批改状态；随后计入题目分析
+     */
+    public QuizAttempt gradeSubmitted(QuizAttempt attempt, Assignment assignment) {
+        List<CreateQuizAttemptRequest.Answer> answers = quizAnswerService.answersOf(attempt.getId());
+        QuizAttempt graded = quizGrader.grade(assignment, answers).map(result -> {
+            quizAnswerService.saveScores(attempt.getId(), answers);
+            attempt.setScore(result.score());
+            if (result.complete()) {
+                attempt.setStatus(QuizAttemptStatus.GRADED);
+            }
+            return quizAttemptRepository.save(attempt);
+        }).orElse(attempt);
+        quizAnalyticsService.record(graded, assignment);
+        return graded;
+    }
+}
@@ -0,0 +1,50 @@
+package fin.c3po.grading.dto;
+
+import fin.c3po.grading.QuestionType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class AnswerKeyItem {
+
+    @NotBlank
+    @Size(max = 64)
+    private String questionId;
+
+    @NotNull
+    private QuestionType type;
+
+    /**
+     * 可接受的答案：选择题为选项（多选题可写作 "A,C"），文本题为候选答案，正则题为表达式
+     */
+    @NotEmpty
+    @Size(max = 20)
+    private List<@NotBlank @Size(max = 512) String> accepted = new ArrayList<>();
+
+    @NotNull
+    @Positive
+    private Double points;
+
+    /**
+     * 数值题允许的绝对误差
+     */
+    @PositiveOrZero
+    private Double tolerance;
+
+    private Boolean caseSensitive;
+
+    /**
+     * 多选题未选错时按选中比例给分
+     */
+    private Boolean partialCredit;
+}
@@ -0,0 +1,42 @@
+package fin.c3po.grading.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 测验题目分析：difficulty 为平均得分率（p 值），discrimination 为题目得分率与总分的点二列相关系数
+ */
+@Value
+@Builder
+public class QuizAnalyticsResponse {
+    UUID assignmentId;
+    long attempts;
+    Double meanScore;
+    Double scoreStdDev;
+    Instant updatedAt;
+    List<ItemAnalysis> items;
+
+    @Value
+    @Builder
+    public static class ItemAnalysis {
+        String questionId;
+        long responses;
+        long scored;
+        Double difficulty;
+        Double discrimination;
+        List<OptionFrequency> options;
+    }
+
+    @Value
+    @Builder
+    public static class OptionFrequency {
+        String option;
+        long selections;
+        Double rate;
+        boolean correct;
+    }
+}
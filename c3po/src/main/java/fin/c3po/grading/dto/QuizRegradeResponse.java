@@ -0,0 +1,15 @@
+package fin.c3po.grading.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+@Value
+@Builder
+public class QuizRegradeResponse {
+    UUID assignmentId;
+    int attempts;
+    int regraded;
+    long elapsedMillis;
+}
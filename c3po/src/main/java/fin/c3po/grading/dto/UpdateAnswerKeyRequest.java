@@ -0,0 +1,25 @@
+package fin.c3po.grading.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class UpdateAnswerKeyRequest {
+
+    @Valid
+    @NotEmpty
+    @Size(max = 200)
+    private List<AnswerKeyItem> items = new ArrayList<>();
+
+    /**
+     * 保存后立即重新批改该测验全部已提交作答
+     */
+    private Boolean regrade;
+}
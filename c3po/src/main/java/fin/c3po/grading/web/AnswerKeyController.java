@@ -0,0 +1,128 @@
+package fin.c3po.grading.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.assignment.AssignmentType;
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.grading.CompiledAnswerKey;
+import fin.c3po.grading.QuizAnalyticsService;
+import fin.c3po.grading.QuizGrader;
+import fin.c3po.grading.QuizRegradeService;
+import fin.c3po.grading.dto.AnswerKeyItem;
+import fin.c3po.grading.dto.QuizRegradeResponse;
+import fin.c3po.grading.dto.UpdateAnswerKeyRequest;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1")
+@Validated
+@RequiredArgsConstructor
+public class AnswerKeyController {
+
+    private final AssignmentRepository assignmentRepository;
+    private final CourseRepository courseRepository;
+    private final QuizGrader quizGrader;
+    private final QuizRegradeService quizRegradeService;
+    private final QuizAnalyticsService quizAnalyticsService;
+    private final ObjectMapper objectMapper;
+
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @GetMapping("/assignments/{assignmentId}/answer-key")
+    public ApiResponse<List<AnswerKeyItem>> getAnswerKey(
+            @PathVariable UUID assignmentId,
+            @AuthenticationPrincipal UserAccount currentUser) {
+        Assignment assignment = loadQuiz(assignmentId, currentUser);
+        if (assignment.getAnswerKey() == null || assignment.getAnswerKey().isBlank()) {
+            return ApiResponse.success(List.of());
+        }
+        return ApiResponse.success(quizGrader.parse(assignment.getAnswerKey()));
+    }
+
+    /**
+     * 保存测验答案；可选地立即重批已提交的作答
+     */
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @PutMapping("/assignments/{assignmentId}/answer-key")
+    public ApiResponse<QuizRegradeResponse> updateAnswerKey(
+            @PathVariable UUID assignmentId,
+            @Valid @RequestBody UpdateAnswerKeyRequest request,
+            @AuthenticationPrincipal UserAccount currentUser) {
+        Assignment assignment = loadQuiz(assignmentId, currentUser);
+
+        Set<String> questionIds = new HashSet<>();
+        for (AnswerKeyItem item : request.getItems()) {
+            if (!questionIds.add(item.getQuestionId())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Duplicate question in answer key: " + item.getQuestionId());
+            }
+        }
+        try {
+            CompiledAnswerKey.compile(request.getItems());
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid answer key: " + e.getMessage());
+        }
+
+        try {
+            assignment.setAnswerKey(objectMapper.writeValueAsString(request.getItems()));
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid answer key format");
+        }
+        Assignment saved = assignmentRepository.save(assignment);
+        quizGrader.evict(assignmentId);
+
+        QuizRegradeResponse response = Boolean.TRUE.equals(request.getRegrade())
+                ? quizRegradeService.regrade(saved)
+                : QuizRegradeResponse.builder().assignmentId(assignmentId).build();
+        // 分值与正确选项可能已变化，题目分析计数器需要按新答案重算
+        quizAnalyticsService.requestRebuild(assignmentId);
+        return ApiResponse.success(response);
+    }
+
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @PostMapping("/assignments/{assignmentId}/quiz-attempts/regrade")
+    public ApiResponse<QuizRegradeResponse> regrade(
+            @PathVariable UUID assignmentId,
+            @AuthenticationPrincipal UserAccount currentUser) {
+        QuizRegradeResponse response = quizRegradeService.regrade(loadQuiz(assignmentId, currentUser));
+        quizAnalyticsService.requestRebuild(assignmentId);
+        return ApiResponse.success(response);
+    }
+
+    private Assignment loadQuiz(UUID assignmentId, UserAccount currentUser) {
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
+        if (assignment.getType() != AssignmentType.QUIZ) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assignment is not a quiz");
+        }
+        Course course = courseRepository.findById(assignment.getCourseId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        if (currentUser.getRole() != UserRole.ADMIN && !course.getTeacherId().equals(currentUser.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to manage answer key");
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,83 @@
+package fin.c3po.grading.web;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.assignment.AssignmentType;
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.grading.QuizAnalyticsService;
+import fin.c3po.grading.dto.QuizAnalyticsResponse;
+import fin.c3po.report.ReportJob;
+import fin.c3po.report.dto.ReportJobResponse;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1")
+@Validated
+@RequiredArgsConstructor
+public class QuizAnalyticsController {
+
+    private final AssignmentRepository assignmentRepository;
+    private final CourseRepository courseRepository;
+    private final QuizAnalyticsService quizAnalyticsService;
+
+    /**
+     * 题目难度、区分度与选项分布，直接读取累加好的计数器
+     */
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @GetMapping("/assignments/{assignmentId}/quiz-analytics")
+    public ApiResponse<QuizAnalyticsResponse> getQuizAnalytics(
+            @PathVariable UUID assignmentId,
+            @AuthenticationPrincipal UserAccount currentUser) {
+        return ApiResponse.success(quizAnalyticsService.analytics(loadQuiz(assignmentId, currentUser)));
+    }
+
+    /**
+     * 从全部已提交作答重算计数器，用于历史数据或计数器失真时
+     */
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @PostMapping("/assignments/{assignmentId}/quiz-analytics/rebuild")
+    public ResponseEntity<ApiResponse<ReportJobResponse>> rebuildQuizAnalytics(
+            @PathVariable UUID assignmentId,
+            @AuthenticationPrincipal UserAccount currentUser) {
+        loadQuiz(assignmentId, currentUser);
+        ReportJob job = quizAnalyticsService.requestRebuild(assignmentId);
+        ReportJobResponse response = ReportJobResponse.builder()
+                .id(job.getId())
+                .jobType(job.getJobType())
+                .status(job.getStatus())
+                .createdAt(job.getCreatedAt())
+                .build();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(response));
+    }
+
+    private Assignment loadQuiz(UUID assignmentId, UserAccount currentUser) {
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
+        if (assignment.getType() != AssignmentType.QUIZ) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assignment is not a quiz");
+        }
+        Course course = courseRepository.findById(assignment.getCourseId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        if (currentUser.getRole() != UserRole.ADMIN && !course.getTeacherId().equals(currentUser.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view quiz analytics");
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,11 @@
+package fin.c3po.notify;
+
+/**
+ * 外发渠道适配器：每个渠道一个实现，抛出异常即视为本次发送失败，由分发器按退避策略重试
+ */
+public interface ChannelSender {
+
+    NotificationChannel channel();
+
+    void send(OutboxMessage message);
+}
@@ -0,0 +1,9 @@
+package fin.c3po.notify;
+
+import java.util.UUID;
+
+/**
+ * 面向课程全体选课学生的通知事件，经 NotificationDispatcher 合并后扇出
+ */
+public record CourseNotificationEvent(UUID courseId, String targetType, String title, String content) {
+}
@@ -0,0 +1,21 @@
+package fin.c3po.notify;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 未启用 Redis 时的进程内总线，也是测试环境的替身
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "c3po.redis.enabled", havingValue = "false", matchIfMissing = true)
+public class LocalNotificationBus implements NotificationBus {
+
+    private final NotificationStreamHub streamHub;
+
+    @Override
+    public void publish(NotificationPush push) {
+        streamHub.dispatch(push);
+    }
+}
@@ -0,0 +1,126 @@
+package fin.c3po.notify;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单节点部署的进程内未读计数，定期按数据库重算已加载用户的计数；
+ * 长时间未读取的用户在对账时移出，总条目数也有上限，下次读取时重新加载
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "c3po.redis.enabled", havingValue = "false", matchIfMissing = true)
+public class LocalUnreadCounter implements UnreadCounter {
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+    private static final Duration IDLE_TTL = Duration.ofMinutes(30);
+    private static final int MAX_ENTRIES = 100_000;
+
+    private final NotificationDeliveryRepository deliveryRepository;
+    private final Map<UUID, Entry> counts = new ConcurrentHashMap<>();
+
+    /**
+     * 未命中时先放入计数为 0 的条目再查库，查库期间到达的递增记在条目上，查出的计数随后累加；
+     * 这样不会漏掉查库后提交的扇出，只有查库前已提交、递增却晚到的扇出可能多计一次，由对账纠正
+     */
+    @Override
+    public long get(UUID userId) {
+        Entry entry = counts.get(userId);
+        if (entry == null) {
+            Entry seeded = new Entry();
+            entry = counts.putIfAbsent(userId, seeded);
+            if (entry == null) {
+                try {
+                    seeded.count.addAndGet(deliveryRepository.countByUserIdAndReadAtIsNull(userId));
+                } catch (RuntimeException e) {
+                    counts.remove(userId, seeded);
+                    throw e;
+                }
+                seeded.loaded = true;
+                return seeded.count.get();
+            }
+        }
+        entry.lastRead = Instant.now();
+        // 其他请求还在查库，本次直接读库，不返回尚未加载完的计数
+        return entry.loaded ? entry.count.get() : deliveryRepository.countByUserIdAndReadAtIsNull(userId);
+    }
+
+    @Override
+    public void increment(Collection<UUID> userIds) {
+        for (UUID userId : userIds) {
+            Entry entry = counts.get(userId);
+            if (entry != null) {
+                entry.count.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void decrement(UUID userId) {
+        Entry entry = counts.get(userId);
+        if (entry != null) {
+            entry.count.updateAndGet(value -> Math.max(0, value - 1));
+        }
+    }
+
+    @Override
+    public void clear(UUID userId) {
+        Entry entry = counts.get(userId);
+        if (entry != null) {
+            entry.count.set(0);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.unread.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        evictIdle();
+        List<UUID> userIds = new ArrayList<>(counts.keySet());
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH_SIZE) {
+            List<UUID> batch = userIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, userIds.size()));
+            Set<UUID> zero = new HashSet<>(batch);
+            for (UnreadCountRow row : deliveryRepository.countUnreadByUserIdIn(batch)) {
+                zero.remove(row.userId());
+                Entry entry = counts.get(row.userId());
+                if (entry != null && entry.loaded) {
+                    entry.count.set(row.unread());
+                }
+            }
+            zero.forEach(this::clear);
+        }
+    }
+
+    private void evictIdle() {
+        Instant idleBefore = Instant.now().minus(IDLE_TTL);
+        counts.values().removeIf(entry -> entry.loaded && entry.lastRead.isBefore(idleBefore));
+        int excess = counts.size() - MAX_ENTRIES;
+        if (excess > 0) {
+            counts.entrySet().stream()
+                    .sorted(Comparator.comparing(e -> e.getValue().lastRead))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(counts::remove);
+        }
+    }
+
+    private static final class Entry {
+        private final AtomicLong count = new AtomicLong();
+        private volatile boolean loaded;
+        private volatile Instant lastRead = Instant.now();
+    }
+}
@@ -2,7 +2,7 @@ package fin.c3po.notify;
 
 import fin.c3po.common.domain.BaseEntity;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -32,7 +32,8 @@ public class Notification extends BaseEntity {
     @Column(length = 4096)
     private String content;
 
-    @ElementCollection
+    @Convert(converter = NotificationChannelMaskConverter.class)
+    @Column(name = "send_channel_mask")
     private List<NotificationChannel> sendChannels = new ArrayList<>();
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,9 @@
+package fin.c3po.notify;
+
+/**
+ * 节点间的推送总线：单机部署直接投递到本机连接，多节点部署经 Redis pub/sub 广播到所有节点
+ */
+public interface NotificationBus {
+
+    void publish(NotificationPush push);
+}
@@ -1,9 +1,20 @@
 package fin.c3po.notify;
 
+/**
+ * 发送渠道；bit 是落库位掩码中的位号，已分配的位不能修改或复用，新增渠道使用新的位号
+ */
 public enum NotificationChannel {
-    INBOX,
-    EMAIL,
-    SMS
-}
+    INBOX(0),
+    EMAIL(1),
+    SMS(2);
+
+    private final int bit;
 
+    NotificationChannel(int bit) {
+        this.bit = bit;
+    }
 
+    public int mask() {
+        return 1 << bit;
+    }
+}
@@ -0,0 +1,40 @@
+package fin.c3po.notify;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 发送渠道存为位掩码（每个渠道的位号固定在枚举上，与声明顺序无关），读出时按枚举顺序还原、去重
+ */
+@Converter
+public class NotificationChannelMaskConverter implements AttributeConverter<List<NotificationChannel>, Integer> {
+
+    private static final NotificationChannel[] CHANNELS = NotificationChannel.values();
+
+    @Override
+    public Integer convertToDatabaseColumn(List<NotificationChannel> channels) {
+        int mask = 0;
+        if (channels != null) {
+            for (NotificationChannel channel : channels) {
+                mask |= channel.mask();
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public List<NotificationChannel> convertToEntityAttribute(Integer mask) {
+        List<NotificationChannel> channels = new ArrayList<>();
+        if (mask != null) {
+            for (NotificationChannel channel : CHANNELS) {
+                if ((mask & channel.mask()) != 0) {
+                    channels.add(channel);
+                }
+            }
+        }
+        return channels;
+    }
+}
@@ -0,0 +1,37 @@
+package fin.c3po.notify;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 通知的收件记录：每个收件人一行，"我的通知" 按 (user_id, created_at, id) 索引做 keyset 分页
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "notification_deliveries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_notification_deliveries_notification_user", columnNames = {"notificationId", "userId"})
+}, indexes = {
+        @Index(name = "idx_notification_deliveries_user_created", columnList = "userId, createdAt, id")
+})
+public class NotificationDelivery extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID notificationId;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    private Instant readAt;
+}
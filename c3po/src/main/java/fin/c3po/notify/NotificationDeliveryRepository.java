@@ -0,0 +1,49 @@
+package fin.c3po.notify;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface NotificationDeliveryRepository extends JpaRepository<NotificationDelivery, UUID> {
+
+    String INBOX_ROW = "select new fin.c3po.notify.NotificationDeliveryRow(d.id, n.id, n.targetType, n.title, n.content, "
+            + "d.createdAt, d.readAt) from NotificationDelivery d join Notification n on n.id = d.notificationId ";
+
+    @Query(INBOX_ROW + "where d.userId = :userId order by d.createdAt desc, d.id desc")
+    List<NotificationDeliveryRow> findInbox(@Param("userId") UUID userId, Pageable pageable);
+
+    /**
+     * keyset 翻页：取游标 (createdAt, id) 之后（更早）的收件记录
+     */
+    @Query(INBOX_ROW + "where d.userId = :userId "
+            + "and (d.createdAt < :beforeCreatedAt or (d.createdAt = :beforeCreatedAt and d.id < :beforeId)) "
+            + "order by d.createdAt desc, d.id desc")
+    List<NotificationDeliveryRow> findInboxBefore(@Param("userId") UUID userId,
+                                                  @Param("beforeCreatedAt") Instant beforeCreatedAt,
+                                                  @Param("beforeId") UUID beforeId,
+                                                  Pageable pageable);
+
+    @Modifying
+    @Query("update NotificationDelivery d set d.readAt = :now "
+            + "where d.userId = :userId and d.notificationId = :notificationId and d.readAt is null")
+    int markRead(@Param("userId") UUID userId, @Param("notificationId") UUID notificationId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update NotificationDelivery d set d.readAt = :now where d.userId = :userId and d.readAt is null")
+    int markAllRead(@Param("userId") UUID userId, @Param("now") Instant now);
+
+    boolean existsByUserIdAndNotificationId(UUID userId, UUID notificationId);
+
+    long countByUserIdAndReadAtIsNull(UUID userId);
+
+    @Query("select new fin.c3po.notify.UnreadCountRow(d.userId, count(d)) from NotificationDelivery d "
+            + "where d.userId in :userIds and d.readAt is null group by d.userId")
+    List<UnreadCountRow> countUnreadByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+}
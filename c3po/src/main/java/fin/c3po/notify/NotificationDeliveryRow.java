@@ -0,0 +1,11 @@
+package fin.c3po.notify;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 收件箱列表的一行：收件记录与通知内容的连接投影
+ */
+public record NotificationDeliveryRow(UUID deliveryId, UUID notificationId, String targetType, String title,
+                                      String content, Instant deliveredAt, Instant readAt) {
+}
@@ -0,0 +1,238 @@
+package fin.c3po.notify;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 通知分发器：业务事务提交后接收通知事件入队，由定时任务批量写入，
+ * 使请求耗时与收件人数量无关，且通知写入失败不会回滚业务数据。
+ * 同一收件人（或课程）同一目标类型（targetType）的通知在合并窗口内攒成一条摘要，摘要正文逐条列出标题与内容：
+ * 窗口内的第一条随下一次写入立即发出，之后到达的攒到窗口结束再合并发出，摘要满 DIGEST_MAX_ITEMS 条提前发出。
+ * 批量批改、连续改截止时间等场景下每个学生在一个窗口内通常只收到首条和一条摘要，写入量和外发次数随之下降。
+ * 事件只在内存中排队，进程崩溃会丢失尚未写出的部分：首条不等窗口，丢失范围限于一个写入间隔内的首条
+ * 和合并窗口内的后续通知（默认 30 秒），对时效要求高的场景可调小 notification.digest.window-ms。
+ * 写入失败（数据库短暂不可用等）的批次按指数退避重试，超过 MAX_ATTEMPTS 次才放弃并记错误日志
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int DIGEST_MAX_ITEMS = 20;
+    private static final int TITLE_MAX_LENGTH = 128;
+    private static final int CONTENT_MAX_LENGTH = 4096;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(2);
+
+    private final NotificationService notificationService;
+    private final Duration window;
+    private final BlockingQueue<Queued> queue = new LinkedBlockingQueue<>();
+    private final Map<DigestKey, Group> groups = new LinkedHashMap<>();
+    private final List<PendingWrite> retries = new ArrayList<>();
+
+    public NotificationDispatcher(NotificationService notificationService,
+                                  @Value("${notification.digest.window-ms:30000}") long windowMs) {
+        this.notificationService = notificationService;
+        this.window = Duration.ofMillis(Math.max(0, windowMs));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationEvent(NotificationEvent event) {
+        queue.offer(new Queued(new DigestKey(Scope.USER, event.recipientId(), event.targetType()),
+                new Item(event.title(), event.content())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseNotificationEvent(CourseNotificationEvent event) {
+        queue.offer(new Queued(new DigestKey(Scope.COURSE, event.courseId(), event.targetType()),
+                new Item(event.title(), event.content())));
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dispatch.interval-ms:500}")
+    public void drain() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void flush() {
+        flush(true);
+    }
+
+    /**
+     * 把新到的事件归入合并组：新开的组立即写出首条，已攒满或窗口到期的组写出摘要；all 为 true 时不等窗口全部写出
+     */
+    private synchronized void flush(boolean all) {
+        Instant now = Instant.now();
+        List<Queued> arrived = new ArrayList<>();
+        queue.drainTo(arrived);
+
+        List<NotificationEvent> events = new ArrayList<>();
+        List<PendingWrite> writes = new ArrayList<>();
+        for (Queued queued : arrived) {
+            Group group = groups.get(queued.key());
+            if (group == null) {
+                groups.put(queued.key(), new Group(now));
+                emit(queued.key(), List.of(queued.item()), events, writes);
+                continue;
+            }
+            group.items().add(queued.item());
+            if (group.items().size() >= DIGEST_MAX_ITEMS) {
+                emit(queued.key(), List.copyOf(group.items()), events, writes);
+                group.items().clear();
+            }
+        }
+
+        Iterator<Map.Entry<DigestKey, Group>> iterator = groups.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<DigestKey, Group> entry = iterator.next();
+            if (!all && entry.getValue().openedAt().plus(window).isAfter(now)) {
+                continue;
+            }
+            iterator.remove();
+            if (!entry.getValue().items().isEmpty()) {
+                emit(entry.getKey(), entry.getValue().items(), events, writes);
+            }
+        }
+
+        for (int from = 0; from < events.size(); from += BATCH_SIZE) {
+            writes.add(PendingWrite.ofEvents(
+                    List.copyOf(events.subList(from, Math.min(from + BATCH_SIZE, events.size())))));
+        }
+
+        Iterator<PendingWrite> due = retries.iterator();
+        while (due.hasNext()) {
+            PendingWrite retry = due.next();
+            if (all || !retry.notBefore().isAfter(now)) {
+                due.remove();
+                writes.add(retry);
+            }
+        }
+        writes.forEach(write -> write(write, now));
+    }
+
+    /**
+     * 写出一个批次；失败的批次按指数退避放回重试列表
+     */
+    private void write(PendingWrite write, Instant now) {
+        try {
+            if (write.course() != null) {
+                CourseDigest course = write.course();
+                notificationService.fanOutToCourse(course.courseId(), course.targetType(), course.title(),
+                        course.content());
+            } else {
+                notificationService.saveBatch(write.events());
+            }
+        } catch (RuntimeException ex) {
+            int attempts = write.attempts() + 1;
+            if (attempts >= MAX_ATTEMPTS) {
+                log.error("Dropping {} after {} failed attempts", write.describe(), attempts, ex);
+                return;
+            }
+            log.warn("Failed to persist {}, retrying (attempt {})", write.describe(), attempts, ex);
+            retries.add(write.retry(attempts, now.plus(RETRY_DELAY.multipliedBy(1L << (attempts - 1)))));
+        }
+    }
+
+    private static void emit(DigestKey key, List<Item> items, List<NotificationEvent> events,
+                             List<PendingWrite> writes) {
+        String title = digestTitle(items);
+        String content = digestContent(items);
+        if (key.scope() == Scope.USER) {
+            events.add(new NotificationEvent(key.targetId(), key.targetType(), title, content));
+        } else {
+            writes.add(PendingWrite.ofCourse(new CourseDigest(key.targetId(), key.targetType(), title, content)));
+        }
+    }
+
+    private static String digestTitle(List<Item> items) {
+        String first = items.get(0).title();
+        if (items.size() == 1) {
+            return first;
+        }
+        String suffix = " 等 " + items.size() + " 条通知";
+        if (first.length() + suffix.length() > TITLE_MAX_LENGTH) {
+            first = first.substring(0, TITLE_MAX_LENGTH - suffix.length());
+        }
+        return first + suffix;
+    }
+
+    private static String digestContent(List<Item> items) {
+        if (items.size() == 1) {
+            return items.get(0).content();
+        }
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            content.append(i == 0 ? "" : "\n").append(i + 1).append(". ").append(item.title());
+            if (item.content() != null && !item.content().isBlank()) {
+                content.append("：").append(item.content());
+            }
+        }
+        return content.length() > CONTENT_MAX_LENGTH
+                ? content.substring(0, CONTENT_MAX_LENGTH - 1) + "…"
+                : content.toString();
+    }
+
+    private enum Scope {
+        USER,
+        COURSE
+    }
+
+    private record DigestKey(Scope scope, UUID targetId, String targetType) {
+    }
+
+    private record Item(String title, String content) {
+    }
+
+    private record Queued(DigestKey key, Item item) {
+    }
+
+    private record CourseDigest(UUID courseId, String targetType, String title, String content) {
+    }
+
+    /**
+     * 一次待写出的操作：一批收件人通知，或一条课程通知的扇出
+     */
+    private record PendingWrite(List<NotificationEvent> events, CourseDigest course, int attempts, Instant notBefore) {
+
+        static PendingWrite ofEvents(List<NotificationEvent> events) {
+            return new PendingWrite(events, null, 0, Instant.EPOCH);
+        }
+
+        static PendingWrite ofCourse(CourseDigest course) {
+            return new PendingWrite(List.of(), course, 0, Instant.EPOCH);
+        }
+
+        PendingWrite retry(int attempts, Instant notBefore) {
+            return new PendingWrite(events, course, attempts, notBefore);
+        }
+
+        String describe() {
+            return course != null
+                    ? "notification for course " + course.courseId()
+                    : events.size() + " notifications";
+        }
+    }
+
+    private record Group(Instant openedAt, List<Item> items) {
+
+        private Group(Instant openedAt) {
+            this(openedAt, new ArrayList<>());
+        }
+    }
+}
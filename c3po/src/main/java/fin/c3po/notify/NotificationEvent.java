@@ -0,0 +1,9 @@
+package fin.c3po.notify;
+
+import java.util.UUID;
+
+/**
+ * 待投递的通知事件，由业务路径发布，NotificationDispatcher 异步批量落库
+ */
+public record NotificationEvent(UUID recipientId, String targetType, String title, String content) {
+}
@@ -0,0 +1,60 @@
+package fin.c3po.notify;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 外发渠道（邮件、短信）的待发送记录，与通知在同一事务内写入；
+ * 状态只通过条件 UPDATE 流转，多个实例并发认领也不会重复发送
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_status_next_attempt", columnList = "status, nextAttemptAt"),
+        @Index(name = "idx_notification_outbox_notification", columnList = "notificationId")
+})
+public class NotificationOutbox extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID notificationId;
+
+    @Column(nullable = false)
+    private UUID recipientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private NotificationChannel channel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    /**
+     * 认领租约，发送线程崩溃后过期的 PROCESSING 记录会被放回队列
+     */
+    private Instant lockedUntil;
+
+    @Column(length = 512)
+    private String lastError;
+
+    private Instant sentAt;
+}
@@ -0,0 +1,188 @@
+package fin.c3po.notify;
+
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserAccountRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 外发队列分发器：定时认领到期的 outbox 记录（条件 UPDATE，多实例只有一个能认领成功），
+ * 交给独立线程池经渠道适配器发送；失败按指数退避重试，次数用尽后把记录和通知标记为 FAILED
+ */
+@Component
+@Slf4j
+public class NotificationOutboxDispatcher {
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final int ERROR_MAX_LENGTH = 512;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<NotificationChannel, ChannelSender> senders = new EnumMap<>(NotificationChannel.class);
+    private final ExecutorService pool;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int capacity;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration lease;
+
+    public NotificationOutboxDispatcher(NotificationOutboxRepository outboxRepository,
+                                        NotificationRepository notificationRepository,
+                                        UserAccountRepository userAccountRepository,
+                                        JdbcTemplate jdbcTemplate,
+                                        List<ChannelSender> channelSenders,
+                                        @Value("${notification.outbox.workers:4}") int workers,
+                                        @Value("${notification.outbox.max-attempts:5}") int maxAttempts,
+                                        @Value("${notification.outbox.backoff-seconds:30}") long backoffSeconds,
+                                        @Value("${notification.outbox.lease-seconds:300}") long leaseSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.userAccountRepository = userAccountRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        channelSenders.forEach(sender -> senders.put(sender.channel(), sender));
+        this.pool = Executors.newFixedThreadPool(Math.max(1, workers));
+        this.capacity = Math.max(1, workers) * 4;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = Duration.ofSeconds(Math.max(1, backoffSeconds));
+        this.lease = Duration.ofSeconds(Math.max(1, leaseSeconds));
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        Instant now = Instant.now();
+        Timestamp ts = Timestamp.from(now);
+        // 租约过期的认领（发送线程或实例崩溃）放回队列
+        jdbcTemplate.update("UPDATE notification_outbox SET status = ?, locked_until = NULL, updated_at = ? "
+                + "WHERE status = ? AND locked_until < ?", OutboxStatus.PENDING.name(), ts,
+                OutboxStatus.PROCESSING.name(), ts);
+
+        int free = capacity - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+        List<UUID> candidates = jdbcTemplate.queryForList("SELECT id FROM notification_outbox "
+                + "WHERE status = ? AND next_attempt_at <= ? ORDER BY next_attempt_at LIMIT ?",
+                UUID.class, OutboxStatus.PENDING.name(), ts, free);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        Timestamp lockedUntil = Timestamp.from(now.plus(lease));
+        List<Object[]> claims = candidates.stream()
+                .map(id -> new Object[] { OutboxStatus.PROCESSING.name(), lockedUntil, ts, id, OutboxStatus.PENDING.name() })
+                .toList();
+        int[] claimed = jdbcTemplate.batchUpdate("UPDATE notification_outbox SET status = ?, locked_until = ?, "
+                + "attempts = attempts + 1, updated_at = ? WHERE id = ? AND status = ?", claims);
+        List<UUID> mine = new ArrayList<>();
+        for (int i = 0; i < claimed.length; i++) {
+            if (claimed[i] == 1) {
+                mine.add(candidates.get(i));
+            }
+        }
+        if (mine.isEmpty()) {
+            return;
+        }
+
+        List<NotificationOutbox> rows = outboxRepository.findAllById(mine);
+        Map<UUID, Notification> notifications = notificationRepository.findAllById(
+                        rows.stream().map(NotificationOutbox::getNotificationId).distinct().toList()).stream()
+                .collect(Collectors.toMap(Notification::getId, Function.identity()));
+        Map<UUID, UserAccount> recipients = userAccountRepository.findAllById(
+                        rows.stream().map(NotificationOutbox::getRecipientId).distinct().toList()).stream()
+                .collect(Collectors.toMap(UserAccount::getId, Function.identity()));
+        for (NotificationOutbox row : rows) {
+            Notification notification = notifications.get(row.getNotificationId());
+            OutboxMessage message = new OutboxMessage(row.getId(), row.getNotificationId(), row.getChannel(),
+                    recipients.get(row.getRecipientId()),
+                    notification != null ? notification.getTitle() : null,
+                    notification != null ? notification.getContent() : null);
+            inFlight.incrementAndGet();
+            pool.execute(() -> {
+                try {
+                    deliver(message, row.getAttempts());
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void deliver(OutboxMessage message, int attempts) {
+        try {
+            ChannelSender sender = senders.get(message.channel());
+            if (sender == null) {
+                throw new IllegalStateException("No sender configured for channel " + message.channel());
+            }
+            sender.send(message);
+        } catch (RuntimeException ex) {
+            fail(message, attempts, ex);
+            return;
+        }
+        Timestamp ts = Timestamp.from(Instant.now());
+        jdbcTemplate.update("UPDATE notification_outbox SET status = ?, sent_at = ?, locked_until = NULL, "
+                + "last_error = NULL, updated_at = ? WHERE id = ? AND status = ?",
+                OutboxStatus.SENT.name(), ts, ts, message.outboxId(), OutboxStatus.PROCESSING.name());
+        // 该通知的所有外发记录都已送达时，通知才算发送完成
+        jdbcTemplate.update("UPDATE notifications SET status = ?, sent_at = ?, updated_at = ? "
+                + "WHERE id = ? AND status = ? AND NOT EXISTS (SELECT 1 FROM notification_outbox o "
+                + "WHERE o.notification_id = ? AND o.status <> ?)",
+                NotificationStatus.SENT.name(), ts, ts, message.notificationId(), NotificationStatus.SCHEDULED.name(),
+                message.notificationId(), OutboxStatus.SENT.name());
+    }
+
+    private void fail(OutboxMessage message, int attempts, RuntimeException ex) {
+        Instant now = Instant.now();
+        Timestamp ts = Timestamp.from(now);
+        String error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+        if (error.length() > ERROR_MAX_LENGTH) {
+            error = error.substring(0, ERROR_MAX_LENGTH);
+        }
+        if (attempts >= maxAttempts) {
+            log.error("Giving up {} delivery {} after {} attempts", message.channel(), message.outboxId(), attempts, ex);
+            jdbcTemplate.update("UPDATE notification_outbox SET status = ?, locked_until = NULL, last_error = ?, "
+                    + "updated_at = ? WHERE id = ? AND status = ?",
+                    OutboxStatus.FAILED.name(), error, ts, message.outboxId(), OutboxStatus.PROCESSING.name());
+            jdbcTemplate.update("UPDATE notifications SET status = ?, updated_at = ? WHERE id = ?",
+                    NotificationStatus.FAILED.name(), ts, message.notificationId());
+            return;
+        }
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (delay.compareTo(MAX_BACKOFF) > 0) {
+            delay = MAX_BACKOFF;
+        }
+        log.warn("{} delivery {} failed (attempt {}), retrying in {}s: {}", message.channel(), message.outboxId(),
+                attempts, delay.toSeconds(), error);
+        jdbcTemplate.update("UPDATE notification_outbox SET status = ?, next_attempt_at = ?, locked_until = NULL, "
+                + "last_error = ?, updated_at = ? WHERE id = ? AND status = ?",
+                OutboxStatus.PENDING.name(), Timestamp.from(now.plus(delay)), error, ts, message.outboxId(),
+                OutboxStatus.PROCESSING.name());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        pool.shutdown();
+        if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+            pool.shutdownNow();
+        }
+    }
+}
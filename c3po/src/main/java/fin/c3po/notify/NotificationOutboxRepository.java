@@ -0,0 +1,8 @@
+package fin.c3po.notify;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, UUID> {
+}
@@ -0,0 +1,12 @@
+package fin.c3po.notify;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 新通知的实时推送消息：事务提交后发布到 NotificationBus，各节点把它推给本机已连接的收件人
+ */
+public record NotificationPush(UUID notificationId, List<UUID> recipientIds, String targetType, String title,
+                               String content, Instant deliveredAt) {
+}
@@ -0,0 +1,22 @@
+package fin.c3po.notify;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 收件记录提交后再递增未读计数并发布实时推送，客户端收到推送时收件箱里一定能查到这条通知
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationPushListener {
+
+    private final NotificationBus notificationBus;
+    private final UnreadCounter unreadCounter;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPush(NotificationPush push) {
+        unreadCounter.increment(push.recipientIds());
+        notificationBus.publish(push);
+    }
+}
@@ -1,19 +1,9 @@
 package fin.c3po.notify;
 
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface NotificationRepository extends JpaRepository<Notification, UUID>, JpaSpecificationExecutor<Notification> {
-    
-    @EntityGraph(attributePaths = {"sendChannels"})
-    @Query("SELECT n FROM Notification n")
-    List<Notification> findAllWithChannels();
 }
-
-
@@ -5,12 +5,19 @@ import fin.c3po.selection.CourseSelectionRepository;
 import fin.c3po.selection.SelectionStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -18,30 +25,83 @@ import java.util.UUID;
 @Slf4j
 public class NotificationService {
 
+    /**
+     * 每条多行 INSERT 写入的行数，2000 人的课程只需 4 次往返
+     */
+    private static final int FAN_OUT_BATCH_SIZE = 500;
+    private static final String DELIVERY_INSERT = "INSERT INTO notification_deliveries "
+            + "(id, created_at, updated_at, notification_id, user_id) VALUES ";
+    private static final String DELIVERY_VALUES = "(?, ?, ?, ?, ?)";
+    private static final String OUTBOX_INSERT = "INSERT INTO notification_outbox (id, created_at, updated_at, "
+            + "notification_id, recipient_id, channel, status, attempts, next_attempt_at) VALUES ";
+    private static final String OUTBOX_VALUES = "(?, ?, ?, ?, ?, ?, ?, 0, ?)";
+
     private final NotificationRepository notificationRepository;
     private final CourseSelectionRepository courseSelectionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
-     * 创建并发送通知
+     * 创建通知并在同一事务内扇出：站内信写收件记录，邮件/短信写入 outbox，由 NotificationOutboxDispatcher
+     * 在后台线程发送；有外发任务的通知保持 SCHEDULED，全部送达后变为 SENT，重试用尽则为 FAILED
      */
     @Transactional
     public Notification createAndSendNotification(String targetType, String title, String content,
-                                                   List<NotificationChannel> channels) {
+                                                   List<NotificationChannel> channels, Collection<UUID> recipientIds) {
+        if (recipientIds.isEmpty()) {
+            // 没有收件人时既没有收件记录也没有外发任务，不能记为已发送
+            throw new IllegalArgumentException("Notification has no recipients");
+        }
+        Instant now = Instant.now();
+        List<NotificationChannel> effective = channels != null && !channels.isEmpty()
+                ? new ArrayList<>(channels)
+                : new ArrayList<>(List.of(NotificationChannel.INBOX));
+        List<NotificationChannel> external = effective.stream()
+                .filter(channel -> channel != NotificationChannel.INBOX)
+                .distinct()
+                .toList();
+        Set<UUID> recipients = new LinkedHashSet<>(recipientIds);
+        boolean queued = !external.isEmpty();
+
         Notification notification = new Notification();
         notification.setTargetType(targetType);
         notification.setTitle(title);
         notification.setContent(content);
-        notification.setSendChannels(channels != null ? new ArrayList<>(channels) : List.of(NotificationChannel.INBOX));
-        notification.setStatus(NotificationStatus.SENT);
-        notification.setSentAt(Instant.now());
-        return notificationRepository.save(notification);
+        notification.setSendChannels(effective);
+        notification.setStatus(queued ? NotificationStatus.SCHEDULED : NotificationStatus.SENT);
+        notification.setSentAt(queued ? null : now);
+        Notification saved = notificationRepository.save(notification);
+
+        if (effective.contains(NotificationChannel.INBOX)) {
+            deliver(recipients.stream().map(userId -> new Delivery(saved.getId(), userId)).toList(), now);
+            push(saved, List.copyOf(recipients), now);
+        }
+        if (queued) {
+            Timestamp ts = Timestamp.from(now);
+            List<Object[]> rows = new ArrayList<>(external.size() * recipients.size());
+            for (NotificationChannel channel : external) {
+                for (UUID userId : recipients) {
+                    rows.add(new Object[] { UUID.randomUUID(), ts, ts, saved.getId(), userId, channel.name(),
+                            OutboxStatus.PENDING.name(), ts });
+                }
+            }
+            insertRows(OUTBOX_INSERT, OUTBOX_VALUES, rows);
+        }
+        return saved;
     }
 
     /**
-     * 通知课程的所有选课学生
+     * 通知课程的所有选课学生（异步合并后扇出）
      */
-    @Transactional
     public void notifyEnrolledStudents(UUID courseId, String targetType, String title, String content) {
+        eventPublisher.publishEvent(new CourseNotificationEvent(courseId, targetType, title, content));
+    }
+
+    /**
+     * 向课程的所有选课学生扇出一条通知，由 NotificationDispatcher 调用
+     */
+    @Transactional
+    public void fanOutToCourse(UUID courseId, String targetType, String title, String content) {
         List<CourseSelection> enrollments = courseSelectionRepository.findByCourseIdAndStatus(
                 courseId, SelectionStatus.ENROLLED);
         
@@ -51,32 +111,95 @@ public class NotificationService {
         }
 
         List<NotificationChannel> channels = List.of(NotificationChannel.INBOX);
-        Notification notification = createAndSendNotification(targetType, title, content, channels);
-        
-        log.info("Created notification {} for {} enrolled students in course {}", 
+        Notification notification = createAndSendNotification(targetType, title, content, channels,
+                enrollments.stream().map(CourseSelection::getStudentId).toList());
+
+        log.info("Created notification {} for {} enrolled students in course {}",
                 notification.getId(), enrollments.size(), courseId);
     }
 
     /**
-     * 通知单个学生
+     * 通知单个学生（异步批量落库）
      */
-    @Transactional
     public void notifyStudent(UUID studentId, String targetType, String title, String content) {
-        List<NotificationChannel> channels = List.of(NotificationChannel.INBOX);
-        Notification notification = createAndSendNotification(targetType, title, content, channels);
-        
-        log.info("Created notification {} for student {}", notification.getId(), studentId);
+        eventPublisher.publishEvent(new NotificationEvent(studentId, targetType, title, content));
     }
 
     /**
-     * 通知教师
+     * 通知教师（异步批量落库）
      */
-    @Transactional
     public void notifyTeacher(UUID teacherId, String targetType, String title, String content) {
-        List<NotificationChannel> channels = List.of(NotificationChannel.INBOX);
-        Notification notification = createAndSendNotification(targetType, title, content, channels);
-        
-        log.info("Created notification {} for teacher {}", notification.getId(), teacherId);
+        eventPublisher.publishEvent(new NotificationEvent(teacherId, targetType, title, content));
     }
-}
 
+    /**
+     * 批量写入通知，由 NotificationDispatcher 调用
+     */
+    @Transactional
+    public void saveBatch(List<NotificationEvent> events) {
+        Instant now = Instant.now();
+        List<Notification> notifications = new ArrayList<>(events.size());
+        List<Delivery> deliveries = new ArrayList<>(events.size());
+        for (NotificationEvent event : events) {
+            Notification notification = new Notification();
+            notification.setTargetType(event.targetType());
+            notification.setTitle(event.title());
+            notification.setContent(event.content());
+            notification.setSendChannels(new ArrayList<>(List.of(NotificationChannel.INBOX)));
+            notification.setStatus(NotificationStatus.SENT);
+            notification.setSentAt(now);
+            notifications.add(notification);
+        }
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+        for (int i = 0; i < saved.size(); i++) {
+            UUID recipientId = events.get(i).recipientId();
+            if (recipientId != null) {
+                deliveries.add(new Delivery(saved.get(i).getId(), recipientId));
+                push(saved.get(i), List.of(recipientId), now);
+            }
+        }
+        deliver(deliveries, now);
+        log.debug("Persisted {} notifications", notifications.size());
+    }
+
+    /**
+     * 扇出写入收件记录；重复的 (通知, 收件人) 只保留一条
+     */
+    private void deliver(Collection<Delivery> deliveries, Instant now) {
+        Timestamp ts = Timestamp.from(now);
+        List<Object[]> rows = new LinkedHashSet<>(deliveries).stream()
+                .map(delivery -> new Object[] { UUID.randomUUID(), ts, ts, delivery.notificationId(), delivery.userId() })
+                .toList();
+        insertRows(DELIVERY_INSERT, DELIVERY_VALUES, rows);
+    }
+
+    /**
+     * 实时推送在事务提交后由 NotificationPushListener 转发到总线，回滚的通知不会被推出去
+     */
+    private void push(Notification notification, List<UUID> recipientIds, Instant deliveredAt) {
+        if (recipientIds.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(new NotificationPush(notification.getId(), recipientIds,
+                notification.getTargetType(), notification.getTitle(), notification.getContent(), deliveredAt));
+    }
+
+    /**
+     * 每批拼成一条多行 INSERT，一次往返写入整批
+     */
+    private void insertRows(String insert, String values, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += FAN_OUT_BATCH_SIZE) {
+            List<Object[]> batch = rows.subList(from, Math.min(from + FAN_OUT_BATCH_SIZE, rows.size()));
+            StringBuilder sql = new StringBuilder(insert);
+            List<Object> args = new ArrayList<>(batch.size() * batch.get(0).length);
+            for (int i = 0; i < batch.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append(values);
+                args.addAll(Arrays.asList(batch.get(i)));
+            }
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+    }
+
+    private record Delivery(UUID notificationId, UUID userId) {
+    }
+}
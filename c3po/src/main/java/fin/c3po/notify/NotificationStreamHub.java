@@ -0,0 +1,141 @@
+package fin.c3po.notify;
+
+import fin.c3po.notify.dto.InboxNotificationResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本节点的 SSE 连接表：连接走异步 Servlet，不占请求线程；推送和心跳在虚拟线程上逐个写出，
+ * 慢连接不会拖住其他收件人。写失败的连接直接移除，客户端按 SSE 规范自动重连
+ */
+@Component
+@Slf4j
+public class NotificationStreamHub {
+
+    private final Map<UUID, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration timeout;
+    private final int maxPerUser;
+    private final int maxConnections;
+
+    public NotificationStreamHub(@Value("${notification.stream.timeout-minutes:30}") long timeoutMinutes,
+                                 @Value("${notification.stream.max-per-user:5}") int maxPerUser,
+                                 @Value("${notification.stream.max-connections:20000}") int maxConnections) {
+        this.timeout = Duration.ofMinutes(timeoutMinutes);
+        this.maxPerUser = maxPerUser;
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * 为用户打开一条推送连接；超过单用户或本节点上限时返回 null
+     */
+    public SseEmitter connect(UUID userId) {
+        // 先占名额再登记，并发连接不会越过节点上限
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        boolean[] accepted = { false };
+        emitters.compute(userId, (id, current) -> {
+            Set<SseEmitter> userEmitters = current != null ? current : new CopyOnWriteArraySet<>();
+            if (userEmitters.size() < maxPerUser) {
+                userEmitters.add(emitter);
+                accepted[0] = true;
+            }
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+        if (!accepted[0]) {
+            connections.decrementAndGet();
+            return null;
+        }
+        Runnable remove = () -> remove(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        writers.execute(() -> send(userId, emitter, SseEmitter.event().name("ready").data("ok")));
+        return emitter;
+    }
+
+    /**
+     * 把推送消息写给本节点上已连接的收件人
+     */
+    public void dispatch(NotificationPush push) {
+        InboxNotificationResponse payload = InboxNotificationResponse.builder()
+                .id(push.notificationId())
+                .targetType(push.targetType())
+                .title(push.title())
+                .content(push.content())
+                .read(false)
+                .deliveredAt(push.deliveredAt())
+                .build();
+        for (UUID recipientId : push.recipientIds()) {
+            Set<SseEmitter> userEmitters = emitters.get(recipientId);
+            if (userEmitters == null || userEmitters.isEmpty()) {
+                continue;
+            }
+            for (SseEmitter emitter : userEmitters) {
+                writers.execute(() -> send(recipientId, emitter, SseEmitter.event()
+                        .id(push.notificationId().toString())
+                        .name("notification")
+                        .data(payload, MediaType.APPLICATION_JSON)));
+            }
+        }
+    }
+
+    /**
+     * 定时心跳，防止代理断开空闲连接，同时清理已失效的连接
+     */
+    @Scheduled(fixedDelayString = "${notification.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> userEmitters.forEach(emitter ->
+                writers.execute(() -> send(userId, emitter, SseEmitter.event().comment("ping")))));
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    private void send(UUID userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            // SseEmitter 内部用 ReentrantLock 串行化写出；这里不能再加 synchronized，阻塞写会把虚拟线程钉在载体线程上
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping notification stream of user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(UUID userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            if (userEmitters.remove(emitter)) {
+                connections.decrementAndGet();
+            }
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        emitters.values().forEach(userEmitters -> userEmitters.forEach(SseEmitter::complete));
+        writers.shutdown();
+    }
+}
@@ -0,0 +1,12 @@
+package fin.c3po.notify;
+
+import fin.c3po.user.UserAccount;
+
+import java.util.UUID;
+
+/**
+ * 交给渠道适配器发送的一条消息
+ */
+public record OutboxMessage(UUID outboxId, UUID notificationId, NotificationChannel channel, UserAccount recipient,
+                            String title, String content) {
+}
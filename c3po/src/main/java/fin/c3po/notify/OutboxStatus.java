@@ -0,0 +1,8 @@
+package fin.c3po.notify;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSING,
+    SENT,
+    FAILED
+}
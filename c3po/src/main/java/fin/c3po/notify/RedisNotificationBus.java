@@ -0,0 +1,49 @@
+package fin.c3po.notify;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * 多节点推送：发布到 Redis 频道，每个节点（包括发布者自己）订阅后推给本机连接
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "c3po.redis.enabled", havingValue = "true")
+public class RedisNotificationBus implements NotificationBus, MessageListener {
+
+    public static final String CHANNEL = "c3po:notifications";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final NotificationStreamHub streamHub;
+
+    @Override
+    public void publish(NotificationPush push) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(push));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Redis 不可用时退化为只推本机连接，其他节点的用户靠收件箱拉取补齐
+            log.warn("Failed to publish notification {} to Redis, pushing locally only", push.notificationId(), e);
+            streamHub.dispatch(push);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            streamHub.dispatch(objectMapper.readValue(message.getBody(), NotificationPush.class));
+        } catch (IOException e) {
+            log.warn("Dropping malformed notification push message", e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package fin.c3po.notify;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 多节点共享的未读计数，每个用户一个 Redis 键。键带过期时间，过期后下次读取从数据库重新加载，
+ * 相当于按过期周期对账，不需要扫描全部键
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "c3po.redis.enabled", havingValue = "true")
+public class RedisUnreadCounter implements UnreadCounter {
+
+    private static final String KEY_PREFIX = "c3po:notifications:unread:";
+    private static final byte[] INCREMENT = ("if redis.call('EXISTS', KEYS[1]) == 1 "
+            + "then return redis.call('INCR', KEYS[1]) end return -1").getBytes(StandardCharsets.UTF_8);
+    private static final RedisScript<Long> DECREMENT = new DefaultRedisScript<>(
+            "local v = tonumber(redis.call('GET', KEYS[1])) "
+                    + "if v and v > 0 then return redis.call('DECR', KEYS[1]) end return -1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationDeliveryRepository deliveryRepository;
+    private final Duration ttl;
+
+    public RedisUnreadCounter(StringRedisTemplate redisTemplate,
+                              NotificationDeliveryRepository deliveryRepository,
+                              @Value("${notification.unread.reconcile-interval-ms:300000}") long reconcileIntervalMs) {
+        this.redisTemplate = redisTemplate;
+        this.deliveryRepository = deliveryRepository;
+        this.ttl = Duration.ofMillis(Math.max(1000, reconcileIntervalMs));
+    }
+
+    @Override
+    public long get(UUID userId) {
+        String key = KEY_PREFIX + userId;
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+            long unread = deliveryRepository.countByUserIdAndReadAtIsNull(userId);
+            // 并发加载时保留先写入的值，它可能已经被扇出递增过
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, Long.toString(unread), ttl))) {
+                String current = redisTemplate.opsForValue().get(key);
+                return current != null ? Long.parseLong(current) : unread;
+            }
+            return unread;
+        } catch (DataAccessException e) {
+            log.warn("Unread counter unavailable for user {}, counting from database", userId, e);
+            return deliveryRepository.countByUserIdAndReadAtIsNull(userId);
+        }
+    }
+
+    @Override
+    public void increment(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try {
+            // 大课程扇出一次往返递增全部收件人
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (UUID userId : userIds) {
+                    connection.scriptingCommands().eval(INCREMENT, ReturnType.INTEGER, 1,
+                            (KEY_PREFIX + userId).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Failed to increment unread counters of {} users", userIds.size(), e);
+        }
+    }
+
+    @Override
+    public void decrement(UUID userId) {
+        try {
+            redisTemplate.execute(DECREMENT, List.of(KEY_PREFIX + userId));
+        } catch (DataAccessException e) {
+            log.warn("Failed to decrement unread counter of user {}", userId, e);
+        }
+    }
+
+    @Override
+    public void clear(UUID userId) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + userId, "0", ttl);
+        } catch (DataAccessException e) {
+            log.warn("Failed to clear unread counter of user {}", userId, e);
+        }
+    }
+}
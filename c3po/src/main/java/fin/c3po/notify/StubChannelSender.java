@@ -0,0 +1,42 @@
+package fin.c3po.notify;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 本地测试用的渠道桩：不真正外发，只记录日志并保留最近发送的消息供检查
+ */
+@Slf4j
+abstract class StubChannelSender implements ChannelSender {
+
+    private static final int RETAINED = 200;
+
+    private final Deque<OutboxMessage> recent = new ArrayDeque<>();
+
+    @Override
+    public void send(OutboxMessage message) {
+        String address = addressOf(message);
+        log.info("[{} stub] to {}: {}", channel(), address, message.title());
+        synchronized (recent) {
+            if (recent.size() >= RETAINED) {
+                recent.removeFirst();
+            }
+            recent.addLast(message);
+        }
+    }
+
+    public List<OutboxMessage> recent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    /**
+     * 解析收件地址，缺少地址时抛出异常，走与真实渠道相同的重试/失败流程
+     */
+    protected abstract String addressOf(OutboxMessage message);
+}
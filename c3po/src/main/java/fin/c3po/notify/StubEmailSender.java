@@ -0,0 +1,23 @@
+package fin.c3po.notify;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "notification.email.adapter", havingValue = "stub", matchIfMissing = true)
+public class StubEmailSender extends StubChannelSender {
+
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.EMAIL;
+    }
+
+    @Override
+    protected String addressOf(OutboxMessage message) {
+        String email = message.recipient() != null ? message.recipient().getEmail() : null;
+        if (email == null || email.isBlank()) {
+            throw new IllegalStateException("Recipient has no email address");
+        }
+        return email;
+    }
+}
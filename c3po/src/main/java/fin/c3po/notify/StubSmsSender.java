@@ -0,0 +1,25 @@
+package fin.c3po.notify;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户表暂无手机号字段，桩实现以用户名作为收件标识
+ */
+@Component
+@ConditionalOnProperty(name = "notification.sms.adapter", havingValue = "stub", matchIfMissing = true)
+public class StubSmsSender extends StubChannelSender {
+
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.SMS;
+    }
+
+    @Override
+    protected String addressOf(OutboxMessage message) {
+        if (message.recipient() == null) {
+            throw new IllegalStateException("Recipient not found");
+        }
+        return message.recipient().getUsername();
+    }
+}
@@ -0,0 +1,9 @@
+package fin.c3po.notify;
+
+import java.util.UUID;
+
+/**
+ * 按用户分组的未读收件数，用于未读计数对账
+ */
+public record UnreadCountRow(UUID userId, long unread) {
+}
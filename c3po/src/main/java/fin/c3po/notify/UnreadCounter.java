@@ -0,0 +1,22 @@
+package fin.c3po.notify;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * 未读通知计数：收件扇出时递增、标记已读时递减，未命中时从 notification_deliveries 加载；
+ * 计数只用于角标展示，偏差由定期对账纠正，收件箱列表始终以数据库为准
+ */
+public interface UnreadCounter {
+
+    long get(UUID userId);
+
+    /**
+     * 只递增已经加载过的计数；未加载的用户下次读取时从数据库算出，已包含这次扇出
+     */
+    void increment(Collection<UUID> userIds);
+
+    void decrement(UUID userId);
+
+    void clear(UUID userId);
+}
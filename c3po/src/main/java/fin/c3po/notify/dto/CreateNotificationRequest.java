@@ -9,6 +9,7 @@ import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Getter
 @Setter
@@ -28,6 +29,16 @@ public class CreateNotificationRequest {
 
     @NotEmpty
     private List<NotificationChannel> sendChannels = new ArrayList<>();
+
+    /**
+     * 收件课程：发给该课程全部选课学生
+     */
+    private UUID courseId;
+
+    /**
+     * 指定收件人（仅管理员），可与 courseId 同时给出
+     */
+    private List<UUID> recipientIds = new ArrayList<>();
 }
 
 
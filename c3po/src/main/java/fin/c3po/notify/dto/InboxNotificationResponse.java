@@ -0,0 +1,19 @@
+package fin.c3po.notify.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Value
+@Builder
+public class InboxNotificationResponse {
+    UUID id;
+    String targetType;
+    String title;
+    String content;
+    boolean read;
+    Instant readAt;
+    Instant deliveredAt;
+}
@@ -0,0 +1,10 @@
+package fin.c3po.notify.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class UnreadCountResponse {
+    long unread;
+}
@@ -1,12 +1,28 @@
 package fin.c3po.notify.web;
 
 import fin.c3po.common.web.ApiResponse;
+import fin.c3po.common.web.CursorMeta;
+import fin.c3po.common.web.KeysetCursor;
 import fin.c3po.common.web.PageMeta;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
 import fin.c3po.notify.Notification;
+import fin.c3po.notify.NotificationDeliveryRepository;
+import fin.c3po.notify.NotificationDeliveryRow;
 import fin.c3po.notify.NotificationRepository;
+import fin.c3po.notify.NotificationService;
 import fin.c3po.notify.NotificationStatus;
+import fin.c3po.notify.NotificationStreamHub;
+import fin.c3po.notify.UnreadCounter;
 import fin.c3po.notify.dto.CreateNotificationRequest;
+import fin.c3po.notify.dto.InboxNotificationResponse;
 import fin.c3po.notify.dto.NotificationResponse;
+import fin.c3po.notify.dto.UnreadCountResponse;
+import fin.c3po.selection.CourseSelectionRepository;
+import fin.c3po.selection.SelectionStatus;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserAccountRepository;
+import fin.c3po.user.UserRole;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -15,20 +31,28 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -38,6 +62,13 @@ public class NotificationController {
 
     private static final int MAX_PAGE_SIZE = 100;
     private final NotificationRepository notificationRepository;
+    private final NotificationDeliveryRepository notificationDeliveryRepository;
+    private final NotificationService notificationService;
+    private final CourseRepository courseRepository;
+    private final CourseSelectionRepository courseSelectionRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final NotificationStreamHub notificationStreamHub;
+    private final UnreadCounter unreadCounter;
 
     @Transactional(readOnly = true)
     @GetMapping("/notifications")
@@ -60,13 +91,7 @@ public class NotificationController {
         }
 
         Page<Notification> pageResult = notificationRepository.findAll(spec, pageable);
-        List<Notification> notifications = pageResult.getContent();
-        // 在事务内触发懒加载集合的加载，确保在 Session 关闭前加载
-        notifications.forEach(n -> {
-            // 访问集合以触发懒加载
-            n.getSendChannels().size();
-        });
-        List<NotificationResponse> data = notifications.stream()
+        List<NotificationResponse> data = pageResult.getContent().stream()
                 .map(this::toResponse)
                 .toList();
 
@@ -79,23 +104,142 @@ public class NotificationController {
         return ApiResponse.success(data, meta);
     }
 
+    /**
+     * 创建并发送通知：收件人为课程选课学生和/或指定用户；含邮件、短信渠道时写入 outbox，
+     * 通知保持 SCHEDULED 直到全部外发完成
+     */
     @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
     @PostMapping("/notifications")
     public ResponseEntity<ApiResponse<NotificationResponse>> createNotification(
-            @Valid @RequestBody CreateNotificationRequest request) {
+            @Valid @RequestBody CreateNotificationRequest request,
+            @AuthenticationPrincipal UserAccount currentUser) {
 
-        Notification notification = new Notification();
-        notification.setTargetType(request.getTargetType());
-        notification.setTitle(request.getTitle());
-        notification.setContent(request.getContent());
-        notification.setSendChannels(request.getSendChannels());
-        notification.setStatus(NotificationStatus.SENT);
-        notification.setSentAt(Instant.now());
+        Set<UUID> recipients = new LinkedHashSet<>();
+        if (request.getCourseId() != null) {
+            Course course = courseRepository.findById(request.getCourseId())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+            if (currentUser.getRole() != UserRole.ADMIN && !course.getTeacherId().equals(currentUser.getId())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to notify this course");
+            }
+            courseSelectionRepository.findByCourseIdAndStatus(course.getId(), SelectionStatus.ENROLLED)
+                    .forEach(selection -> recipients.add(selection.getStudentId()));
+        }
+        if (request.getRecipientIds() != null && !request.getRecipientIds().isEmpty()) {
+            if (currentUser.getRole() != UserRole.ADMIN) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only admins can notify individual users");
+            }
+            userAccountRepository.findAllById(request.getRecipientIds())
+                    .forEach(user -> recipients.add(user.getId()));
+        }
+        if (recipients.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Notification has no recipients");
+        }
 
-        Notification saved = notificationRepository.save(notification);
+        Notification saved = notificationService.createAndSendNotification(request.getTargetType(),
+                request.getTitle(), request.getContent(), request.getSendChannels(), recipients);
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(toResponse(saved)));
     }
 
+    /**
+     * 当前用户的通知收件箱，按送达时间倒序做 keyset 分页
+     */
+    @Transactional(readOnly = true)
+    @GetMapping("/notifications/me")
+    public ApiResponse<List<InboxNotificationResponse>> myNotifications(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // 多取一条用于判断是否还有下一页
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<NotificationDeliveryRow> rows;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = notificationDeliveryRepository.findInboxBefore(currentUser.getId(), after.at(), after.id(),
+                    pageable);
+        } else {
+            rows = notificationDeliveryRepository.findInbox(currentUser.getId(), pageable);
+        }
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore && !rows.isEmpty()) {
+            NotificationDeliveryRow last = rows.get(rows.size() - 1);
+            nextCursor = new KeysetCursor(last.deliveredAt(), last.deliveryId()).encode();
+        }
+
+        List<InboxNotificationResponse> data = rows.stream()
+                .map(this::toInboxResponse)
+                .toList();
+        CursorMeta meta = CursorMeta.builder()
+                .limit(pageSize)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .sort("deliveredAt,desc;id,desc")
+                .build();
+        return ApiResponse.success(data, meta);
+    }
+
+    /**
+     * 未读角标：读计数器，不查收件表
+     */
+    @GetMapping("/notifications/unread-count")
+    public ApiResponse<UnreadCountResponse> unreadCount(@AuthenticationPrincipal UserAccount currentUser) {
+        return ApiResponse.success(UnreadCountResponse.builder()
+                .unread(unreadCounter.get(currentUser.getId()))
+                .build());
+    }
+
+    /**
+     * 新通知的实时推送（SSE）；断线后客户端应先用 /notifications/me 补拉再重连
+     */
+    @GetMapping(value = "/notifications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@AuthenticationPrincipal UserAccount currentUser) {
+        SseEmitter emitter = notificationStreamHub.connect(currentUser.getId());
+        if (emitter == null) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many notification streams");
+        }
+        return emitter;
+    }
+
+    @Transactional
+    @PostMapping("/notifications/{notificationId}/read")
+    public ResponseEntity<Void> markRead(
+            @PathVariable UUID notificationId,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        if (notificationDeliveryRepository.markRead(currentUser.getId(), notificationId, Instant.now()) == 1) {
+            unreadCounter.decrement(currentUser.getId());
+        } else if (!notificationDeliveryRepository.existsByUserIdAndNotificationId(currentUser.getId(), notificationId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Notification not found");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @Transactional
+    @PostMapping("/notifications/me/read-all")
+    public ResponseEntity<Void> markAllRead(@AuthenticationPrincipal UserAccount currentUser) {
+        notificationDeliveryRepository.markAllRead(currentUser.getId(), Instant.now());
+        unreadCounter.clear(currentUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    private InboxNotificationResponse toInboxResponse(NotificationDeliveryRow row) {
+        return InboxNotificationResponse.builder()
+                .id(row.notificationId())
+                .targetType(row.targetType())
+                .title(row.title())
+                .content(row.content())
+                .read(row.readAt() != null)
+                .readAt(row.readAt())
+                .deliveredAt(row.deliveredAt())
+                .build();
+    }
+
     private NotificationResponse toResponse(Notification notification) {
         return NotificationResponse.builder()
                 .id(notification.getId())
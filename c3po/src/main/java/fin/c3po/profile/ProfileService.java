@@ -1,9 +1,6 @@
 package fin.c3po.profile;
 
-import fin.c3po.assignment.Assignment;
 import fin.c3po.assignment.AssignmentRepository;
-import fin.c3po.course.Course;
-import fin.c3po.course.CourseRepository;
 import fin.c3po.profile.dto.ProfileResponse;
 import fin.c3po.profile.dto.ProfileStatsResponse;
 import fin.c3po.profile.dto.UpdateProfileRequest;
@@ -12,9 +9,9 @@ import fin.c3po.score.ScoreRepository;
 import fin.c3po.selection.CourseSelection;
 import fin.c3po.selection.CourseSelectionRepository;
 import fin.c3po.selection.SelectionStatus;
-import fin.c3po.submission.Submission;
 import fin.c3po.submission.SubmissionRepository;
 import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.submission.SubmissionSummary;
 import fin.c3po.user.UserAccount;
 import fin.c3po.user.UserAccountRepository;
 import fin.c3po.user.UserRole;
@@ -40,8 +37,8 @@ public class ProfileService {
     private final CourseSelectionRepository courseSelectionRepository;
     private final SubmissionRepository submissionRepository;
     private final ScoreRepository scoreRepository;
-    private final CourseRepository courseRepository;
     private final AssignmentRepository assignmentRepository;
+    private final TeacherStatsCache teacherStatsCache;
 
     public ProfileResponse getProfile(UUID userId) {
         UserAccount user = userAccountRepository.findById(userId)
@@ -92,11 +89,25 @@ public class ProfileService {
         if (role == UserRole.STUDENT) {
             return getStudentStats(userId);
         } else if (role == UserRole.TEACHER) {
-            return getTeacherStats(userId);
+            return teacherStatsCache.get(userId);
         }
         return ProfileStatsResponse.builder().build();
     }
 
+    /**
+     * 已提交或已批改的作业数：提交先归成作业 ID 集合再按哈希查找，复杂度与作业数、提交数之和成正比
+     */
+    static int countCompleted(List<UUID> assignmentIds, List<SubmissionSummary> submissions) {
+        Set<UUID> completedAssignmentIds = submissions.stream()
+                .filter(submission -> submission.status() == SubmissionStatus.SUBMITTED
+                        || submission.status() == SubmissionStatus.GRADED)
+                .map(SubmissionSummary::assignmentId)
+                .collect(Collectors.toSet());
+        return (int) assignmentIds.stream()
+                .filter(completedAssignmentIds::contains)
+                .count();
+    }
+
     private ProfileStatsResponse getStudentStats(UUID studentId) {
         // 已选课程数
         List<CourseSelection> enrolledSelections = courseSelectionRepository.findByStudentId(studentId)
@@ -110,29 +121,19 @@ public class ProfileService {
                 .map(CourseSelection::getCourseId)
                 .collect(Collectors.toSet());
 
-        // 获取所有已选课程的作业
-        List<Assignment> allAssignments = enrolledCourseIds.stream()
-                .flatMap(courseId -> assignmentRepository.findByCourseId(courseId).stream())
-                .toList();
+        // 一次查询取回所有已选课程的作业 ID
+        List<UUID> assignmentIds = enrolledCourseIds.isEmpty()
+                ? List.of()
+                : assignmentRepository.findIdsByCourseIdIn(enrolledCourseIds);
 
         // 获取学生的所有提交
-        List<Submission> allSubmissions = submissionRepository.findByStudentId(studentId);
+        List<SubmissionSummary> allSubmissions = submissionRepository.findSummariesByStudentId(studentId);
 
         // 已完成作业数（已提交或已批改）
-        int completedAssignmentsCount = (int) allAssignments.stream()
-                .filter(assignment -> allSubmissions.stream()
-                        .anyMatch(submission -> submission.getAssignmentId().equals(assignment.getId())
-                                && (submission.getStatus() == SubmissionStatus.SUBMITTED
-                                        || submission.getStatus() == SubmissionStatus.GRADED)))
-                .count();
+        int completedAssignmentsCount = countCompleted(assignmentIds, allSubmissions);
 
         // 待完成作业数（未提交的作业）
-        int pendingAssignmentsCount = (int) allAssignments.stream()
-                .filter(assignment -> allSubmissions.stream()
-                        .noneMatch(submission -> submission.getAssignmentId().equals(assignment.getId())
-                                && (submission.getStatus() == SubmissionStatus.SUBMITTED
-                                        || submission.getStatus() == SubmissionStatus.GRADED)))
-                .count();
+        int pendingAssignmentsCount = assignmentIds.size() - completedAssignmentsCount;
 
         // 平均成绩（从Score表或Submission表计算）
         List<Score> scores = scoreRepository.findByStudentId(studentId);
@@ -144,12 +145,12 @@ public class ProfileService {
                     .orElse(0.0);
         } else {
             // 如果没有Score记录，从已批改的Submission计算
-            List<Submission> gradedSubmissions = allSubmissions.stream()
-                    .filter(s -> s.getStatus() == SubmissionStatus.GRADED && s.getScore() != null)
+            List<SubmissionSummary> gradedSubmissions = allSubmissions.stream()
+                    .filter(s -> s.status() == SubmissionStatus.GRADED && s.score() != null)
                     .toList();
             if (!gradedSubmissions.isEmpty()) {
                 averageScore = gradedSubmissions.stream()
-                        .mapToInt(Submission::getScore)
+                        .mapToInt(SubmissionSummary::score)
                         .average()
                         .orElse(0.0);
             }
@@ -178,45 +179,6 @@ public class ProfileService {
                 .build();
     }
 
-    private ProfileStatsResponse getTeacherStats(UUID teacherId) {
-        // 授课课程数
-        List<Course> courses = courseRepository.findByTeacherId(teacherId);
-        int teachingCoursesCount = courses.size();
-
-        // 获取所有课程的ID
-        Set<UUID> courseIds = courses.stream()
-                .map(Course::getId)
-                .collect(Collectors.toSet());
-
-        // 获取所有课程的作业
-        List<Assignment> allAssignments = courseIds.stream()
-                .flatMap(courseId -> assignmentRepository.findByCourseId(courseId).stream())
-                .toList();
-
-        // 待批改作业数（状态为SUBMITTED的提交）
-        int pendingGradingCount = 0;
-        for (Assignment assignment : allAssignments) {
-            List<Submission> submissions = submissionRepository.findByAssignmentId(assignment.getId());
-            pendingGradingCount += (int) submissions.stream()
-                    .filter(s -> s.getStatus() == SubmissionStatus.SUBMITTED)
-                    .count();
-        }
-
-        // 学生总数（所有授课课程的学生总数，去重）
-        Set<UUID> allStudentIds = courseIds.stream()
-                .flatMap(courseId -> courseSelectionRepository.findByCourseId(courseId).stream()
-                        .filter(selection -> selection.getStatus() == SelectionStatus.ENROLLED)
-                        .map(CourseSelection::getStudentId))
-                .collect(Collectors.toSet());
-        int totalStudentsCount = allStudentIds.size();
-
-        return ProfileStatsResponse.builder()
-                .teachingCoursesCount(teachingCoursesCount)
-                .pendingGradingCount(pendingGradingCount)
-                .totalStudentsCount(totalStudentsCount)
-                .build();
-    }
-
     @Transactional
     public ProfileResponse updateProfile(UUID userId, UpdateProfileRequest request) {
         UserAccount user = userAccountRepository.findById(userId)
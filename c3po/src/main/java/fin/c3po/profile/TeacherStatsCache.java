@@ -0,0 +1,72 @@
+package fin.c3po.profile;
+
+import fin.c3po.course.CourseRepository;
+import fin.c3po.profile.dto.ProfileStatsResponse;
+import fin.c3po.selection.CourseSelectionRepository;
+import fin.c3po.selection.SelectionStatus;
+import fin.c3po.submission.SubmissionRepository;
+import fin.c3po.submission.SubmissionStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 教师个人中心统计：三条按教师关联课程的 COUNT 查询算出，结果短时缓存；
+ * 统计只用于展示，30 秒内的延迟可以接受
+ */
+@Component
+@RequiredArgsConstructor
+public class TeacherStatsCache {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final CourseRepository courseRepository;
+    private final SubmissionRepository submissionRepository;
+    private final CourseSelectionRepository courseSelectionRepository;
+    private final Map<UUID, Cached> cache = new ConcurrentHashMap<>();
+
+    public ProfileStatsResponse get(UUID teacherId) {
+        Instant now = Instant.now();
+        Cached cached = cache.get(teacherId);
+        if (cached != null && cached.loadedAt().plus(TTL).isAfter(now)) {
+            return cached.stats();
+        }
+        ProfileStatsResponse stats = ProfileStatsResponse.builder()
+                .teachingCoursesCount((int) courseRepository.countByTeacherId(teacherId))
+                .pendingGradingCount((int) submissionRepository.countByTeacherIdAndStatus(
+                        teacherId, SubmissionStatus.SUBMITTED))
+                .totalStudentsCount((int) courseSelectionRepository.countDistinctStudentsByTeacherId(
+                        teacherId, SelectionStatus.ENROLLED))
+                .build();
+        if (cache.size() >= MAX_ENTRIES) {
+            cache.values().removeIf(entry -> !entry.loadedAt().plus(TTL).isAfter(now));
+        }
+        cache.put(teacherId, new Cached(stats, now));
+        return stats;
+    }
+
+    /**
+     * 提交、评分、选退课后丢弃对应教师的缓存，本人操作后立即看到新数字；其他节点仍按 TTL 过期
+     */
+    public void evict(UUID teacherId) {
+        if (teacherId != null) {
+            cache.remove(teacherId);
+        }
+    }
+
+    public void evictCourse(UUID courseId) {
+        if (cache.isEmpty()) {
+            return;
+        }
+        courseRepository.findById(courseId).ifPresent(course -> evict(course.getTeacherId()));
+    }
+
+    private record Cached(ProfileStatsResponse stats, Instant loadedAt) {
+    }
+}
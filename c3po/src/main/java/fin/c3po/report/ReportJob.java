@@ -30,6 +30,10 @@ public class ReportJob extends BaseEntity {
     @Column(length = 2048)
     private String params; // JSON string of parameters
 
+    private Integer totalItems;
+
+    private Integer processedItems;
+
     private Instant completedAt;
 
     @Column(length = 2048)
@@ -2,7 +2,10 @@ package fin.c3po.report;
 
 public enum ReportJobType {
     SCORE_EXPORT,
-    COURSE_STATS
+    COURSE_STATS,
+    COURSE_ROLLOVER,
+    SUBMISSION_SIMILARITY,
+    QUIZ_ANALYTICS_REBUILD
 }
 
 
@@ -16,6 +16,8 @@ public class ReportJobResponse {
     ReportJobType jobType;
     ReportJobStatus status;
     Map<String, Object> params;
+    Integer totalItems;
+    Integer processedItems;
     Instant createdAt;
     Instant completedAt;
     String resultUrl;
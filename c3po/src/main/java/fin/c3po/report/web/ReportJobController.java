@@ -108,6 +108,8 @@ public class ReportJobController {
                 .jobType(job.getJobType())
                 .status(job.getStatus())
                 .params(fromJson(job.getParams()))
+                .totalItems(job.getTotalItems())
+                .processedItems(job.getProcessedItems())
                 .createdAt(job.getCreatedAt())
                 .completedAt(job.getCompletedAt())
                 .resultUrl(job.getResultUrl())
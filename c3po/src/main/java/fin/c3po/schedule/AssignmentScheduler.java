@@ -0,0 +1,221 @@
+package fin.c3po.schedule;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentInstant;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.submission.QuizAttemptRepository;
+import fin.c3po.submission.QuizAttemptStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 作业定时调度：按窗口从数据库加载即将到来的发布/提醒/截止时间点放入时间轮，
+ * 每秒推进一次时间轮处理到期项；只查询窗口内的时间点（走 release_at/deadline 索引），
+ * 不做全表扫描。作业新建或修改时通过 {@link #track(Assignment)} 补登记当前窗口内的时间点。
+ */
+@Service
+@Slf4j
+public class AssignmentScheduler {
+
+    static final Duration REMINDER_LEAD = Duration.ofHours(24);
+    private static final int CATCH_UP_BATCH = 500;
+
+    private final AssignmentRepository assignmentRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final AssignmentTimerHandler timerHandler;
+    private final Duration window;
+    private final HierarchicalTimingWheel<AssignmentTimer> wheel;
+
+    /**
+     * 已加载进时间轮的时间上界（不含）
+     */
+    private Instant loadedUntil;
+    private volatile boolean ready;
+
+    public AssignmentScheduler(AssignmentRepository assignmentRepository,
+                               QuizAttemptRepository quizAttemptRepository,
+                               AssignmentTimerHandler timerHandler,
+                               @Value("${assignment.scheduler.window-minutes:15}") long windowMinutes) {
+        this.assignmentRepository = assignmentRepository;
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.timerHandler = timerHandler;
+        this.window = Duration.ofMinutes(windowMinutes);
+        Instant now = Instant.now();
+        this.wheel = new HierarchicalTimingWheel<>(1000, 64, 4, now);
+        this.loadedUntil = now;
+    }
+
+    /**
+     * 启动时补处理停机期间错过的时间点，再加载第一个窗口；
+     * 截止只补关闭仍有未关闭作答的作业，不扫描全部历史作业
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Instant now = Instant.now();
+        try {
+            timerHandler.release(ids(assignmentRepository.findPendingReleases(Instant.EPOCH, now)));
+            timerHandler.remind(ids(assignmentRepository.findPendingReminders(now, now.plus(REMINDER_LEAD))));
+            List<UUID> overdue = quizAttemptRepository.findAssignmentIdsPastDeadline(now,
+                    List.of(QuizAttemptStatus.IN_PROGRESS, QuizAttemptStatus.PROVISIONED));
+            for (int i = 0; i < overdue.size(); i += CATCH_UP_BATCH) {
+                timerHandler.closeDeadlines(overdue.subList(i, Math.min(i + CATCH_UP_BATCH, overdue.size())));
+            }
+        } catch (RuntimeException e) {
+            log.error("Assignment scheduler catch-up failed", e);
+        }
+        synchronized (this) {
+            wheel.advanceTo(now);
+            loadedUntil = now;
+        }
+        ready = true;
+        loadWindow();
+    }
+
+    /**
+     * 把加载上界推进到 now + window；加载间隔（默认 5 分钟）小于窗口（默认 15 分钟），
+     * 时间轮推进到上界之前下一段已经加载。上界在查询之前就在锁内推进：查询期间保存的作业由
+     * {@link #track(Assignment)} 按新上界自行登记，不会落在查询与上界之间的空隙里；
+     * 同一时间点被查询和 track 各登记一次也无妨，到期处理都是幂等的条件更新
+     */
+    @Scheduled(fixedDelayString = "${assignment.scheduler.load-interval-ms:300000}")
+    public void loadWindow() {
+        if (!ready) {
+            return;
+        }
+        Instant from;
+        Instant to = Instant.now().plus(window);
+        synchronized (this) {
+            from = loadedUntil;
+            if (!to.isAfter(from)) {
+                return;
+            }
+            loadedUntil = to;
+        }
+        List<AssignmentInstant> releases;
+        List<AssignmentInstant> reminders;
+        List<AssignmentInstant> deadlines;
+        try {
+            releases = assignmentRepository.findPendingReleases(from, to);
+            reminders = assignmentRepository.findPendingReminders(from.plus(REMINDER_LEAD), to.plus(REMINDER_LEAD));
+            deadlines = assignmentRepository.findDeadlines(from, to);
+        } catch (RuntimeException e) {
+            // 退回上界，下次加载重新查询这一段
+            synchronized (this) {
+                if (loadedUntil.equals(to)) {
+                    loadedUntil = from;
+                }
+            }
+            log.error("Failed to load assignment timers [{}, {})", from, to, e);
+            return;
+        }
+
+        List<AssignmentTimer> due = new ArrayList<>();
+        synchronized (this) {
+            releases.forEach(r -> wheel.schedule(r.at(), new AssignmentTimer(r.id(), AssignmentTimer.Kind.RELEASE), due));
+            reminders.forEach(r -> wheel.schedule(r.at().minus(REMINDER_LEAD),
+                    new AssignmentTimer(r.id(), AssignmentTimer.Kind.REMINDER), due));
+            deadlines.forEach(d -> wheel.schedule(d.at(), new AssignmentTimer(d.id(), AssignmentTimer.Kind.DEADLINE), due));
+        }
+        log.debug("Loaded assignment timers [{}, {}): {} releases, {} reminders, {} deadlines",
+                from, to, releases.size(), reminders.size(), deadlines.size());
+        provision(ids(releases));
+        dispatch(due);
+    }
+
+    /**
+     * 窗口内即将发布的测验在加载时就预建作答，提前量约等于加载窗口
+     */
+    private void provision(List<UUID> assignmentIds) {
+        if (assignmentIds.isEmpty()) {
+            return;
+        }
+        try {
+            timerHandler.provision(assignmentIds);
+        } catch (RuntimeException e) {
+            log.error("Failed to provision quiz attempts for {} assignments", assignmentIds.size(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${assignment.scheduler.tick-ms:1000}")
+    public void tick() {
+        if (!ready) {
+            return;
+        }
+        List<AssignmentTimer> due;
+        synchronized (this) {
+            due = wheel.advanceTo(Instant.now());
+        }
+        dispatch(due);
+    }
+
+    /**
+     * 登记单个作业在已加载窗口内的时间点；窗口外的时间点由后续窗口加载覆盖
+     */
+    public void track(Assignment assignment) {
+        List<AssignmentTimer> due = new ArrayList<>();
+        boolean releasingSoon = false;
+        synchronized (this) {
+            if (!Boolean.TRUE.equals(assignment.getPublished()) && assignment.getReleaseAt() != null
+                    && assignment.getReleaseAt().isBefore(loadedUntil)) {
+                wheel.schedule(assignment.getReleaseAt(),
+                        new AssignmentTimer(assignment.getId(), AssignmentTimer.Kind.RELEASE), due);
+                releasingSoon = true;
+            }
+            if (assignment.getDeadline() != null) {
+                Instant remindAt = assignment.getDeadline().minus(REMINDER_LEAD);
+                if (assignment.getReminderSentAt() == null && remindAt.isBefore(loadedUntil)) {
+                    wheel.schedule(remindAt, new AssignmentTimer(assignment.getId(), AssignmentTimer.Kind.REMINDER), due);
+                }
+                if (assignment.getDeadline().isBefore(loadedUntil)) {
+                    wheel.schedule(assignment.getDeadline(),
+                            new AssignmentTimer(assignment.getId(), AssignmentTimer.Kind.DEADLINE), due);
+                }
+            }
+        }
+        if (releasingSoon) {
+            provision(List.of(assignment.getId()));
+        }
+        dispatch(due);
+    }
+
+    private void dispatch(List<AssignmentTimer> due) {
+        if (due.isEmpty()) {
+            return;
+        }
+        Map<AssignmentTimer.Kind, Set<UUID>> byKind = new EnumMap<>(AssignmentTimer.Kind.class);
+        for (AssignmentTimer timer : due) {
+            byKind.computeIfAbsent(timer.kind(), kind -> new LinkedHashSet<>()).add(timer.assignmentId());
+        }
+        try {
+            if (byKind.containsKey(AssignmentTimer.Kind.RELEASE)) {
+                timerHandler.release(byKind.get(AssignmentTimer.Kind.RELEASE));
+            }
+            if (byKind.containsKey(AssignmentTimer.Kind.REMINDER)) {
+                timerHandler.remind(byKind.get(AssignmentTimer.Kind.REMINDER));
+            }
+            if (byKind.containsKey(AssignmentTimer.Kind.DEADLINE)) {
+                timerHandler.closeDeadlines(byKind.get(AssignmentTimer.Kind.DEADLINE));
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to process {} assignment timers", due.size(), e);
+        }
+    }
+
+    private static List<UUID> ids(List<AssignmentInstant> instants) {
+        return instants.stream().map(AssignmentInstant::id).toList();
+    }
+}
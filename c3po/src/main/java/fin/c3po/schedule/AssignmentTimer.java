@@ -0,0 +1,15 @@
+package fin.c3po.schedule;
+
+import java.util.UUID;
+
+/**
+ * 时间轮中的作业定时项
+ */
+public record AssignmentTimer(UUID assignmentId, Kind kind) {
+
+    public enum Kind {
+        RELEASE,
+        REMINDER,
+        DEADLINE
+    }
+}
@@ -0,0 +1,168 @@
+package fin.c3po.schedule;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.assignment.AssignmentType;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.notify.NotificationService;
+import fin.c3po.selection.CourseSelection;
+import fin.c3po.selection.CourseSelectionRepository;
+import fin.c3po.selection.SelectionStatus;
+import fin.c3po.submission.QuizAttempt;
+import fin.c3po.submission.QuizAttemptProvisioner;
+import fin.c3po.submission.QuizAttemptRepository;
+import fin.c3po.submission.QuizAttemptStatus;
+import fin.c3po.submission.SubmissionRepository;
+import fin.c3po.submission.SubmissionSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 时间轮到期后的作业状态变更：自动发布、截止提醒、截止关闭。
+ * 每个操作都以条件更新落库，重复触发或多实例并发触发是幂等的。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AssignmentTimerHandler {
+
+    private static final int CLOSE_BATCH_SIZE = 200;
+    private static final int MAX_CLOSE_BATCHES = 50;
+
+    private final AssignmentRepository assignmentRepository;
+    private final CourseRepository courseRepository;
+    private final CourseSelectionRepository courseSelectionRepository;
+    private final SubmissionRepository submissionRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final NotificationService notificationService;
+    private final QuizAttemptProvisioner quizAttemptProvisioner;
+    private final QuizAutoSubmitter quizAutoSubmitter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Transactional
+    public void release(Collection<UUID> assignmentIds) {
+        Instant now = Instant.now();
+        List<Assignment> released = assignmentRepository.findAllById(assignmentIds).stream()
+                .filter(assignment -> assignmentRepository.markReleased(assignment.getId(), now) > 0)
+                .toList();
+        if (released.isEmpty()) {
+            return;
+        }
+        Map<UUID, Course> courses = coursesOf(released);
+        for (Assignment assignment : released) {
+            Course course = courses.get(assignment.getCourseId());
+            String content = String.format("课程《%s》发布了新作业《%s》。",
+                    course != null ? course.getName() : "", assignment.getTitle());
+            if (assignment.getDeadline() != null) {
+                content += String.format("截止时间：%s。", assignment.getDeadline());
+            }
+            content += "请及时查看并完成提交。";
+            notificationService.notifyEnrolledStudents(assignment.getCourseId(), "assignment", "新作业已发布", content);
+        }
+        log.info("Auto-published {} assignments", released.size());
+    }
+
+    /**
+     * 即将开考的测验提前为选课学生预建作答，开考时的开始请求只需切换状态
+     */
+    public void provision(Collection<UUID> assignmentIds) {
+        for (Assignment assignment : assignmentRepository.findAllById(assignmentIds)) {
+            if (assignment.getType() == AssignmentType.QUIZ && assignment.getProvisionedAt() == null) {
+                quizAttemptProvisioner.provision(assignment);
+            }
+        }
+    }
+
+    /**
+     * 给尚未提交的选课学生发送截止前提醒，通知经由 NotificationDispatcher 批量落库
+     */
+    @Transactional
+    public void remind(Collection<UUID> assignmentIds) {
+        Instant now = Instant.now();
+        int reminded = 0;
+        for (Assignment assignment : assignmentRepository.findAllById(assignmentIds)) {
+            if (!Boolean.TRUE.equals(assignment.getPublished())
+                    || assignment.getDeadline() == null
+                    || !assignment.getDeadline().isAfter(now)
+                    || assignmentRepository.markReminderSent(assignment.getId(), now) == 0) {
+                continue;
+            }
+            Set<UUID> done = completedStudents(assignment);
+            String content = String.format("作业《%s》将于 %s 截止，请尽快完成提交。",
+                    assignment.getTitle(), assignment.getDeadline());
+            for (CourseSelection selection : courseSelectionRepository.findByCourseIdAndStatus(
+                    assignment.getCourseId(), SelectionStatus.ENROLLED)) {
+                if (!done.contains(selection.getStudentId())) {
+                    notificationService.notifyStudent(selection.getStudentId(), "assignment", "作业即将截止", content);
+                    reminded++;
+                }
+            }
+        }
+        log.info("Queued {} deadline reminders for {} assignments", reminded, assignmentIds.size());
+    }
+
+    /**
+     * 截止后关闭仍在进行中的测验作答：与超时自动提交走同一条提交、批改路径，
+     * 已作答的内容照常计分；缓冲答案合并失败的作答留在进行中，由下次启动补处理再关闭。
+     * 截止时间改动后旧的定时仍会触发，因此以库中当前的截止时间为准，尚未截止的作业跳过
+     */
+    public void closeDeadlines(Collection<UUID> candidateIds) {
+        Instant now = Instant.now();
+        List<UUID> assignmentIds = assignmentRepository.findAllById(candidateIds).stream()
+                .filter(assignment -> assignment.getDeadline() != null && !assignment.getDeadline().isAfter(now))
+                .map(Assignment::getId)
+                .toList();
+        if (assignmentIds.isEmpty()) {
+            return;
+        }
+        for (int batch = 0; batch < MAX_CLOSE_BATCHES; batch++) {
+            List<UUID> ids = quizAttemptRepository.findIdsByAssignmentIdInAndStatus(assignmentIds,
+                    QuizAttemptStatus.IN_PROGRESS, PageRequest.of(0, CLOSE_BATCH_SIZE));
+            // 整批都因合并失败被跳过时，下一批还会取到同样的作答
+            if (ids.isEmpty() || !quizAutoSubmitter.submit(ids) || ids.size() < CLOSE_BATCH_SIZE) {
+                break;
+            }
+        }
+
+        // 预建后始终未开始的空作答直接删除，不作为过期作答留在列表和统计里
+        Integer unused = transactionTemplate.execute(status -> quizAttemptRepository.deleteByAssignmentIdsAndStatus(
+                assignmentIds, QuizAttemptStatus.PROVISIONED));
+        if (unused != null && unused > 0) {
+            log.info("Removed {} unused provisioned quiz attempts after deadline", unused);
+        }
+        quizAttemptProvisioner.forget(assignmentIds);
+    }
+
+    private Set<UUID> completedStudents(Assignment assignment) {
+        if (assignment.getType() == AssignmentType.QUIZ) {
+            return quizAttemptRepository.findByAssignmentId(assignment.getId()).stream()
+                    .filter(attempt -> attempt.getStatus() == QuizAttemptStatus.SUBMITTED
+                            || attempt.getStatus() == QuizAttemptStatus.GRADED)
+                    .map(QuizAttempt::getStudentId)
+                    .collect(Collectors.toSet());
+        }
+        return submissionRepository.findSummariesByAssignmentId(assignment.getId()).stream()
+                .map(SubmissionSummary::studentId)
+                .collect(Collectors.toSet());
+    }
+
+    private Map<UUID, Course> coursesOf(List<Assignment> assignments) {
+        Set<UUID> courseIds = assignments.stream().map(Assignment::getCourseId).collect(Collectors.toSet());
+        return courseRepository.findAllById(courseIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+    }
+}
@@ -0,0 +1,119 @@
+package fin.c3po.schedule;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层时间轮：第 L 层每格跨度为 tick × size^L，到期任务随时间推进逐层下沉，
+ * 插入与推进均为 O(1)（按格摊销），不需要对全部待办按时间排序。
+ * 非线程安全，由调用方加锁。
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] spans;
+    private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+    /**
+     * 超出最高层覆盖范围的任务，在最高层每转一圈时重新投放
+     */
+    private final List<Entry<T>> overflow = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, Instant start) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.spans = new long[levelCount];
+        long span = 1;
+        for (int level = 0; level < levelCount; level++) {
+            spans[level] = span;
+            span *= wheelSize;
+            levels.add(newBuckets());
+        }
+        this.currentTick = start.toEpochMilli() / tickMillis;
+    }
+
+    /**
+     * 加入定时任务；已经到期（不晚于当前格）的任务直接放入 due 列表
+     */
+    public void schedule(Instant fireAt, T payload, List<T> due) {
+        place(new Entry<>(fireAt.toEpochMilli() / tickMillis, payload), due);
+    }
+
+    /**
+     * 推进到指定时间，返回期间到期的全部任务
+     */
+    public List<T> advanceTo(Instant now) {
+        List<T> due = new ArrayList<>();
+        long targetTick = now.toEpochMilli() / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = spans.length - 1; level >= 1; level--) {
+                if (currentTick % spans[level] == 0) {
+                    cascade(level, due);
+                }
+            }
+            if (currentTick % (spans[spans.length - 1] * wheelSize) == 0 && !overflow.isEmpty()) {
+                List<Entry<T>> pending = new ArrayList<>(overflow);
+                overflow.clear();
+                size -= pending.size();
+                pending.forEach(entry -> place(entry, due));
+            }
+            List<Entry<T>> bucket = levels.get(0)[(int) (currentTick % wheelSize)];
+            if (!bucket.isEmpty()) {
+                bucket.forEach(entry -> due.add(entry.payload()));
+                size -= bucket.size();
+                bucket.clear();
+            }
+        }
+        return due;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(int level, List<T> due) {
+        List<Entry<T>> bucket = levels.get(level)[(int) ((currentTick / spans[level]) % wheelSize)];
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> pending = new ArrayList<>(bucket);
+        bucket.clear();
+        size -= pending.size();
+        pending.forEach(entry -> place(entry, due));
+    }
+
+    private void place(Entry<T> entry, List<T> due) {
+        long delta = entry.expireTick() - currentTick;
+        if (delta <= 0) {
+            due.add(entry.payload());
+            return;
+        }
+        size++;
+        for (int level = 0; level < spans.length; level++) {
+            // delta < size^(L+1) 保证落在第 L 层尚未轮到的格子里
+            if (delta < spans[level] * wheelSize) {
+                int index = (int) ((entry.expireTick() / spans[level]) % wheelSize);
+                levels.get(level)[index].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry<T>>[] newBuckets() {
+        List<Entry<T>>[] buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        return buckets;
+    }
+
+    private record Entry<T>(long expireTick, T payload) {
+    }
+}
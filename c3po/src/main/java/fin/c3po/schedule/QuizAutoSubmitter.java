@@ -0,0 +1,94 @@
+package fin.c3po.schedule;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.grading.QuizSubmissionGrader;
+import fin.c3po.submission.QuizAnswerService;
+import fin.c3po.submission.QuizAttempt;
+import fin.c3po.submission.QuizAttemptRepository;
+import fin.c3po.submission.QuizAttemptStatus;
+import fin.c3po.submission.QuizAutosaveBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 代学生提交进行中的作答，超时自动提交与截止关闭共用：先合并缓冲区里未落库的自动保存，
+ * 再用一条条件更新整批转为已提交，最后逐份自动批改。
+ * 缓冲答案合并失败的作答留在进行中等下一轮；批改失败的作答保持已提交，由后续轮次按 analyzed_at 为空重试
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAutoSubmitter {
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final QuizAutosaveBuffer quizAutosaveBuffer;
+    private final QuizAnswerService quizAnswerService;
+    private final QuizSubmissionGrader quizSubmissionGrader;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 提交一批作答，返回是否有作答进入了提交；整批都因合并失败被跳过时返回 false
+     */
+    public boolean submit(List<UUID> ids) {
+        List<UUID> ready = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            QuizAutosaveBuffer.Pending pending = quizAutosaveBuffer.take(id).orElse(null);
+            if (pending != null) {
+                try {
+                    quizAnswerService.applyChanges(id, pending.changes(), pending.replace());
+                } catch (RuntimeException e) {
+                    // 缓冲的答案还没落库，此时提交会把它们丢掉；放回缓冲区，作答留到下一轮
+                    log.warn("Failed to merge buffered answers of quiz attempt {}, retrying later", id, e);
+                    quizAutosaveBuffer.restore(id, pending);
+                    continue;
+                }
+            }
+            ready.add(id);
+        }
+        if (ready.isEmpty()) {
+            return false;
+        }
+        Integer submitted = transactionTemplate.execute(status -> quizAttemptRepository.submitExpired(
+                ready, QuizAttemptStatus.IN_PROGRESS, QuizAttemptStatus.SUBMITTED, Instant.now()));
+        // 取出快照后到提交前可能又有自动保存写入了缓存，这里一并丢弃，之后的保存读库后得到 409
+        quizAutosaveBuffer.forget(ready);
+        grade(ready);
+        log.info("Auto-submitted {} quiz attempts", submitted);
+        return true;
+    }
+
+    /**
+     * 逐份批改已提交的作答；单份失败不影响其他作答，失败的作答 analyzed_at 仍为空，之后会被重试
+     */
+    public void grade(List<UUID> ids) {
+        List<QuizAttempt> attempts = quizAttemptRepository.findAllById(ids).stream()
+                .filter(attempt -> attempt.getStatus() == QuizAttemptStatus.SUBMITTED)
+                .toList();
+        Map<UUID, Assignment> assignments = assignmentRepository.findAllById(
+                        attempts.stream().map(QuizAttempt::getAssignmentId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Assignment::getId, Function.identity()));
+        for (QuizAttempt attempt : attempts) {
+            Assignment assignment = assignments.get(attempt.getAssignmentId());
+            if (assignment == null) {
+                continue;
+            }
+            try {
+                quizSubmissionGrader.gradeSubmitted(attempt, assignment);
+            } catch (RuntimeException e) {
+                log.warn("Failed to grade quiz attempt {}, retrying later", attempt.getId(), e);
+            }
+        }
+    }
+}
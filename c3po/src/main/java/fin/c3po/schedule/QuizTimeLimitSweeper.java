@@ -0,0 +1,70 @@
+package fin.c3po.schedule;
+
+import fin.c3po.submission.QuizAttemptRepository;
+import fin.c3po.submission.QuizAttemptStatus;
+import fin.c3po.submission.QuizTimeLimit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 限时测验的超时自动提交：按 (status, expires_at) 索引分批取出已到期的进行中作答交给 {@link QuizAutoSubmitter}，
+ * 并重试此前批改没有完成的已提交作答
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizTimeLimitSweeper {
+
+    private static final int BATCH_SIZE = 200;
+    private static final int MAX_BATCHES_PER_RUN = 20;
+    private static final Duration GRADE_RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizAutoSubmitter quizAutoSubmitter;
+    private final QuizTimeLimit quizTimeLimit;
+
+    @Scheduled(fixedDelayString = "${quiz.time-limit.sweep-interval-ms:5000}")
+    public void sweep() {
+        Instant now = Instant.now();
+        submitExpired(quizTimeLimit.cutoff(now));
+        try {
+            List<UUID> unfinished = quizAttemptRepository.findUnfinishedIds(QuizAttemptStatus.SUBMITTED,
+                    now.minus(GRADE_RETRY_DELAY), PageRequest.of(0, BATCH_SIZE));
+            if (!unfinished.isEmpty()) {
+                log.info("Retrying grading of {} submitted quiz attempts", unfinished.size());
+                quizAutoSubmitter.grade(unfinished);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to retry grading of submitted quiz attempts", e);
+        }
+    }
+
+    private void submitExpired(Instant cutoff) {
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            List<UUID> ids = quizAttemptRepository.findExpiredIds(QuizAttemptStatus.IN_PROGRESS, cutoff,
+                    PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                return;
+            }
+            boolean progressed;
+            try {
+                progressed = quizAutoSubmitter.submit(ids);
+            } catch (RuntimeException e) {
+                log.error("Failed to auto-submit {} expired quiz attempts", ids.size(), e);
+                return;
+            }
+            // 整批都因合并失败被跳过时，下一批还会取到同样的作答，本轮到此为止
+            if (!progressed || ids.size() < BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+}
@@ -23,9 +23,9 @@ import fin.c3po.score.dto.StudentScoreSummary;
 import fin.c3po.score.dto.StudentScoresResponse;
 import fin.c3po.selection.CourseSelectionRepository;
 import fin.c3po.selection.SelectionStatus;
-import fin.c3po.submission.Submission;
 import fin.c3po.submission.SubmissionRepository;
 import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.submission.SubmissionSummary;
 import fin.c3po.report.ReportJobType;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -440,18 +440,18 @@ public class ScoreController {
         Instant now = Instant.now();
 
         for (Assignment assignment : assignments) {
-            Optional<Submission> submissionOpt = submissionRepository.findTopByAssignmentIdAndStudentIdOrderBySubmittedAtDesc(
+            Optional<SubmissionSummary> submissionOpt = submissionRepository.findLatestSummary(
                     assignment.getId(), studentId);
             Instant deadline = assignment.getDeadline();
 
             if (submissionOpt.isPresent()) {
-                Submission submission = submissionOpt.get();
+                SubmissionSummary submission = submissionOpt.get();
                 completed++;
-                if (submission.getStatus() == SubmissionStatus.GRADED) {
+                if (submission.status() == SubmissionStatus.GRADED) {
                     graded++;
                 }
                 if (deadline != null) {
-                    Instant submittedAt = submission.getSubmittedAt();
+                    Instant submittedAt = submission.submittedAt();
                     if (submittedAt == null || submittedAt.isAfter(deadline)) {
                         overdue++;
                     }
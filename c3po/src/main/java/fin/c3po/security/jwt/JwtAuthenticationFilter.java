@@ -21,6 +21,12 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * 浏览器 EventSource 不能设置请求头，推送流允许用查询参数携带令牌
+     */
+    private static final String STREAM_PATH = "/api/v1/notifications/stream";
+    private static final String STREAM_TOKEN_PARAM = "access_token";
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
 
@@ -29,14 +35,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
-        final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        final String jwt = resolveToken(request);
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (jwt == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        final String jwt = authHeader.substring(7);
         final String username;
         try {
             username = jwtService.extractUsername(jwt);
@@ -60,4 +65,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private String resolveToken(HttpServletRequest request) {
+        final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        if (STREAM_PATH.equals(request.getRequestURI())) {
+            String token = request.getParameter(STREAM_TOKEN_PARAM);
+            return token != null && !token.isBlank() ? token : null;
+        }
+        return null;
+    }
 }
@@ -1,6 +1,8 @@
 package fin.c3po.selection;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +15,10 @@ public interface CourseSelectionRepository extends JpaRepository<CourseSelection
     List<CourseSelection> findByCourseIdAndStatus(UUID courseId, SelectionStatus status);
     long countByCourseIdAndStatus(UUID courseId, SelectionStatus status);
     Optional<CourseSelection> findByCourseIdAndStudentId(UUID courseId, UUID studentId);
+
+    @Query("select count(distinct cs.studentId) from CourseSelection cs join Course c on c.id = cs.courseId "
+            + "where c.teacherId = :teacherId and cs.status = :status")
+    long countDistinctStudentsByTeacherId(@Param("teacherId") UUID teacherId, @Param("status") SelectionStatus status);
 }
 
 
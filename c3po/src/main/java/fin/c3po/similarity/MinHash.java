@@ -0,0 +1,90 @@
+package fin.c3po.similarity;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash 签名与 LSH 分带。
+ * 128 个哈希函数分成 32 带 × 4 行，相似度约 0.42 以上的两份提交大概率落入同一桶。
+ */
+public final class MinHash {
+
+    public static final int NUM_HASHES = 128;
+    public static final int BANDS = 32;
+    public static final int ROWS = NUM_HASHES / BANDS;
+
+    private static final long[] MULTIPLIERS = new long[NUM_HASHES];
+    private static final long[] ADDENDS = new long[NUM_HASHES];
+
+    static {
+        // 固定种子：签名会落库，哈希函数族必须跨进程、跨版本保持一致
+        SplittableRandom random = new SplittableRandom(0x5EED_C3B0L);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1L;
+            ADDENDS[i] = random.nextLong();
+        }
+    }
+
+    private final int[] signature = new int[NUM_HASHES];
+    private long shingleCount;
+
+    public MinHash() {
+        Arrays.fill(signature, -1);
+    }
+
+    public void update(long shingle) {
+        shingleCount++;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int h = (int) ((shingle * MULTIPLIERS[i] + ADDENDS[i]) >>> 32);
+            if (Integer.compareUnsigned(h, signature[i]) < 0) {
+                signature[i] = h;
+            }
+        }
+    }
+
+    public long shingleCount() {
+        return shingleCount;
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(NUM_HASHES * Integer.BYTES);
+        for (int value : signature) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int[] values = new int[NUM_HASHES];
+        for (int i = 0; i < NUM_HASHES; i++) {
+            values[i] = buffer.getInt();
+        }
+        return values;
+    }
+
+    /**
+     * 签名中相同位置取值相等的比例，即 Jaccard 相似度的无偏估计
+     */
+    public static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    /**
+     * 某一带的桶键，带号参与哈希，不同带之间互不冲突
+     */
+    public static long bandKey(int[] signature, int band) {
+        long h = 0x9E3779B97F4A7C15L * (band + 1);
+        for (int row = 0; row < ROWS; row++) {
+            h = (h ^ (signature[band * ROWS + row] & 0xFFFFFFFFL)) * 0x100000001B3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,142 @@
+package fin.c3po.similarity;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * 把附件内容流式切成 shingle 哈希：文本按 5 词滑窗（忽略大小写与空白差异，中日文逐字成词），
+ * 其他格式按 8 字节滑窗；不保存 shingle 集合，内存占用与文件大小无关
+ */
+final class Shingler {
+
+    static final long MAX_BYTES = 16L * 1024 * 1024;
+
+    private static final int WORDS_PER_SHINGLE = 5;
+    private static final int BYTES_PER_SHINGLE = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Set<String> TEXT_EXTENSIONS = Set.of(
+            "txt", "md", "csv", "json", "xml", "html", "css", "sql", "tex",
+            "java", "kt", "py", "c", "h", "cpp", "hpp", "cs", "js", "ts", "go", "rs", "rb", "php", "sh");
+
+    /**
+     * 媒体文件内容相似与抄袭无关，直接跳过
+     */
+    private static final Set<String> SKIPPED_EXTENSIONS = Set.of(
+            "jpg", "jpeg", "png", "gif", "webp", "mp3", "mp4", "m4a", "mov", "webm", "avi", "mkv");
+
+    private Shingler() {
+    }
+
+    static boolean isSkipped(String key) {
+        return SKIPPED_EXTENSIONS.contains(extension(key));
+    }
+
+    static void shingle(String key, InputStream in, LongConsumer sink) throws IOException {
+        if (TEXT_EXTENSIONS.contains(extension(key))) {
+            shingleWords(in, sink);
+        } else {
+            shingleBytes(in, sink);
+        }
+    }
+
+    private static void shingleWords(InputStream in, LongConsumer sink) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        WordWindow words = new WordWindow(sink);
+        long word = 0;
+        boolean inWord = false;
+        long chars = 0;
+        int c;
+        while ((c = reader.read()) != -1 && chars++ < MAX_BYTES) {
+            if (Character.isHighSurrogate((char) c)) {
+                int low = reader.read();
+                if (low == -1) {
+                    break;
+                }
+                chars++;
+                c = Character.isLowSurrogate((char) low) ? Character.toCodePoint((char) c, (char) low) : low;
+            }
+            if (isUnspaced(c)) {
+                // 中日文不以空格分词，每个字单独作为一个词
+                if (inWord) {
+                    words.add(word);
+                    word = 0;
+                    inWord = false;
+                }
+                words.add(c * 0x100000001B3L);
+            } else if (Character.isLetterOrDigit(c)) {
+                word = (word ^ Character.toLowerCase(c)) * 0x100000001B3L;
+                inWord = true;
+            } else if (inWord) {
+                words.add(word);
+                word = 0;
+                inWord = false;
+            }
+        }
+        if (inWord) {
+            words.add(word);
+        }
+    }
+
+    private static boolean isUnspaced(int c) {
+        if (Character.isIdeographic(c)) {
+            return true;
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HIRAGANA || script == Character.UnicodeScript.KATAKANA;
+    }
+
+    private static void shingleBytes(InputStream in, LongConsumer sink) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long window = 0;
+        long total = 0;
+        int read;
+        while (total < MAX_BYTES && (read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                window = (window << 8) | (buffer[i] & 0xFF);
+                total++;
+                if (total >= BYTES_PER_SHINGLE) {
+                    sink.accept(window);
+                }
+            }
+        }
+    }
+
+    /**
+     * 最近 WORDS_PER_SHINGLE 个词的滑窗，每凑满一窗输出一个 shingle 哈希
+     */
+    private static final class WordWindow {
+
+        private final long[] window = new long[WORDS_PER_SHINGLE];
+        private final LongConsumer sink;
+        private int words;
+
+        private WordWindow(LongConsumer sink) {
+            this.sink = sink;
+        }
+
+        void add(long word) {
+            window[words % WORDS_PER_SHINGLE] = word;
+            words++;
+            if (words >= WORDS_PER_SHINGLE) {
+                long h = 0xCBF29CE484222325L;
+                for (int i = 0; i < WORDS_PER_SHINGLE; i++) {
+                    h = (h ^ window[(words + i) % WORDS_PER_SHINGLE]) * 0x100000001B3L;
+                }
+                sink.accept(h);
+            }
+        }
+    }
+
+    private static String extension(String key) {
+        int dot = key.lastIndexOf('.');
+        return dot >= 0 ? key.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+}
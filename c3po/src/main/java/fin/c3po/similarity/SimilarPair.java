@@ -0,0 +1,9 @@
+package fin.c3po.similarity;
+
+import java.util.UUID;
+
+/**
+ * 相似度报告中的一对疑似雷同提交
+ */
+public record SimilarPair(UUID submissionA, UUID studentA, UUID submissionB, UUID studentB, double similarity) {
+}
@@ -0,0 +1,224 @@
+package fin.c3po.similarity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.report.ReportJob;
+import fin.c3po.report.ReportJobRepository;
+import fin.c3po.report.ReportJobStatus;
+import fin.c3po.storage.StorageService;
+import fin.c3po.storage.StoredObject;
+import fin.c3po.submission.Submission;
+import fin.c3po.submission.SubmissionRepository;
+import fin.c3po.submission.SubmissionSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 提交相似度筛查：提交时计算 MinHash 签名，报告任务用 LSH 分带找候选对，
+ * 只对候选对比较签名，复杂度接近线性
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SimilarityService {
+
+    private static final int PROGRESS_STEP = 50;
+
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionSignatureRepository signatureRepository;
+    private final ReportJobRepository reportJobRepository;
+    private final StorageService storageService;
+    private final ObjectMapper objectMapper;
+
+    @Async
+    public void computeSignatureAsync(UUID submissionId) {
+        try {
+            submissionRepository.findById(submissionId).ifPresent(this::computeSignature);
+        } catch (RuntimeException e) {
+            log.warn("Failed to compute similarity signature for submission {}", submissionId, e);
+        }
+    }
+
+    @Async
+    public void runReport(UUID jobId, UUID assignmentId, double threshold) {
+        ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != ReportJobStatus.QUEUED) {
+            return;
+        }
+        try {
+            List<SubmissionSummary> summaries = submissionRepository.findSummariesByAssignmentId(assignmentId);
+            job.setStatus(ReportJobStatus.PROCESSING);
+            job.setTotalItems(summaries.size());
+            job.setProcessedItems(0);
+            reportJobRepository.save(job);
+
+            List<SubmissionSignature> signatures = ensureSignatures(jobId, assignmentId, summaries);
+            if (signatures == null) {
+                log.info("Similarity job {} cancelled", jobId);
+                return;
+            }
+            List<SimilarPair> pairs = findSimilarPairs(signatures, threshold);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("assignmentId", assignmentId);
+            result.put("threshold", threshold);
+            result.put("submissionCount", summaries.size());
+            result.put("generatedAt", Instant.now());
+            result.put("pairs", pairs);
+            byte[] json = objectMapper.writeValueAsBytes(result);
+            StoredObject stored = storageService.store(new ByteArrayInputStream(json), "similarity-report.json");
+
+            reportJobRepository.findById(jobId).ifPresent(current -> {
+                current.setStatus(ReportJobStatus.SUCCEEDED);
+                current.setProcessedItems(summaries.size());
+                current.setCompletedAt(Instant.now());
+                current.setResultUrl(storageService.downloadUrl(stored.key()));
+                reportJobRepository.save(current);
+            });
+            log.info("Similarity job {} found {} pairs among {} submissions", jobId, pairs.size(), summaries.size());
+        } catch (IOException | RuntimeException e) {
+            log.error("Similarity job {} failed", jobId, e);
+            reportJobRepository.findById(jobId).ifPresent(current -> {
+                current.setStatus(ReportJobStatus.FAILED);
+                current.setCompletedAt(Instant.now());
+                reportJobRepository.save(current);
+            });
+        }
+    }
+
+    /**
+     * 补算缺失或已过期的签名；任务被取消时返回 null
+     */
+    private List<SubmissionSignature> ensureSignatures(UUID jobId, UUID assignmentId,
+                                                       List<SubmissionSummary> summaries) {
+        Map<UUID, SubmissionSignature> existing = signatureRepository.findByAssignmentId(assignmentId).stream()
+                .collect(Collectors.toMap(SubmissionSignature::getSubmissionId, Function.identity()));
+        List<SubmissionSignature> signatures = new ArrayList<>(summaries.size());
+        int processed = 0;
+        for (SubmissionSummary summary : summaries) {
+            SubmissionSignature signature = existing.get(summary.id());
+            if (signature == null || !Objects.equals(signature.getSourceSubmittedAt(), summary.submittedAt())) {
+                signature = submissionRepository.findById(summary.id())
+                        .map(this::computeSignature)
+                        .orElse(null);
+            }
+            if (signature != null) {
+                signatures.add(signature);
+            }
+            processed++;
+            if (processed % PROGRESS_STEP == 0) {
+                if (isCancelled(jobId)) {
+                    return null;
+                }
+                updateProgress(jobId, processed);
+            }
+        }
+        return signatures;
+    }
+
+    private List<SimilarPair> findSimilarPairs(List<SubmissionSignature> signatures, double threshold) {
+        List<SubmissionSignature> usable = signatures.stream()
+                .filter(signature -> signature.getShingleCount() > 0)
+                .toList();
+        List<int[]> decoded = usable.stream().map(signature -> MinHash.fromBytes(signature.getSignature())).toList();
+
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int i = 0; i < decoded.size(); i++) {
+                buckets.computeIfAbsent(MinHash.bandKey(decoded.get(i), band), key -> new ArrayList<>()).add(i);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                for (int a = 0; a < bucket.size(); a++) {
+                    for (int b = a + 1; b < bucket.size(); b++) {
+                        candidates.add(((long) bucket.get(a) << 32) | bucket.get(b));
+                    }
+                }
+            }
+        }
+
+        List<SimilarPair> pairs = new ArrayList<>();
+        for (long candidate : candidates) {
+            int a = (int) (candidate >>> 32);
+            int b = (int) candidate;
+            SubmissionSignature left = usable.get(a);
+            SubmissionSignature right = usable.get(b);
+            if (left.getStudentId().equals(right.getStudentId())) {
+                continue;
+            }
+            double similarity = MinHash.estimate(decoded.get(a), decoded.get(b));
+            if (similarity >= threshold) {
+                pairs.add(new SimilarPair(left.getSubmissionId(), left.getStudentId(),
+                        right.getSubmissionId(), right.getStudentId(), similarity));
+            }
+        }
+        pairs.sort(Comparator.comparingDouble(SimilarPair::similarity).reversed());
+        return pairs;
+    }
+
+    private SubmissionSignature computeSignature(Submission submission) {
+        MinHash minHash = new MinHash();
+        for (String attachment : submission.getAttachments()) {
+            Optional<String> key = storageService.keyOf(attachment);
+            Optional<Path> path = key.flatMap(storageService::resolve);
+            if (path.isEmpty() || Shingler.isSkipped(key.get())) {
+                continue;
+            }
+            try (InputStream in = Files.newInputStream(path.get())) {
+                Shingler.shingle(key.get(), in, minHash::update);
+            } catch (IOException e) {
+                log.warn("Failed to read attachment {} of submission {}", key.get(), submission.getId(), e);
+            }
+        }
+
+        SubmissionSignature signature = signatureRepository.findBySubmissionId(submission.getId())
+                .orElseGet(SubmissionSignature::new);
+        signature.setSubmissionId(submission.getId());
+        signature.setAssignmentId(submission.getAssignmentId());
+        signature.setStudentId(submission.getStudentId());
+        signature.setSignature(minHash.toBytes());
+        signature.setShingleCount(minHash.shingleCount());
+        signature.setSourceSubmittedAt(submission.getSubmittedAt());
+        try {
+            return signatureRepository.save(signature);
+        } catch (DataIntegrityViolationException e) {
+            // 提交时的异步计算与报告任务并发写入同一提交，保留已落库的那份
+            return signatureRepository.findBySubmissionId(submission.getId()).orElse(signature);
+        }
+    }
+
+    private boolean isCancelled(UUID jobId) {
+        return reportJobRepository.findById(jobId)
+                .map(job -> job.getStatus() == ReportJobStatus.CANCELLED)
+                .orElse(true);
+    }
+
+    private void updateProgress(UUID jobId, int processed) {
+        reportJobRepository.findById(jobId).ifPresent(job -> {
+            job.setProcessedItems(processed);
+            reportJobRepository.save(job);
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package fin.c3po.similarity;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 提交内容的 MinHash 签名，随提交/重新提交异步计算，供相似度筛查复用
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "submission_signatures", indexes = {
+        @Index(name = "idx_submission_signatures_assignment", columnList = "assignmentId")
+})
+public class SubmissionSignature extends BaseEntity {
+
+    @Column(nullable = false, unique = true)
+    private UUID submissionId;
+
+    @Column(nullable = false)
+    private UUID assignmentId;
+
+    @Column(nullable = false)
+    private UUID studentId;
+
+    @Column(nullable = false, length = MinHash.NUM_HASHES * Integer.BYTES)
+    private byte[] signature;
+
+    @Column(nullable = false)
+    private Long shingleCount;
+
+    /**
+     * 计算签名时提交的 submittedAt，用于判断签名是否过期
+     */
+    private Instant sourceSubmittedAt;
+}
@@ -0,0 +1,13 @@
+package fin.c3po.similarity;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface SubmissionSignatureRepository extends JpaRepository<SubmissionSignature, UUID> {
+    Optional<SubmissionSignature> findBySubmissionId(UUID submissionId);
+
+    List<SubmissionSignature> findByAssignmentId(UUID assignmentId);
+}
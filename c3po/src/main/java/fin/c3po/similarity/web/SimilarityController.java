@@ -0,0 +1,90 @@
+package fin.c3po.similarity.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.report.ReportJob;
+import fin.c3po.report.ReportJobRepository;
+import fin.c3po.report.ReportJobStatus;
+import fin.c3po.report.ReportJobType;
+import fin.c3po.report.dto.ReportJobResponse;
+import fin.c3po.similarity.SimilarityService;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1")
+@Validated
+@RequiredArgsConstructor
+public class SimilarityController {
+
+    private final AssignmentRepository assignmentRepository;
+    private final CourseRepository courseRepository;
+    private final ReportJobRepository reportJobRepository;
+    private final SimilarityService similarityService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 发起作业查重报告，结果 JSON 的下载地址写入任务的 resultUrl，进度通过 /jobs/{jobId} 查询
+     */
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @PostMapping("/assignments/{assignmentId}/similarity-reports")
+    public ResponseEntity<ApiResponse<ReportJobResponse>> createSimilarityReport(
+            @PathVariable UUID assignmentId,
+            @RequestParam(name = "threshold", defaultValue = "0.6") @DecimalMin("0.1") @DecimalMax("1.0") double threshold,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
+        Course course = courseRepository.findById(assignment.getCourseId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        if (currentUser.getRole() != UserRole.ADMIN && !course.getTeacherId().equals(currentUser.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to screen submissions");
+        }
+
+        ReportJob job = new ReportJob();
+        job.setJobType(ReportJobType.SUBMISSION_SIMILARITY);
+        job.setStatus(ReportJobStatus.QUEUED);
+        job.setParams(toJson(Map.of("assignmentId", assignmentId, "threshold", threshold)));
+        ReportJob saved = reportJobRepository.save(job);
+
+        similarityService.runReport(saved.getId(), assignmentId, threshold);
+
+        ReportJobResponse response = ReportJobResponse.builder()
+                .id(saved.getId())
+                .jobType(saved.getJobType())
+                .status(saved.getStatus())
+                .createdAt(saved.getCreatedAt())
+                .build();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(response));
+    }
+
+    private String toJson(Map<String, Object> params) {
+        try {
+            return objectMapper.writeValueAsString(params);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to serialize payload");
+        }
+    }
+}
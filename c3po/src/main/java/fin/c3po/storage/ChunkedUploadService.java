@@ -0,0 +1,303 @@
+package fin.c3po.storage;
+
+import fin.c3po.course.CourseResource;
+import fin.c3po.course.CourseResourceService;
+import fin.c3po.course.dto.CreateCourseResourceRequest;
+import fin.c3po.storage.dto.CreateUploadSessionRequest;
+import fin.c3po.storage.dto.UploadSessionResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 可续传的分片上传：会话创建时预分配稀疏文件，各分片边计算摘要边按偏移量直接写入，
+ * 客户端可并行、乱序、重复上传任意分片；全部到齐后以按序排列的分片摘要的哈希作为对象 key，
+ * 移动到对象存储并创建课程资源，完成时不再回读文件
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadService {
+
+    private static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int MAX_CHUNKS = 10_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Duration SESSION_TTL = Duration.ofHours(24);
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadChunkRepository uploadChunkRepository;
+    private final StorageService storageService;
+    private final UploadSigner uploadSigner;
+    private final CourseResourceService courseResourceService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<ChunkKey, Boolean> inFlight = new ConcurrentHashMap<>();
+
+    public UploadSession createSession(UUID moduleId, UUID ownerId, CreateUploadSessionRequest request) {
+        int chunkSize = request.getChunkSize() != null ? request.getChunkSize() : DEFAULT_CHUNK_SIZE;
+        long chunkCount = (request.getFileSize() + chunkSize - 1) / chunkSize;
+        if (chunkCount > MAX_CHUNKS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Too many chunks, increase chunkSize");
+        }
+
+        UploadSession session = new UploadSession();
+        session.setModuleId(moduleId);
+        session.setOwnerId(ownerId);
+        session.setFileName(request.getFileName());
+        session.setResourceType(request.getType());
+        session.setTotalSize(request.getFileSize());
+        session.setChunkSize(chunkSize);
+        session.setChunkCount((int) chunkCount);
+        session.setExpiresAt(Instant.now().plus(SESSION_TTL));
+        session.setStatus(UploadSessionStatus.OPEN);
+        UploadSession saved = uploadSessionRepository.save(session);
+
+        try (RandomAccessFile file = new RandomAccessFile(partPath(saved.getId()).toFile(), "rw")) {
+            file.setLength(saved.getTotalSize());
+        } catch (IOException e) {
+            log.error("Failed to allocate upload file for session {}", saved.getId(), e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to allocate upload");
+        }
+        return saved;
+    }
+
+    public String signedQuery(UploadSession session) {
+        long expires = session.getExpiresAt().getEpochSecond();
+        return "expires=" + expires + "&signature=" + uploadSigner.sign(session.getId(), expires);
+    }
+
+    public void verifySignature(UUID sessionId, long expires, String signature) {
+        if (!uploadSigner.verify(sessionId, expires, signature)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid or expired upload signature");
+        }
+    }
+
+    /**
+     * 写入单个分片；重复上传同一分片会覆盖原内容，便于断点续传与失败重试。
+     * 写入前先删除分片记录，写入中途失败或大小、摘要校验不通过时该分片视为未上传，需要重传，
+     * complete 不会用到半写的内容；超出分片大小的数据不会写入，相邻分片不受影响
+     */
+    public UploadSessionResponse writeChunk(UUID sessionId, int index, String expectedSha256, InputStream in) {
+        UploadSession session = loadOpenSession(sessionId);
+        if (session.getObjectKey() != null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is already assembled, complete it again");
+        }
+        if (index < 0 || index >= session.getChunkCount()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk index out of range");
+        }
+        ChunkKey key = new ChunkKey(sessionId, index);
+        if (inFlight.putIfAbsent(key, Boolean.TRUE) != null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Chunk " + index + " is already being uploaded");
+        }
+        try {
+            long offset = (long) index * session.getChunkSize();
+            long expectedSize = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+            transactionTemplate.executeWithoutResult(status ->
+                    uploadChunkRepository.deleteBySessionIdAndChunkIndex(sessionId, index));
+            String sha256 = writeAt(in, partPath(sessionId), offset, expectedSize);
+            if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(sha256)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk checksum mismatch");
+            }
+
+            UploadChunk chunk = new UploadChunk();
+            chunk.setSessionId(sessionId);
+            chunk.setChunkIndex(index);
+            chunk.setSha256(sha256);
+            chunk.setSize(expectedSize);
+            uploadChunkRepository.save(chunk);
+        } catch (DataIntegrityViolationException e) {
+            // 其他实例同时写入了同一分片
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Chunk " + index + " is already being uploaded");
+        } catch (IOException e) {
+            log.warn("Failed to write chunk {} of upload session {}", index, sessionId, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to write chunk");
+        } finally {
+            inFlight.remove(key);
+        }
+        return toResponse(session, uploadChunkRepository.findBySessionIdOrderByChunkIndexAsc(sessionId));
+    }
+
+    @Transactional(readOnly = true)
+    public UploadSessionResponse getStatus(UUID sessionId) {
+        UploadSession session = uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session not found"));
+        return toResponse(session, uploadChunkRepository.findBySessionIdOrderByChunkIndexAsc(sessionId));
+    }
+
+    /**
+     * 完成上传：以按分片序号排列的分片摘要再做一次 SHA-256 作为对象 key（写入时已逐片校验，
+     * 不再回读整个文件；与单次上传同一文件得到的 key 不同，两种途径之间不去重），
+     * 移入对象存储后再创建课程资源。状态以条件更新从 OPEN 切换，保证并发完成请求只有一个生效；
+     * 任一步失败都退回 OPEN，已移入对象存储的 key 记在会话上，重试时直接创建资源
+     */
+    public UploadSessionResponse complete(UUID sessionId) {
+        UploadSession session = uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session not found"));
+        if (session.getStatus() == UploadSessionStatus.COMPLETED) {
+            return toResponse(session, List.of());
+        }
+        ensureOpen(session);
+        Integer claimed = transactionTemplate.execute(status -> uploadSessionRepository.transitionStatus(
+                sessionId, UploadSessionStatus.OPEN, UploadSessionStatus.COMPLETING));
+        if (claimed == null || claimed == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload session is already completing");
+        }
+
+        String key = session.getObjectKey();
+        try {
+            if (key == null) {
+                List<UploadChunk> chunks = uploadChunkRepository.findBySessionIdOrderByChunkIndexAsc(sessionId);
+                if (chunks.size() != session.getChunkCount()) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Missing chunks: received " + chunks.size() + " of " + session.getChunkCount());
+                }
+                Path part = partPath(sessionId);
+                String sha256 = digestOf(chunks);
+                if (!storageService.moveIntoPlace(part, storageService.objectPath(sha256))) {
+                    Files.deleteIfExists(part);
+                }
+                key = sha256 + StorageService.extensionOf(session.getFileName());
+            }
+
+            String objectKey = key;
+            transactionTemplate.executeWithoutResult(status -> {
+                CreateCourseResourceRequest resourceRequest = new CreateCourseResourceRequest();
+                resourceRequest.setType(session.getResourceType());
+                resourceRequest.setName(session.getFileName());
+                resourceRequest.setFileSize(session.getTotalSize());
+                resourceRequest.setDownloadUrl(storageService.downloadUrl(objectKey));
+                CourseResource resource = courseResourceService.createResource(session.getModuleId(), resourceRequest);
+
+                session.setStatus(UploadSessionStatus.COMPLETED);
+                session.setObjectKey(objectKey);
+                session.setResourceId(resource.getId());
+                uploadSessionRepository.save(session);
+                uploadChunkRepository.deleteBySessionId(sessionId);
+            });
+        } catch (IOException | RuntimeException e) {
+            String assembled = key;
+            transactionTemplate.executeWithoutResult(status -> uploadSessionRepository.reopen(
+                    sessionId, UploadSessionStatus.COMPLETING, UploadSessionStatus.OPEN, assembled));
+            if (e instanceof ResponseStatusException rse) {
+                throw rse;
+            }
+            log.error("Failed to finalise upload session {}", sessionId, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to finalise upload");
+        }
+        return toResponse(session, List.of());
+    }
+
+    @Scheduled(fixedDelayString = "${storage.upload.cleanup-interval-ms:600000}")
+    @Transactional
+    public void expireSessions() {
+        List<UploadSession> expired = uploadSessionRepository.findTop100ByStatusInAndExpiresAtBefore(
+                List.of(UploadSessionStatus.OPEN, UploadSessionStatus.COMPLETING), Instant.now());
+        for (UploadSession session : expired) {
+            try {
+                Files.deleteIfExists(partPath(session.getId()));
+            } catch (IOException e) {
+                log.warn("Failed to remove expired upload file for session {}", session.getId(), e);
+            }
+            uploadChunkRepository.deleteBySessionId(session.getId());
+            session.setStatus(UploadSessionStatus.EXPIRED);
+        }
+        if (!expired.isEmpty()) {
+            uploadSessionRepository.saveAll(expired);
+            log.info("Expired {} upload sessions", expired.size());
+        }
+    }
+
+    private UploadSession loadOpenSession(UUID sessionId) {
+        UploadSession session = uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session not found"));
+        ensureOpen(session);
+        return session;
+    }
+
+    private void ensureOpen(UploadSession session) {
+        if (session.getStatus() != UploadSessionStatus.OPEN || session.getExpiresAt().isBefore(Instant.now())) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Upload session is no longer open");
+        }
+    }
+
+    /**
+     * 从请求流边计算摘要边写入会话文件的指定偏移；超出预期大小的数据在写入前拒绝，不足时同样拒绝
+     */
+    private String writeAt(InputStream in, Path part, long offset, long expectedSize) throws IOException {
+        MessageDigest digest = StorageService.newDigest();
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (written + read > expectedSize) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk larger than expected");
+                }
+                digest.update(buffer, 0, read);
+                ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                while (data.hasRemaining()) {
+                    written += channel.write(data, offset + written);
+                }
+            }
+        }
+        if (written != expectedSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk size mismatch");
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 按序号排列的分片摘要的 SHA-256；分片内容由各自的摘要唯一确定，结果同样由文件内容唯一确定
+     */
+    private static String digestOf(List<UploadChunk> chunks) {
+        MessageDigest digest = StorageService.newDigest();
+        for (UploadChunk chunk : chunks) {
+            digest.update(HexFormat.of().parseHex(chunk.getSha256()));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Path partPath(UUID sessionId) {
+        return storageService.tmpDir().resolve(sessionId + ".part");
+    }
+
+    private UploadSessionResponse toResponse(UploadSession session, List<UploadChunk> chunks) {
+        return UploadSessionResponse.builder()
+                .sessionId(session.getId())
+                .moduleId(session.getModuleId())
+                .status(session.getStatus())
+                .totalSize(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .chunkCount(session.getChunkCount())
+                .receivedChunks(chunks.stream().map(UploadChunk::getChunkIndex).toList())
+                .expiresAt(session.getExpiresAt())
+                .resourceId(session.getResourceId())
+                .downloadUrl(session.getObjectKey() != null ? storageService.downloadUrl(session.getObjectKey()) : null)
+                .build();
+    }
+
+    private record ChunkKey(UUID sessionId, int index) {
+    }
+}
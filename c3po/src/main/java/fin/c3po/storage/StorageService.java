@@ -0,0 +1,176 @@
+package fin.c3po.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 本地文件存储：上传流式写入临时文件并增量计算 SHA-256，
+ * 完成后按内容哈希原子移动到 objects/ 下，相同内容只保存一份
+ */
+@Service
+@Slf4j
+public class StorageService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern KEY_PATTERN = Pattern.compile("^([0-9a-f]{64})(\\.[A-Za-z0-9]{1,16})?$");
+    private static final Pattern LEGACY_KEY_PATTERN = Pattern.compile("^[0-9a-f]{32}(\\.[A-Za-z0-9]{1,16})?$");
+    private static final Pattern EXTENSION_PATTERN = Pattern.compile("^[A-Za-z0-9]{1,16}$");
+
+    private final Path root;
+    private final Path objectsDir;
+    private final Path tmpDir;
+
+    public StorageService(@Value("${storage.root:./uploads}") String root) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.objectsDir = this.root.resolve("objects");
+        this.tmpDir = this.root.resolve("tmp");
+        try {
+            Files.createDirectories(objectsDir);
+            Files.createDirectories(tmpDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialise storage root " + this.root, e);
+        }
+    }
+
+    public StoredObject store(InputStream in, String originalFilename) throws IOException {
+        return store(in, originalFilename, Long.MAX_VALUE);
+    }
+
+    /**
+     * 同 {@link #store(InputStream, String)}，写入量超过 maxBytes 时中止并删除临时文件（413）
+     */
+    public StoredObject store(InputStream in, String originalFilename, long maxBytes) throws IOException {
+        MessageDigest digest = newDigest();
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (size + read > maxBytes) {
+                        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Upload too large");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            boolean deduplicated = !moveIntoPlace(tmp, objectPath(sha256));
+            return new StoredObject(sha256 + extensionOf(originalFilename), sha256, size, deduplicated);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 按 key 定位已存储的文件；兼容旧 OSS 服务平铺在根目录下的 32 位哈希文件名
+     */
+    public Optional<Path> resolve(String key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = KEY_PATTERN.matcher(key);
+        Path path = null;
+        if (matcher.matches()) {
+            path = objectPath(matcher.group(1));
+        } else if (LEGACY_KEY_PATTERN.matcher(key).matches()) {
+            path = root.resolve(key);
+        }
+        return path != null && Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * 从附件/资源 URL 中提取存储 key（取最后一段路径）
+     */
+    public Optional<String> keyOf(String url) {
+        if (url == null || url.isBlank()) {
+            return Optional.empty();
+        }
+        String candidate = url.substring(url.lastIndexOf('/') + 1);
+        int query = candidate.indexOf('?');
+        if (query >= 0) {
+            candidate = candidate.substring(0, query);
+        }
+        return resolve(candidate).isPresent() ? Optional.of(candidate) : Optional.empty();
+    }
+
+    public String downloadUrl(String key) {
+        return "/api/v1/files/" + key;
+    }
+
+    Path tmpDir() {
+        return tmpDir;
+    }
+
+    /**
+     * 将已完整写入的临时文件移动到内容寻址路径；目标已存在时返回 false（去重）
+     */
+    boolean moveIntoPlace(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (AtomicMoveNotSupportedException e) {
+            Path staging = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            Files.move(source, staging);
+            try {
+                Files.move(staging, target);
+            } catch (FileAlreadyExistsException ex) {
+                Files.deleteIfExists(staging);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    Path objectPath(String sha256) {
+        return objectsDir.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    static String extensionOf(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0 || dot == filename.length() - 1) {
+            return "";
+        }
+        String ext = filename.substring(dot + 1);
+        return EXTENSION_PATTERN.matcher(ext).matches() ? "." + ext.toLowerCase(Locale.ROOT) : "";
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
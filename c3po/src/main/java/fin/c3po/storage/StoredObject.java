@@ -0,0 +1,7 @@
+package fin.c3po.storage;
+
+/**
+ * 已落盘的内容寻址对象：key 为 SHA-256 十六进制串加原始扩展名
+ */
+public record StoredObject(String key, String sha256, long size, boolean deduplicated) {
+}
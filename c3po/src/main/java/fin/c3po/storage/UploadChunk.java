@@ -0,0 +1,34 @@
+package fin.c3po.storage;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "upload_chunks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_upload_chunks_session_index", columnNames = {"sessionId", "chunkIndex"})
+})
+public class UploadChunk extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID sessionId;
+
+    @Column(nullable = false)
+    private Integer chunkIndex;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Long size;
+}
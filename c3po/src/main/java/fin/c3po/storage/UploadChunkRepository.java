@@ -0,0 +1,26 @@
+package fin.c3po.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UploadChunkRepository extends JpaRepository<UploadChunk, UUID> {
+    List<UploadChunk> findBySessionIdOrderByChunkIndexAsc(UUID sessionId);
+
+    Optional<UploadChunk> findBySessionIdAndChunkIndex(UUID sessionId, Integer chunkIndex);
+
+    long countBySessionId(UUID sessionId);
+
+    @Modifying
+    @Query("delete from UploadChunk c where c.sessionId = :sessionId and c.chunkIndex = :chunkIndex")
+    int deleteBySessionIdAndChunkIndex(@Param("sessionId") UUID sessionId, @Param("chunkIndex") Integer chunkIndex);
+
+    @Modifying
+    @Query("delete from UploadChunk c where c.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") UUID sessionId);
+}
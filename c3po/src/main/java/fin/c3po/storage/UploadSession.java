@@ -0,0 +1,60 @@
+package fin.c3po.storage;
+
+import fin.c3po.common.domain.BaseEntity;
+import fin.c3po.course.CourseResourceType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "upload_sessions", indexes = {
+        @Index(name = "idx_upload_sessions_status_expires", columnList = "status, expiresAt")
+})
+public class UploadSession extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID moduleId;
+
+    @Column(nullable = false)
+    private UUID ownerId;
+
+    @Column(nullable = false, length = 128)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private CourseResourceType resourceType = CourseResourceType.OTHER;
+
+    @Column(nullable = false)
+    private Long totalSize;
+
+    @Column(nullable = false)
+    private Integer chunkSize;
+
+    @Column(nullable = false)
+    private Integer chunkCount;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private UploadSessionStatus status = UploadSessionStatus.OPEN;
+
+    @Column(length = 128)
+    private String objectKey;
+
+    private UUID resourceId;
+}
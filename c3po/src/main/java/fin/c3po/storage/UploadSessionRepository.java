@@ -0,0 +1,31 @@
+package fin.c3po.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, UUID> {
+    List<UploadSession> findTop100ByStatusInAndExpiresAtBefore(List<UploadSessionStatus> statuses, Instant before);
+
+    @Modifying
+    @Query("update UploadSession s set s.status = :to where s.id = :id and s.status = :from")
+    int transitionStatus(@Param("id") UUID id,
+                         @Param("from") UploadSessionStatus from,
+                         @Param("to") UploadSessionStatus to);
+
+    /**
+     * 完成失败时退回可重试状态；已移入对象存储的 key 一并记下，重试时不再需要会话文件
+     */
+    @Modifying
+    @Query("update UploadSession s set s.status = :to, s.objectKey = coalesce(:objectKey, s.objectKey) "
+            + "where s.id = :id and s.status = :from")
+    int reopen(@Param("id") UUID id,
+               @Param("from") UploadSessionStatus from,
+               @Param("to") UploadSessionStatus to,
+               @Param("objectKey") String objectKey);
+}
@@ -0,0 +1,8 @@
+package fin.c3po.storage;
+
+public enum UploadSessionStatus {
+    OPEN,
+    COMPLETING,
+    COMPLETED,
+    EXPIRED
+}
@@ -0,0 +1,47 @@
+package fin.c3po.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * 上传会话 URL 的 HMAC-SHA256 签名，签名覆盖会话 ID 与过期时间
+ */
+@Component
+public class UploadSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public UploadSigner(@Value("${storage.upload.signing-secret:${security.jwt.secret}}") String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public String sign(UUID sessionId, long expiresEpochSecond) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] raw = mac.doFinal((sessionId + ":" + expiresEpochSecond).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign upload url", e);
+        }
+    }
+
+    public boolean verify(UUID sessionId, long expiresEpochSecond, String signature) {
+        if (signature == null || Instant.now().getEpochSecond() > expiresEpochSecond) {
+            return false;
+        }
+        byte[] expected = sign(sessionId, expiresEpochSecond).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,34 @@
+package fin.c3po.storage.dto;
+
+import fin.c3po.course.CourseResourceType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CreateUploadSessionRequest {
+
+    @NotBlank
+    @Size(max = 128)
+    private String fileName;
+
+    @NotNull
+    @Positive
+    private Long fileSize;
+
+    @NotNull
+    private CourseResourceType type;
+
+    /**
+     * 分片大小（字节），缺省 8 MB
+     */
+    @Min(1024 * 1024)
+    @Max(64 * 1024 * 1024)
+    private Integer chunkSize;
+}
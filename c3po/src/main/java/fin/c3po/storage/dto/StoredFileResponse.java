@@ -0,0 +1,18 @@
+package fin.c3po.storage.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 上传结果，字段与原 OSS 服务（oss/main.py）的响应保持一致，前端只需切换地址
+ */
+@Value
+@Builder
+public class StoredFileResponse {
+    boolean success;
+    String url;
+    String filename;
+    String sha256;
+    long size;
+    boolean deduplicated;
+}
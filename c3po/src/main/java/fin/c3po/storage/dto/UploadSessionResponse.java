@@ -0,0 +1,24 @@
+package fin.c3po.storage.dto;
+
+import fin.c3po.storage.UploadSessionStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Value
+@Builder
+public class UploadSessionResponse {
+    UUID sessionId;
+    UUID moduleId;
+    UploadSessionStatus status;
+    Long totalSize;
+    Integer chunkSize;
+    Integer chunkCount;
+    List<Integer> receivedChunks;
+    Instant expiresAt;
+    UUID resourceId;
+    String downloadUrl;
+}
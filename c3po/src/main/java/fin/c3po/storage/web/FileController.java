@@ -0,0 +1,174 @@
+package fin.c3po.storage.web;
+
+import fin.c3po.storage.StorageService;
+import fin.c3po.storage.StoredObject;
+import fin.c3po.storage.dto.StoredFileResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 文件上传/下载接口，路径与原 Python OSS 服务兼容（/files、/images）
+ */
+@RestController
+@RequestMapping("/api/v1")
+@Validated
+public class FileController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final StorageService storageService;
+    private final long maxUploadBytes;
+
+    public FileController(StorageService storageService,
+                          @Value("${storage.max-upload-bytes:2147483648}") long maxUploadBytes) {
+        this.storageService = storageService;
+        this.maxUploadBytes = maxUploadBytes;
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    @PostMapping({"/files/upload", "/images/upload"})
+    public ResponseEntity<StoredFileResponse> upload(@RequestPart("file") MultipartFile file) throws IOException {
+        if (file.isEmpty() || file.getOriginalFilename() == null || file.getOriginalFilename().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No selected file");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(toResponse(storageService.store(in, file.getOriginalFilename())));
+        }
+    }
+
+    /**
+     * 原始请求体上传：直接从请求流写盘，不经过 multipart 解析；
+     * 必须带 Content-Length 且不超过 storage.max-upload-bytes，实际写入量同样受该上限约束
+     */
+    @PreAuthorize("isAuthenticated()")
+    @PutMapping("/files")
+    public ResponseEntity<StoredFileResponse> uploadRaw(
+            @RequestParam(name = "filename", required = false) String filenameParam,
+            @RequestHeader(name = "X-File-Name", required = false) String filenameHeader,
+            HttpServletRequest request) throws IOException {
+        String filename = filenameParam != null ? filenameParam : filenameHeader;
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            throw new ResponseStatusException(HttpStatus.LENGTH_REQUIRED, "Content-Length is required");
+        }
+        if (length > maxUploadBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Upload too large");
+        }
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(toResponse(storageService.store(in, filename, maxUploadBytes)));
+        }
+    }
+
+    @GetMapping({"/files/{key:.+}", "/images/{key:.+}"})
+    public void download(@PathVariable String key, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path path = storageService.resolve(key)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found"));
+        long length = Files.size(path);
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && length > 0) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // 仅支持单区间；多区间请求按规范退化为返回完整内容
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(length);
+                    end = range.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = Math.max(end - start + 1, 0);
+        MediaType mediaType = MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(mediaType.toString());
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // 内容寻址，文件内容永不变化
+        response.setHeader(HttpHeaders.ETAG, "\"" + key + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        // Tomcat NIO 支持 sendfile 时交由容器零拷贝发送
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             WritableByteChannel out = Channels.newChannel(response.getOutputStream())) {
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    private StoredFileResponse toResponse(StoredObject stored) {
+        return StoredFileResponse.builder()
+                .success(true)
+                .url(stored.key())
+                .filename(stored.key())
+                .sha256(stored.sha256())
+                .size(stored.size())
+                .deduplicated(stored.deduplicated())
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package fin.c3po.storage.web;
+
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.storage.ChunkedUploadService;
+import fin.c3po.storage.dto.UploadSessionResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+/**
+ * 分片上传接口，凭上传凭证中的签名访问，不依赖登录态
+ */
+@RestController
+@RequestMapping("/api/v1/uploads")
+@Validated
+@RequiredArgsConstructor
+public class UploadSessionController {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    @PutMapping("/{sessionId}/chunks/{index}")
+    public ApiResponse<UploadSessionResponse> uploadChunk(
+            @PathVariable UUID sessionId,
+            @PathVariable int index,
+            @RequestParam long expires,
+            @RequestParam String signature,
+            @RequestHeader(name = "X-Chunk-Sha256", required = false) String chunkSha256,
+            HttpServletRequest request) throws IOException {
+        chunkedUploadService.verifySignature(sessionId, expires, signature);
+        try (InputStream in = request.getInputStream()) {
+            return ApiResponse.success(chunkedUploadService.writeChunk(sessionId, index, chunkSha256, in));
+        }
+    }
+
+    @GetMapping("/{sessionId}")
+    public ApiResponse<UploadSessionResponse> getSession(
+            @PathVariable UUID sessionId,
+            @RequestParam long expires,
+            @RequestParam String signature) {
+        chunkedUploadService.verifySignature(sessionId, expires, signature);
+        return ApiResponse.success(chunkedUploadService.getStatus(sessionId));
+    }
+
+    @PostMapping("/{sessionId}/complete")
+    public ApiResponse<UploadSessionResponse> complete(
+            @PathVariable UUID sessionId,
+            @RequestParam long expires,
+            @RequestParam String signature) {
+        chunkedUploadService.verifySignature(sessionId, expires, signature);
+        return ApiResponse.success(chunkedUploadService.complete(sessionId));
+    }
+}
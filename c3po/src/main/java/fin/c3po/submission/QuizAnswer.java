@@ -0,0 +1,36 @@
+package fin.c3po.submission;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * 测验作答的单题答案，每题一行，支持按题增量更新
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "quiz_answers", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_quiz_answers_attempt_question", columnNames = {"attemptId", "questionId"})
+})
+public class QuizAnswer extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID attemptId;
+
+    @Column(nullable = false, length = 64)
+    private String questionId;
+
+    @Column(nullable = false, length = 4096)
+    private String answer;
+
+    private Double score;
+}
@@ -0,0 +1,27 @@
+package fin.c3po.submission;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface QuizAnswerRepository extends JpaRepository<QuizAnswer, UUID> {
+    List<QuizAnswer> findByAttemptIdOrderByCreatedAtAscQuestionIdAsc(UUID attemptId);
+
+    List<QuizAnswer> findByAttemptIdInOrderByCreatedAtAscQuestionIdAsc(Collection<UUID> attemptIds);
+
+    @Query("select new fin.c3po.submission.QuizAnswerRow(a.attemptId, a.questionId, a.answer) "
+            + "from QuizAnswer a, QuizAttempt q "
+            + "where a.attemptId = q.id and q.assignmentId = :assignmentId and q.status in :statuses")
+    List<QuizAnswerRow> findRowsByAssignment(@Param("assignmentId") UUID assignmentId,
+                                             @Param("statuses") Collection<QuizAttemptStatus> statuses);
+
+    @Modifying
+    @Query("delete from QuizAnswer a where a.attemptId = :attemptId and a.questionId in :questionIds")
+    int deleteByAttemptIdAndQuestionIdIn(@Param("attemptId") UUID attemptId,
+                                         @Param("questionIds") Collection<String> questionIds);
+}
@@ -0,0 +1,9 @@
+package fin.c3po.submission;
+
+import java.util.UUID;
+
+/**
+ * 单题答案的轻量投影，供批量批改使用
+ */
+public record QuizAnswerRow(UUID attemptId, String questionId, String answer) {
+}
@@ -0,0 +1,131 @@
+package fin.c3po.submission;
+
+import fin.c3po.submission.dto.CreateQuizAttemptRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 按题存储的作答读写：整份替换、按题增量、批改得分回写
+ */
+@Service
+@RequiredArgsConstructor
+public class QuizAnswerService {
+
+    private final QuizAnswerRepository quizAnswerRepository;
+
+    @Transactional(readOnly = true)
+    public List<CreateQuizAttemptRequest.Answer> answersOf(UUID attemptId) {
+        return quizAnswerRepository.findByAttemptIdOrderByCreatedAtAscQuestionIdAsc(attemptId).stream()
+                .map(QuizAnswerService::toDto)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<UUID, List<CreateQuizAttemptRequest.Answer>> answersOf(Collection<UUID> attemptIds) {
+        if (attemptIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, List<CreateQuizAttemptRequest.Answer>> byAttempt = new HashMap<>();
+        for (QuizAnswer answer : quizAnswerRepository.findByAttemptIdInOrderByCreatedAtAscQuestionIdAsc(attemptIds)) {
+            byAttempt.computeIfAbsent(answer.getAttemptId(), id -> new ArrayList<>()).add(toDto(answer));
+        }
+        return byAttempt;
+    }
+
+    /**
+     * 用完整答案列表替换作答内容（旧版整份提交接口）
+     */
+    @Transactional
+    public void replace(UUID attemptId, List<CreateQuizAttemptRequest.Answer> answers) {
+        Map<String, String> changes = new LinkedHashMap<>();
+        for (CreateQuizAttemptRequest.Answer answer : answers) {
+            changes.put(answer.getQuestionId(), answer.getAnswer());
+        }
+        applyChanges(attemptId, changes, true);
+    }
+
+    /**
+     * 应用自动保存缓冲区取出的快照，完整替换的快照会清除未出现的已存答案
+     */
+    @Transactional
+    public void applyChanges(UUID attemptId, Map<String, String> changes, boolean replace) {
+        if (!replace) {
+            applyChanges(attemptId, changes);
+            return;
+        }
+        Map<String, String> replacement = new LinkedHashMap<>();
+        for (QuizAnswer existing : quizAnswerRepository.findByAttemptIdOrderByCreatedAtAscQuestionIdAsc(attemptId)) {
+            replacement.put(existing.getQuestionId(), null);
+        }
+        replacement.putAll(changes);
+        applyChanges(attemptId, replacement);
+    }
+
+    /**
+     * 按题增量更新：值为 null 表示清除该题答案
+     */
+    @Transactional
+    public void applyChanges(UUID attemptId, Map<String, String> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Map<String, QuizAnswer> existing = quizAnswerRepository.findByAttemptIdOrderByCreatedAtAscQuestionIdAsc(attemptId)
+                .stream()
+                .collect(Collectors.toMap(QuizAnswer::getQuestionId, answer -> answer));
+        List<QuizAnswer> toSave = new ArrayList<>();
+        List<String> toDelete = new ArrayList<>();
+        changes.forEach((questionId, value) -> {
+            QuizAnswer row = existing.get(questionId);
+            if (value == null) {
+                if (row != null) {
+                    toDelete.add(questionId);
+                }
+                return;
+            }
+            if (row == null) {
+                row = new QuizAnswer();
+                row.setAttemptId(attemptId);
+                row.setQuestionId(questionId);
+            } else if (value.equals(row.getAnswer())) {
+                return;
+            }
+            row.setAnswer(value);
+            row.setScore(null);
+            toSave.add(row);
+        });
+        if (!toDelete.isEmpty()) {
+            quizAnswerRepository.deleteByAttemptIdAndQuestionIdIn(attemptId, toDelete);
+        }
+        quizAnswerRepository.saveAll(toSave);
+    }
+
+    /**
+     * 回写批改得到的单题得分
+     */
+    @Transactional
+    public void saveScores(UUID attemptId, List<CreateQuizAttemptRequest.Answer> graded) {
+        Map<String, Double> scores = new HashMap<>();
+        graded.forEach(answer -> scores.put(answer.getQuestionId(), answer.getScore()));
+        List<QuizAnswer> rows = quizAnswerRepository.findByAttemptIdOrderByCreatedAtAscQuestionIdAsc(attemptId);
+        rows.forEach(row -> row.setScore(scores.get(row.getQuestionId())));
+        quizAnswerRepository.saveAll(rows);
+    }
+
+    static CreateQuizAttemptRequest.Answer toDto(QuizAnswer row) {
+        CreateQuizAttemptRequest.Answer answer = new CreateQuizAttemptRequest.Answer();
+        answer.setQuestionId(row.getQuestionId());
+        answer.setAnswer(row.getAnswer());
+        answer.setScore(row.getScore());
+        return answer;
+    }
+}
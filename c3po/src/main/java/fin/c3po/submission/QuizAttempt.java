@@ -5,6 +5,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -17,7 +18,10 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "quiz_attempts")
+@Table(name = "quiz_attempts", indexes = {
+        @Index(name = "idx_quiz_attempts_status_expires_at", columnList = "status, expiresAt"),
+        @Index(name = "idx_quiz_attempts_assignment_student", columnList = "assignmentId, studentId")
+})
 public class QuizAttempt extends BaseEntity {
 
     @Column(nullable = false)
@@ -38,11 +42,22 @@ public class QuizAttempt extends BaseEntity {
 
     private Instant submittedAt;
 
-    @Column(length = 8192)
-    private String answers;
+    /**
+     * 限时测验的服务端截止时刻，开始作答时由作业时限算出；到期仍未提交的由定时任务自动提交
+     */
+    private Instant expiresAt;
 
     @Column(length = 2048)
     private String feedback;
+
+    /**
+     * 计入题目分析的时间与当时的总分，只由分析服务用条件 SQL 维护，实体保存不会覆盖
+     */
+    @Column(insertable = false, updatable = false)
+    private Instant analyzedAt;
+
+    @Column(insertable = false, updatable = false)
+    private Integer analyzedScore;
 }
 
 
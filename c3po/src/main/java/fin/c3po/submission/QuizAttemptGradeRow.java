@@ -0,0 +1,9 @@
+package fin.c3po.submission;
+
+import java.util.UUID;
+
+/**
+ * 重新批改所需的作答状态投影
+ */
+public record QuizAttemptGradeRow(UUID id, QuizAttemptStatus status, Integer score) {
+}
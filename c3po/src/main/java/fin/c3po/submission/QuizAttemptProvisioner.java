@@ -0,0 +1,137 @@
+package fin.c3po.submission;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.assignment.AssignmentType;
+import fin.c3po.selection.CourseSelection;
+import fin.c3po.selection.CourseSelectionRepository;
+import fin.c3po.selection.SelectionStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 测验开考前的作答预建：为所有选课学生批量插入 PROVISIONED 状态的空作答，并在内存中记下
+ * (作业, 学生) → 作答 ID；开考时开始作答只需按主键做一次条件更新，不再有查询和插入。
+ * 内存索引只在预建所在实例有效，其他实例回退到按 (assignment_id, student_id) 索引查找。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAttemptProvisioner {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Duration SHELL_TTL = Duration.ofDays(2);
+
+    private final AssignmentRepository assignmentRepository;
+    private final CourseSelectionRepository courseSelectionRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<ShellKey, Shell> shells = new ConcurrentHashMap<>();
+
+    /**
+     * 为尚无作答的选课学生预建作答；每个作业只预建一次，返回新建数量
+     */
+    @Transactional
+    public int provision(Assignment assignment) {
+        Instant now = Instant.now();
+        shells.values().removeIf(shell -> shell.createdAt().plus(SHELL_TTL).isBefore(now));
+        if (assignment.getType() != AssignmentType.QUIZ
+                || assignmentRepository.markProvisioned(assignment.getId(), now) == 0) {
+            return 0;
+        }
+        Set<UUID> existing = new HashSet<>(quizAttemptRepository.findStudentIdsByAssignmentId(assignment.getId()));
+        Timestamp ts = Timestamp.from(now);
+        List<Object[]> rows = new ArrayList<>();
+        List<Shell> created = new ArrayList<>();
+        for (CourseSelection selection : courseSelectionRepository.findByCourseIdAndStatus(
+                assignment.getCourseId(), SelectionStatus.ENROLLED)) {
+            if (!existing.add(selection.getStudentId())) {
+                continue;
+            }
+            UUID attemptId = UUID.randomUUID();
+            rows.add(new Object[] { attemptId, ts, ts, assignment.getId(), selection.getStudentId(),
+                    QuizAttemptStatus.PROVISIONED.name() });
+            created.add(new Shell(attemptId, selection.getStudentId(), now));
+        }
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate("INSERT INTO quiz_attempts (id, created_at, updated_at, assignment_id, student_id, "
+                    + "status) VALUES (?, ?, ?, ?, ?, ?)", rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        created.forEach(shell -> shells.put(new ShellKey(assignment.getId(), shell.studentId()), shell));
+        log.info("Provisioned {} quiz attempts for assignment {}", created.size(), assignment.getId());
+        return created.size();
+    }
+
+    /**
+     * 把预建作答切换为进行中；没有预建作答（或已被开始）时返回 empty，由调用方按常规流程新建
+     */
+    public Optional<Shell> start(UUID assignmentId, UUID studentId, Instant startedAt, Instant expiresAt) {
+        Shell shell = shells.remove(new ShellKey(assignmentId, studentId));
+        if (shell == null) {
+            shell = quizAttemptRepository.findFirstByAssignmentIdAndStudentIdAndStatus(
+                            assignmentId, studentId, QuizAttemptStatus.PROVISIONED)
+                    .map(attempt -> new Shell(attempt.getId(), studentId, attempt.getCreatedAt()))
+                    .orElse(null);
+            if (shell == null) {
+                return Optional.empty();
+            }
+        }
+        Timestamp now = Timestamp.from(startedAt);
+        int started;
+        try {
+            started = jdbcTemplate.update("UPDATE quiz_attempts SET status = ?, started_at = ?, expires_at = ?, "
+                            + "updated_at = ? WHERE id = ? AND status = ?",
+                    QuizAttemptStatus.IN_PROGRESS.name(), now, expiresAt != null ? Timestamp.from(expiresAt) : null, now,
+                    shell.attemptId(), QuizAttemptStatus.PROVISIONED.name());
+        } catch (DataIntegrityViolationException e) {
+            // 学生已有另一份进行中的作答（唯一索引 uk_quiz_attempts_in_progress），预建作答保持不变
+            return Optional.empty();
+        }
+        return started == 1 ? Optional.of(shell) : Optional.empty();
+    }
+
+    /**
+     * 没有预建作答时直接插入一份进行中的作答；每个学生在同一作业下最多一份进行中的作答由部分唯一索引保证，
+     * 并发请求中只有一个插入成功，其余返回 empty，由调用方读取已有的那份
+     */
+    public Optional<Shell> create(UUID assignmentId, UUID studentId, Instant startedAt, Instant expiresAt) {
+        UUID attemptId = UUID.randomUUID();
+        Timestamp now = Timestamp.from(startedAt);
+        int inserted = jdbcTemplate.update("INSERT INTO quiz_attempts (id, created_at, updated_at, assignment_id, "
+                        + "student_id, status, started_at, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+                        + "ON CONFLICT DO NOTHING",
+                attemptId, now, now, assignmentId, studentId, QuizAttemptStatus.IN_PROGRESS.name(), now,
+                expiresAt != null ? Timestamp.from(expiresAt) : null);
+        return inserted == 1 ? Optional.of(new Shell(attemptId, studentId, startedAt)) : Optional.empty();
+    }
+
+    /**
+     * 作业截止后丢弃未被使用的内存索引
+     */
+    public void forget(Collection<UUID> assignmentIds) {
+        shells.keySet().removeIf(key -> assignmentIds.contains(key.assignmentId()));
+    }
+
+    public record Shell(UUID attemptId, UUID studentId, Instant createdAt) {
+    }
+
+    private record ShellKey(UUID assignmentId, UUID studentId) {
+    }
+}
@@ -1,7 +1,14 @@
 package fin.c3po.submission;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,6 +18,97 @@ public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, UUID>
     List<QuizAttempt> findByStudentId(UUID studentId);
     List<QuizAttempt> findByAssignmentIdAndStudentId(UUID assignmentId, UUID studentId);
     Optional<QuizAttempt> findTopByAssignmentIdAndStudentIdOrderByCreatedAtDesc(UUID assignmentId, UUID studentId);
+    Optional<QuizAttempt> findFirstByAssignmentIdAndStudentIdAndStatus(UUID assignmentId, UUID studentId,
+                                                                      QuizAttemptStatus status);
+
+    /**
+     * 作答列表不含预建后尚未开始的空作答
+     */
+    List<QuizAttempt> findByAssignmentIdAndStatusNot(UUID assignmentId, QuizAttemptStatus status);
+    List<QuizAttempt> findByAssignmentIdAndStudentIdAndStatusNot(UUID assignmentId, UUID studentId,
+                                                                QuizAttemptStatus status);
+
+    @Query("select distinct q.studentId from QuizAttempt q where q.assignmentId = :assignmentId")
+    List<UUID> findStudentIdsByAssignmentId(@Param("assignmentId") UUID assignmentId);
+
+    @Query("select new fin.c3po.submission.QuizAttemptGradeRow(q.id, q.status, q.score) "
+            + "from QuizAttempt q where q.assignmentId = :assignmentId and q.status in :statuses")
+    List<QuizAttemptGradeRow> findGradeRows(@Param("assignmentId") UUID assignmentId,
+                                            @Param("statuses") Collection<QuizAttemptStatus> statuses);
+
+    @Modifying
+    @Query("update QuizAttempt q set q.status = :to, q.updatedAt = :now "
+            + "where q.assignmentId in :assignmentIds and q.status = :from")
+    int transitionStatusByAssignmentIds(@Param("assignmentIds") Collection<UUID> assignmentIds,
+                                        @Param("from") QuizAttemptStatus from,
+                                        @Param("to") QuizAttemptStatus to,
+                                        @Param("now") Instant now);
+
+    @Query("select q.id from QuizAttempt q where q.assignmentId in :assignmentIds and q.status = :status")
+    List<UUID> findIdsByAssignmentIdInAndStatus(@Param("assignmentIds") Collection<UUID> assignmentIds,
+                                                @Param("status") QuizAttemptStatus status,
+                                                Pageable pageable);
+
+    /**
+     * 已过截止时间但仍有未关闭作答的作业，启动补处理只需关闭这些作业
+     */
+    @Query("select distinct q.assignmentId from QuizAttempt q join Assignment a on a.id = q.assignmentId "
+            + "where a.deadline < :before and q.status in :statuses")
+    List<UUID> findAssignmentIdsPastDeadline(@Param("before") Instant before,
+                                             @Param("statuses") Collection<QuizAttemptStatus> statuses);
+
+    @Query("select q.id from QuizAttempt q where q.id in :ids and q.status <> :status")
+    List<UUID> findIdsByIdInAndStatusNot(@Param("ids") Collection<UUID> ids, @Param("status") QuizAttemptStatus status);
+
+    @Modifying
+    @Query("delete from QuizAttempt q where q.assignmentId in :assignmentIds and q.status = :status")
+    int deleteByAssignmentIdsAndStatus(@Param("assignmentIds") Collection<UUID> assignmentIds,
+                                       @Param("status") QuizAttemptStatus status);
+
+    /**
+     * 按 (status, expiresAt) 索引取一批已超时的作答，最早到期的优先
+     */
+    @Query("select q.id from QuizAttempt q where q.status = :status and q.expiresAt <= :cutoff order by q.expiresAt")
+    List<UUID> findExpiredIds(@Param("status") QuizAttemptStatus status,
+                              @Param("cutoff") Instant cutoff,
+                              Pageable pageable);
+
+    /**
+     * 学生提交：只有仍在进行中的作答能转为已提交，与超时自动提交并发时只有一方生效
+     */
+    @Transactional
+    @Modifying
+    @Query("update QuizAttempt q set q.status = :to, q.submittedAt = :submittedAt, "
+            + "q.durationSeconds = coalesce(:durationSeconds, q.durationSeconds), q.updatedAt = :now "
+            + "where q.id = :id and q.status = :from")
+    int submit(@Param("id") UUID id,
+               @Param("from") QuizAttemptStatus from,
+               @Param("to") QuizAttemptStatus to,
+               @Param("submittedAt") Instant submittedAt,
+               @Param("durationSeconds") Long durationSeconds,
+               @Param("now") Instant now);
+
+    /**
+     * 已提交但批改收尾（自动批改、计入分析）没有完成的作答，供定时任务重试
+     */
+    @Query("select q.id from QuizAttempt q where q.status = :status and q.analyzedAt is null "
+            + "and q.updatedAt < :before order by q.updatedAt")
+    List<UUID> findUnfinishedIds(@Param("status") QuizAttemptStatus status,
+                                 @Param("before") Instant before,
+                                 Pageable pageable);
+
+    /**
+     * 代学生提交：已超时的作答提交时间记为限时到期时刻，其余（作业截止时关闭的作答）记为当前时间；
+     * 条件更新保证与学生手动提交并发时只有一方生效
+     */
+    @Modifying
+    @Query("update QuizAttempt q set q.status = :to, "
+            + "q.submittedAt = case when q.expiresAt is not null and q.expiresAt < :now then q.expiresAt else :now end, "
+            + "q.updatedAt = :now where q.id in :ids and q.status = :from")
+    int submitExpired(@Param("ids") Collection<UUID> ids,
+                      @Param("from") QuizAttemptStatus from,
+                      @Param("to") QuizAttemptStatus to,
+                      @Param("now") Instant now);
 }
 
 
@@ -1,6 +1,7 @@
 package fin.c3po.submission;
 
 public enum QuizAttemptStatus {
+    PROVISIONED,
     IN_PROGRESS,
     SUBMITTED,
     GRADED,
@@ -0,0 +1,274 @@
+package fin.c3po.submission;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 作答自动保存的写合并缓冲区。
+ * <p>
+ * 自动保存只把按题的增量合并进内存中每个作答的待写快照，定时任务把快照合并为 JDBC 批量语句写回
+ * quiz_answers；同一题在一个刷新周期内的多次修改只落库一次。
+ * <p>
+ * 持久性约定：自动保存最多丢失一个刷新周期（进程崩溃时）；正式提交绕过缓冲区同步落库，
+ * 且会先合并缓冲区中的最新增量，因此提交永远不会丢失。刷新语句只作用于仍为 IN_PROGRESS 的作答，
+ * 并以 updated_at 作为版本，迟到的旧快照不会覆盖已提交或更新的数据；每批写入在同一事务中提交，
+ * 失败时整批回滚并放回缓冲区重试。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAutosaveBuffer {
+
+    private static final int BATCH_SIZE = 500;
+    private static final Duration META_TTL = Duration.ofMinutes(10);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, AttemptMeta> metas = new ConcurrentHashMap<>();
+
+    /**
+     * 暂存一次自动保存；changes 为按题增量（值为 null 表示清除），durationSeconds 为 null 时沿用上一份快照
+     */
+    public Pending stage(UUID attemptId, Map<String, String> changes, Long durationSeconds) {
+        return stage(attemptId, changes, durationSeconds, false);
+    }
+
+    /**
+     * 暂存一份完整答案：取代此前暂存的增量，落库时未出现在 answers 中的已存答案一并清除
+     */
+    public Pending stageReplacement(UUID attemptId, Map<String, String> answers, Long durationSeconds) {
+        return stage(attemptId, answers, durationSeconds, true);
+    }
+
+    private Pending stage(UUID attemptId, Map<String, String> changes, Long durationSeconds, boolean replace) {
+        Instant now = Instant.now();
+        return pending.merge(attemptId, new Pending(copyOf(changes), durationSeconds, now, replace),
+                (previous, next) -> {
+                    Long duration = next.durationSeconds() != null ? next.durationSeconds() : previous.durationSeconds();
+                    if (next.replace()) {
+                        return new Pending(next.changes(), duration, now, true);
+                    }
+                    Map<String, String> merged = new LinkedHashMap<>(previous.changes());
+                    merged.putAll(next.changes());
+                    return new Pending(Collections.unmodifiableMap(merged), duration, now, previous.replace());
+                });
+    }
+
+    public Optional<Pending> peek(UUID attemptId) {
+        return Optional.ofNullable(pending.get(attemptId));
+    }
+
+    /**
+     * 取出并移除尚未落库的快照，供提交路径同步合并
+     */
+    public Optional<Pending> take(UUID attemptId) {
+        metas.remove(attemptId);
+        return Optional.ofNullable(pending.remove(attemptId));
+    }
+
+    /**
+     * 提交失败时放回取出的快照，期间到达的更新快照优先
+     */
+    public void restore(UUID attemptId, Pending snapshot) {
+        pending.putIfAbsent(attemptId, snapshot);
+    }
+
+    /**
+     * 缓存作答归属等只读信息，使后续自动保存无需读库
+     */
+    public AttemptMeta remember(QuizAttempt attempt) {
+        return remember(attempt.getId(), attempt.getAssignmentId(), attempt.getStudentId(), attempt.getStartedAt(),
+                attempt.getExpiresAt(), attempt.getCreatedAt());
+    }
+
+    public AttemptMeta remember(UUID attemptId, UUID assignmentId, UUID studentId, Instant startedAt,
+                                Instant expiresAt, Instant createdAt) {
+        AttemptMeta meta = new AttemptMeta(attemptId, assignmentId, studentId, startedAt, expiresAt, createdAt,
+                Instant.now());
+        metas.put(attemptId, meta);
+        return meta;
+    }
+
+    /**
+     * 作答已被代为提交或关闭：丢弃缓存信息和未落库的快照（刷新时也只会因状态守卫被丢弃）
+     */
+    public void forget(Collection<UUID> attemptIds) {
+        for (UUID attemptId : attemptIds) {
+            metas.remove(attemptId);
+            pending.remove(attemptId);
+        }
+    }
+
+    public Optional<AttemptMeta> meta(UUID attemptId) {
+        AttemptMeta meta = metas.computeIfPresent(attemptId, (id, current) -> current.touch());
+        return Optional.ofNullable(meta);
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.autosave.flush-interval-ms:2000}")
+    public void flush() {
+        if (!pending.isEmpty()) {
+            List<Map.Entry<UUID, Pending>> batch = new ArrayList<>(BATCH_SIZE);
+            for (Map.Entry<UUID, Pending> entry : pending.entrySet()) {
+                // 只在快照未被更新时移除，刷新期间到达的新快照留待下一轮
+                if (pending.remove(entry.getKey(), entry.getValue())) {
+                    batch.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+                if (batch.size() >= BATCH_SIZE) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+        Instant staleBefore = Instant.now().minus(META_TTL);
+        metas.values().removeIf(meta -> meta.lastSeen().isBefore(staleBefore));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<Map.Entry<UUID, Pending>> batch) {
+        String inProgress = QuizAttemptStatus.IN_PROGRESS.name();
+        List<Object[]> durations = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> clears = new ArrayList<>();
+        List<UUID> durationOwners = new ArrayList<>();
+        List<UUID> answerOwners = new ArrayList<>();
+        for (Map.Entry<UUID, Pending> entry : batch) {
+            UUID attemptId = entry.getKey();
+            Pending snapshot = entry.getValue();
+            Timestamp receivedAt = Timestamp.from(snapshot.receivedAt());
+            if (snapshot.durationSeconds() != null) {
+                durations.add(new Object[] { snapshot.durationSeconds(), receivedAt, attemptId, inProgress, receivedAt });
+                durationOwners.add(attemptId);
+            }
+            if (snapshot.replace()) {
+                clears.add(new Object[] { attemptId, receivedAt, attemptId, inProgress });
+            }
+            snapshot.changes().forEach((questionId, answer) -> {
+                if (answer == null) {
+                    deletes.add(new Object[] { attemptId, questionId, receivedAt, attemptId, inProgress });
+                } else {
+                    updates.add(new Object[] { answer, receivedAt, attemptId, questionId, receivedAt, attemptId, inProgress });
+                    answerOwners.add(attemptId);
+                    inserts.add(new Object[] {
+                            UUID.randomUUID(), receivedAt, receivedAt, attemptId, questionId, answer,
+                            attemptId, inProgress, attemptId, questionId
+                    });
+                }
+            });
+        }
+        try {
+            // 整批在一个事务中执行：完整替换会先删掉此前已落库的答案，中途失败必须整体回滚再放回重试
+            Set<UUID> unmatched = transactionTemplate.execute(status -> apply(durations, durationOwners, updates,
+                    answerOwners, inserts, deletes, clears));
+            evictClosed(unmatched != null ? unmatched : Set.of());
+        } catch (RuntimeException ex) {
+            log.error("Failed to flush {} quiz autosaves, retrying next round", batch.size(), ex);
+            batch.forEach(entry -> pending.putIfAbsent(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * 执行一批写入，返回有语句未命中的作答
+     */
+    private Set<UUID> apply(List<Object[]> durations, List<UUID> durationOwners, List<Object[]> updates,
+                            List<UUID> answerOwners, List<Object[]> inserts, List<Object[]> deletes,
+                            List<Object[]> clears) {
+        // 完整替换先清掉旧答案，随后的更新全部未命中而改为插入
+        jdbcTemplate.batchUpdate("DELETE FROM quiz_answers WHERE attempt_id = ? AND updated_at <= ? "
+                + "AND EXISTS (SELECT 1 FROM quiz_attempts q WHERE q.id = ? AND q.status = ?)", clears);
+        Set<UUID> unmatched = new HashSet<>();
+        int[] timed = jdbcTemplate.batchUpdate("UPDATE quiz_attempts SET duration_seconds = ?, updated_at = ? "
+                + "WHERE id = ? AND status = ? AND updated_at <= ?", durations);
+        for (int i = 0; i < timed.length; i++) {
+            if (timed[i] == 0) {
+                unmatched.add(durationOwners.get(i));
+            }
+        }
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE quiz_answers SET answer = ?, score = NULL, updated_at = ? "
+                + "WHERE attempt_id = ? AND question_id = ? AND updated_at <= ? "
+                + "AND EXISTS (SELECT 1 FROM quiz_attempts q WHERE q.id = ? AND q.status = ?)", updates);
+        // 更新未命中的题目才需要插入；NOT EXISTS 排除因版本守卫未更新的已有行
+        List<Object[]> missing = new ArrayList<>();
+        List<UUID> missingOwners = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(inserts.get(i));
+                missingOwners.add(answerOwners.get(i));
+            }
+        }
+        int[] inserted = jdbcTemplate.batchUpdate("INSERT INTO quiz_answers (id, created_at, updated_at, attempt_id, question_id, answer) "
+                + "SELECT ?, ?, ?, ?, ?, ? FROM quiz_attempts q WHERE q.id = ? AND q.status = ? "
+                + "AND NOT EXISTS (SELECT 1 FROM quiz_answers a WHERE a.attempt_id = ? AND a.question_id = ?)", missing);
+        jdbcTemplate.batchUpdate("DELETE FROM quiz_answers WHERE attempt_id = ? AND question_id = ? AND updated_at <= ? "
+                + "AND EXISTS (SELECT 1 FROM quiz_attempts q WHERE q.id = ? AND q.status = ?)", deletes);
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] == 0) {
+                unmatched.add(missingOwners.get(i));
+            }
+        }
+        return unmatched;
+    }
+
+    /**
+     * 写入未命中的作答可能已被提交或关闭：确认后丢弃其缓存信息，之后的自动保存重新读库并得到 409，
+     * 而不是继续被确认后在刷新时静默丢弃
+     */
+    private void evictClosed(Set<UUID> unmatched) {
+        if (unmatched.isEmpty()) {
+            return;
+        }
+        List<UUID> closed = quizAttemptRepository.findIdsByIdInAndStatusNot(unmatched, QuizAttemptStatus.IN_PROGRESS);
+        if (!closed.isEmpty()) {
+            closed.forEach(metas::remove);
+            log.warn("Dropped autosaves of {} quiz attempts that are no longer in progress", closed.size());
+        }
+    }
+
+    private static Map<String, String> copyOf(Map<String, String> changes) {
+        // 允许 null 值（表示清除），不能用 Map.copyOf
+        return Collections.unmodifiableMap(new LinkedHashMap<>(changes));
+    }
+
+    /**
+     * replace 为 true 时 changes 是一份完整答案（其后合并的增量也在其中），应用时先清除其余已存答案
+     */
+    public record Pending(Map<String, String> changes, Long durationSeconds, Instant receivedAt, boolean replace) {
+    }
+
+    public record AttemptMeta(UUID attemptId, UUID assignmentId, UUID studentId, Instant startedAt,
+                              Instant expiresAt, Instant createdAt, Instant lastSeen) {
+        AttemptMeta touch() {
+            return new AttemptMeta(attemptId, assignmentId, studentId, startedAt, expiresAt, createdAt, Instant.now());
+        }
+    }
+}
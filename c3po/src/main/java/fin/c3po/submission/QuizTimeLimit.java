@@ -0,0 +1,46 @@
+package fin.c3po.submission;
+
+import fin.c3po.assignment.Assignment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 测验限时规则：截止时刻以服务端开始时间为准，另留一小段宽限期容纳最后一次保存的网络延迟
+ */
+@Component
+public class QuizTimeLimit {
+
+    private final Duration grace;
+
+    public QuizTimeLimit(@Value("${quiz.time-limit.grace-seconds:5}") long graceSeconds) {
+        this.grace = Duration.ofSeconds(graceSeconds);
+    }
+
+    /**
+     * 作业未设置时限时返回 null
+     */
+    public Instant expiresAt(Assignment assignment, Instant startedAt) {
+        return expiresAt(assignment.getTimeLimitSeconds(), startedAt);
+    }
+
+    public Instant expiresAt(Integer limit, Instant startedAt) {
+        if (limit == null || limit <= 0) {
+            return null;
+        }
+        return startedAt.plusSeconds(limit);
+    }
+
+    public boolean isOver(Instant expiresAt, Instant now) {
+        return expiresAt != null && now.isAfter(expiresAt.plus(grace));
+    }
+
+    /**
+     * 截止时刻早于该值的进行中作答可以自动提交
+     */
+    public Instant cutoff(Instant now) {
+        return now.minus(grace);
+    }
+}
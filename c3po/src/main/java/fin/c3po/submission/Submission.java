@@ -2,14 +2,16 @@ package fin.c3po.submission;
 
 import fin.c3po.common.domain.BaseEntity;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -20,7 +22,10 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "submissions")
+@Table(name = "submissions", indexes = {
+        @Index(name = "idx_submissions_assignment_submitted", columnList = "assignmentId, submittedAt, id"),
+        @Index(name = "idx_submissions_student", columnList = "studentId")
+})
 public class Submission extends BaseEntity {
 
     @Column(nullable = false)
@@ -37,7 +42,8 @@ public class Submission extends BaseEntity {
 
     private Instant submittedAt;
 
-    @ElementCollection
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "attachments")
     private List<String> attachments = new ArrayList<>();
 
     @Column(length = 4096)
@@ -1,24 +1,51 @@
 package fin.c3po.submission;
 
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface SubmissionRepository extends JpaRepository<Submission, UUID> {
-    @EntityGraph(attributePaths = { "attachments" })
+public interface SubmissionRepository extends JpaRepository<Submission, UUID>, SubmissionRepositoryCustom {
     List<Submission> findByAssignmentId(UUID assignmentId);
 
-    @EntityGraph(attributePaths = { "attachments" })
     List<Submission> findByStudentId(UUID studentId);
 
-    @EntityGraph(attributePaths = { "attachments" })
     Optional<Submission> findTopByAssignmentIdAndStudentIdOrderBySubmittedAtDesc(UUID assignmentId, UUID studentId);
 
-    @EntityGraph(attributePaths = { "attachments" })
-    Optional<Submission> findWithAttachmentsById(UUID id);
-
     boolean existsByAssignmentIdAndStudentId(UUID assignmentId, UUID studentId);
+
+    @Query("select count(s) from Submission s join Assignment a on a.id = s.assignmentId "
+            + "join Course c on c.id = a.courseId where c.teacherId = :teacherId and s.status = :status")
+    long countByTeacherIdAndStatus(@Param("teacherId") UUID teacherId, @Param("status") SubmissionStatus status);
+
+    @Query("select new fin.c3po.submission.SubmissionSummary(s.id, s.assignmentId, s.studentId, s.status, s.score, s.submittedAt) "
+            + "from Submission s where s.assignmentId = :assignmentId")
+    List<SubmissionSummary> findSummariesByAssignmentId(@Param("assignmentId") UUID assignmentId);
+
+    @Query("select new fin.c3po.submission.SubmissionSummary(s.id, s.assignmentId, s.studentId, s.status, s.score, s.submittedAt) "
+            + "from Submission s where s.assignmentId in :assignmentIds")
+    List<SubmissionSummary> findSummariesByAssignmentIdIn(@Param("assignmentIds") Collection<UUID> assignmentIds);
+
+    @Query("select new fin.c3po.submission.SubmissionSummary(s.id, s.assignmentId, s.studentId, s.status, s.score, s.submittedAt) "
+            + "from Submission s where s.studentId = :studentId")
+    List<SubmissionSummary> findSummariesByStudentId(@Param("studentId") UUID studentId);
+
+    @Query("select new fin.c3po.submission.SubmissionSummary(s.id, s.assignmentId, s.studentId, s.status, s.score, s.submittedAt) "
+            + "from Submission s where s.assignmentId = :assignmentId and s.studentId = :studentId "
+            + "order by s.submittedAt desc")
+    List<SubmissionSummary> findSummariesByAssignmentIdAndStudentId(@Param("assignmentId") UUID assignmentId,
+                                                                    @Param("studentId") UUID studentId,
+                                                                    Pageable pageable);
+
+    default Optional<SubmissionSummary> findLatestSummary(UUID assignmentId, UUID studentId) {
+        return findSummariesByAssignmentIdAndStudentId(assignmentId, studentId, PageRequest.of(0, 1))
+                .stream()
+                .findFirst();
+    }
 }
@@ -0,0 +1,16 @@
+package fin.c3po.submission;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface SubmissionRepositoryCustom {
+
+    /**
+     * 按 (submittedAt, id) 升序做 keyset 分页，返回本页提交 ID。
+     * latestOnly 为 true 时通过窗口函数只保留每个学生最新的一次提交。
+     */
+    List<UUID> findPageIds(UUID assignmentId, Collection<SubmissionStatus> statuses, boolean latestOnly,
+                           Instant afterSubmittedAt, UUID afterId, int limit);
+}
@@ -0,0 +1,54 @@
+package fin.c3po.submission;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+class SubmissionRepositoryCustomImpl implements SubmissionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UUID> findPageIds(UUID assignmentId, Collection<SubmissionStatus> statuses, boolean latestOnly,
+                                  Instant afterSubmittedAt, UUID afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT t.id FROM ");
+        if (latestOnly) {
+            sql.append("(SELECT s.id, s.submitted_at, s.status, ROW_NUMBER() OVER (")
+                    .append("PARTITION BY s.student_id ORDER BY s.submitted_at DESC, s.id DESC) AS rn ")
+                    .append("FROM submissions s WHERE s.assignment_id = :assignmentId) t WHERE t.rn = 1");
+        } else {
+            sql.append("submissions t WHERE t.assignment_id = :assignmentId");
+        }
+        boolean filterStatus = statuses != null && !statuses.isEmpty();
+        if (filterStatus) {
+            sql.append(" AND t.status IN (:statuses)");
+        }
+        boolean hasCursor = afterSubmittedAt != null && afterId != null;
+        if (hasCursor) {
+            sql.append(" AND (t.submitted_at > :afterTs OR (t.submitted_at = :afterTs AND t.id > :afterId))");
+        }
+        sql.append(" ORDER BY t.submitted_at ASC, t.id ASC");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("assignmentId", assignmentId);
+        if (filterStatus) {
+            query.setParameter("statuses", statuses.stream().map(Enum::name).toList());
+        }
+        if (hasCursor) {
+            query.setParameter("afterTs", afterSubmittedAt);
+            query.setParameter("afterId", afterId);
+        }
+        query.setMaxResults(limit);
+
+        List<?> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> row instanceof UUID uuid ? uuid : UUID.fromString(row.toString()))
+                .toList();
+    }
+}
@@ -0,0 +1,16 @@
+package fin.c3po.submission;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 提交的轻量投影：不含附件与评语等大字段，供只读的统计/状态判断路径使用
+ */
+public record SubmissionSummary(
+        UUID id,
+        UUID assignmentId,
+        UUID studentId,
+        SubmissionStatus status,
+        Integer score,
+        Instant submittedAt) {
+}
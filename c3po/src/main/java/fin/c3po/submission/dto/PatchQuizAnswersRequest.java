@@ -0,0 +1,40 @@
+package fin.c3po.submission.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按题增量保存作答，一次只需携带发生变化的题目
+ */
+@Getter
+@Setter
+public class PatchQuizAnswersRequest {
+
+    @Valid
+    @Size(max = 200)
+    private List<AnswerChange> changes = new ArrayList<>();
+
+    @PositiveOrZero
+    private Long durationSeconds;
+
+    @Getter
+    @Setter
+    public static class AnswerChange {
+        @NotBlank
+        @Size(max = 64)
+        private String questionId;
+
+        /**
+         * 为 null 时清除该题答案
+         */
+        @Size(max = 4096)
+        private String answer;
+    }
+}
@@ -0,0 +1,15 @@
+package fin.c3po.submission.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Value
+@Builder
+public class QuizAnswerPatchResponse {
+    UUID attemptId;
+    int accepted;
+    Instant receivedAt;
+}
@@ -19,6 +19,7 @@ public class QuizAttemptResponse {
     Long durationSeconds;
     Instant startedAt;
     Instant submittedAt;
+    Instant expiresAt;
     List<CreateQuizAttemptRequest.Answer> answers;
     String feedback;
     Instant createdAt;
@@ -0,0 +1,13 @@
+package fin.c3po.submission.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+@Value
+@Builder
+public class QuizProvisionResponse {
+    UUID assignmentId;
+    int provisioned;
+}
@@ -1,31 +1,40 @@
 package fin.c3po.submission.web;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import fin.c3po.assignment.Assignment;
 import fin.c3po.assignment.AssignmentRepository;
 import fin.c3po.assignment.AssignmentType;
+import fin.c3po.assignment.QuizDefinitionCache;
 import fin.c3po.common.web.ApiResponse;
 import fin.c3po.course.Course;
 import fin.c3po.course.CourseRepository;
+import fin.c3po.grading.QuizAnalyticsService;
+import fin.c3po.grading.QuizSubmissionGrader;
+import fin.c3po.submission.QuizAnswerService;
 import fin.c3po.submission.QuizAttempt;
+import fin.c3po.submission.QuizAttemptProvisioner;
 import fin.c3po.submission.QuizAttemptRepository;
 import fin.c3po.submission.QuizAttemptStatus;
+import fin.c3po.submission.QuizAutosaveBuffer;
+import fin.c3po.submission.QuizTimeLimit;
 import fin.c3po.submission.dto.CreateQuizAttemptRequest;
 import fin.c3po.submission.dto.GradeQuizAttemptRequest;
+import fin.c3po.submission.dto.PatchQuizAnswersRequest;
+import fin.c3po.submission.dto.QuizAnswerPatchResponse;
 import fin.c3po.submission.dto.QuizAttemptResponse;
+import fin.c3po.submission.dto.QuizProvisionResponse;
 import fin.c3po.submission.dto.UpdateQuizAttemptRequest;
 import fin.c3po.user.UserAccount;
 import fin.c3po.user.UserRole;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -35,7 +44,9 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -47,10 +58,13 @@ public class QuizAttemptController {
     private final QuizAttemptRepository quizAttemptRepository;
     private final AssignmentRepository assignmentRepository;
     private final CourseRepository courseRepository;
-    private final ObjectMapper objectMapper;
-
-    private static final TypeReference<List<CreateQuizAttemptRequest.Answer>> ANSWER_TYPE =
-            new TypeReference<>() {};
+    private final QuizAnswerService quizAnswerService;
+    private final QuizSubmissionGrader quizSubmissionGrader;
+    private final QuizAutosaveBuffer quizAutosaveBuffer;
+    private final QuizAnalyticsService quizAnalyticsService;
+    private final QuizTimeLimit quizTimeLimit;
+    private final QuizAttemptProvisioner quizAttemptProvisioner;
+    private final QuizDefinitionCache quizDefinitionCache;
 
     @PreAuthorize("hasRole('STUDENT')")
     @PostMapping("/assignments/{assignmentId}/quiz-attempts")
@@ -62,20 +76,117 @@ public class QuizAttemptController {
         Assignment assignment = assignmentRepository.findById(assignmentId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
         ensureQuizAssignment(assignment);
+        Instant now = Instant.now();
+        ensureQuizOpen(assignment, now);
 
         QuizAttempt attempt = new QuizAttempt();
         attempt.setAssignmentId(assignmentId);
         attempt.setStudentId(currentUser.getId());
         attempt.setStartedAt(request.getStartedAt());
         attempt.setDurationSeconds(request.getDurationSeconds());
-        attempt.setSubmittedAt(request.getSubmittedAt());
-        attempt.setAnswers(toJson(request.getAnswers()));
-        attempt.setStatus(request.getSubmittedAt() == null ? QuizAttemptStatus.IN_PROGRESS : QuizAttemptStatus.SUBMITTED);
+        Instant expiresAt = quizTimeLimit.expiresAt(assignment, now);
+        if (expiresAt != null) {
+            // 限时测验以服务端时间计时，客户端上报的开始、提交时间都不可信：一律新建为进行中，经提交接口交卷
+            attempt.setStartedAt(now);
+            attempt.setExpiresAt(expiresAt);
+            attempt.setStatus(QuizAttemptStatus.IN_PROGRESS);
+        } else {
+            attempt.setSubmittedAt(request.getSubmittedAt());
+            attempt.setStatus(request.getSubmittedAt() == null
+                    ? QuizAttemptStatus.IN_PROGRESS : QuizAttemptStatus.SUBMITTED);
+        }
 
-        QuizAttempt saved = quizAttemptRepository.save(attempt);
+        QuizAttempt saved;
+        try {
+            saved = quizAttemptRepository.save(attempt);
+        } catch (DataIntegrityViolationException e) {
+            // 每个学生在同一测验下最多一份进行中的作答（uk_quiz_attempts_in_progress）
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz attempt already in progress");
+        }
+        quizAnswerService.replace(saved.getId(), request.getAnswers());
+        if (saved.getStatus() == QuizAttemptStatus.SUBMITTED) {
+            saved = quizSubmissionGrader.gradeSubmitted(saved, assignment);
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(toResponse(saved)));
     }
 
+    /**
+     * 开始作答：优先启用预建作答（按主键一次条件更新），作业定义读内存缓存；重复调用返回同一份进行中的作答
+     */
+    @PreAuthorize("hasRole('STUDENT')")
+    @PostMapping("/assignments/{assignmentId}/quiz-attempts/start")
+    public ApiResponse<QuizAttemptResponse> startQuizAttempt(
+            @PathVariable UUID assignmentId,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        QuizDefinitionCache.QuizDefinition quiz = quizDefinitionCache.get(assignmentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
+        if (quiz.type() != AssignmentType.QUIZ) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assignment is not a quiz");
+        }
+        Instant now = Instant.now();
+        if (!quiz.isOpen(now)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz has not started yet");
+        }
+        if (quiz.isClosed(now)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz is closed");
+        }
+
+        Instant expiresAt = quizTimeLimit.expiresAt(quiz.timeLimitSeconds(), now);
+        QuizAttemptProvisioner.Shell shell = quizAttemptProvisioner.start(assignmentId, currentUser.getId(), now, expiresAt)
+                .orElse(null);
+        if (shell == null) {
+            QuizAttempt existing = quizAttemptRepository.findFirstByAssignmentIdAndStudentIdAndStatus(
+                    assignmentId, currentUser.getId(), QuizAttemptStatus.IN_PROGRESS).orElse(null);
+            if (existing != null) {
+                quizAutosaveBuffer.remember(existing);
+                return ApiResponse.success(toResponse(existing));
+            }
+            shell = quizAttemptProvisioner.create(assignmentId, currentUser.getId(), now, expiresAt).orElse(null);
+        }
+        if (shell == null) {
+            // 并发的开始请求已插入了进行中的作答，返回同一份
+            QuizAttempt attempt = quizAttemptRepository.findFirstByAssignmentIdAndStudentIdAndStatus(
+                            assignmentId, currentUser.getId(), QuizAttemptStatus.IN_PROGRESS)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Quiz attempt could not be started"));
+            quizAutosaveBuffer.remember(attempt);
+            return ApiResponse.success(toResponse(attempt));
+        }
+        quizAutosaveBuffer.remember(shell.attemptId(), assignmentId, currentUser.getId(), now, expiresAt,
+                shell.createdAt());
+        return ApiResponse.success(QuizAttemptResponse.builder()
+                .id(shell.attemptId())
+                .assignmentId(assignmentId)
+                .studentId(currentUser.getId())
+                .status(QuizAttemptStatus.IN_PROGRESS)
+                .startedAt(now)
+                .expiresAt(expiresAt)
+                .answers(List.of())
+                .createdAt(shell.createdAt())
+                .updatedAt(now)
+                .build());
+    }
+
+    /**
+     * 手动为选课学生预建作答；定时发布的测验会在发布前由调度器自动预建
+     */
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @PostMapping("/assignments/{assignmentId}/quiz-attempts/provision")
+    public ApiResponse<QuizProvisionResponse> provisionQuizAttempts(
+            @PathVariable UUID assignmentId,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
+        ensureQuizAssignment(assignment);
+        ensureCourseAccess(currentUser, assignment.getCourseId());
+
+        return ApiResponse.success(QuizProvisionResponse.builder()
+                .assignmentId(assignmentId)
+                .provisioned(quizAttemptProvisioner.provision(assignment))
+                .build());
+    }
+
     @PreAuthorize("hasRole('STUDENT')")
     @PutMapping("/quiz-attempts/{attemptId}")
     public ApiResponse<QuizAttemptResponse> updateQuizAttempt(
@@ -83,33 +194,103 @@ public class QuizAttemptController {
             @Valid @RequestBody UpdateQuizAttemptRequest request,
             @AuthenticationPrincipal UserAccount currentUser) {
 
+        boolean submitting = request.getSubmittedAt() != null || Boolean.TRUE.equals(request.getSubmit());
+        if (!submitting) {
+            QuizAutosaveBuffer.AttemptMeta meta = quizAutosaveBuffer.meta(attemptId).orElse(null);
+            if (meta == null) {
+                QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz attempt not found"));
+                if (attempt.getStatus() == QuizAttemptStatus.IN_PROGRESS) {
+                    meta = quizAutosaveBuffer.remember(attempt);
+                }
+            }
+            if (meta != null) {
+                ensureWithinTimeLimit(meta.expiresAt());
+                return ApiResponse.success(autosave(meta, request, currentUser));
+            }
+        }
+
         QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz attempt not found"));
         if (!attempt.getStudentId().equals(currentUser.getId())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to modify this quiz attempt");
         }
-
-        if (request.getAnswers() != null) {
-            attempt.setAnswers(toJson(request.getAnswers()));
-        }
-        if (request.getDurationSeconds() != null) {
-            attempt.setDurationSeconds(request.getDurationSeconds());
+        if (attempt.getStatus() == QuizAttemptStatus.PROVISIONED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz attempt has not been started");
         }
-        if (request.getSubmittedAt() != null) {
-            attempt.setSubmittedAt(request.getSubmittedAt());
-            attempt.setStatus(QuizAttemptStatus.SUBMITTED);
+        // 已提交、已过期、已批改的作答不能再改答案或重新提交，否则会重新批改并覆盖教师的手动评分
+        if (attempt.getStatus() != QuizAttemptStatus.IN_PROGRESS) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz attempt is no longer in progress");
         }
-        if (Boolean.TRUE.equals(request.getSubmit())) {
-            attempt.setStatus(QuizAttemptStatus.SUBMITTED);
-            if (attempt.getSubmittedAt() == null) {
-                attempt.setSubmittedAt(Instant.now());
+        ensureWithinTimeLimit(attempt.getExpiresAt());
+
+        // 提交前合并缓冲区中尚未落库的自动保存，请求中显式给出的字段优先
+        QuizAutosaveBuffer.Pending buffered = quizAutosaveBuffer.take(attemptId).orElse(null);
+        try {
+            if (request.getAnswers() != null) {
+                quizAnswerService.replace(attemptId, request.getAnswers());
+            } else if (buffered != null) {
+                quizAnswerService.applyChanges(attemptId, buffered.changes(), buffered.replace());
+            }
+        } catch (RuntimeException ex) {
+            if (buffered != null) {
+                quizAutosaveBuffer.restore(attemptId, buffered);
             }
+            throw ex;
+        }
+        Long durationSeconds = request.getDurationSeconds() != null ? request.getDurationSeconds()
+                : buffered != null ? buffered.durationSeconds() : null;
+        Instant now = Instant.now();
+        // 限时测验的提交时间以服务端为准
+        Instant submittedAt = request.getSubmittedAt() != null && attempt.getExpiresAt() == null
+                ? request.getSubmittedAt() : now;
+        if (quizAttemptRepository.submit(attemptId, QuizAttemptStatus.IN_PROGRESS, QuizAttemptStatus.SUBMITTED,
+                submittedAt, durationSeconds, now) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz attempt is no longer in progress");
         }
 
-        QuizAttempt saved = quizAttemptRepository.save(attempt);
+        QuizAttempt submitted = quizAttemptRepository.findById(attemptId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz attempt not found"));
+        QuizAttempt saved = assignmentRepository.findById(submitted.getAssignmentId())
+                .map(assignment -> quizSubmissionGrader.gradeSubmitted(submitted, assignment))
+                .orElse(submitted);
         return ApiResponse.success(toResponse(saved));
     }
 
+    /**
+     * 按题增量自动保存：只接受进行中的作答，写入缓冲区后立即返回
+     */
+    @PreAuthorize("hasRole('STUDENT')")
+    @PatchMapping("/quiz-attempts/{attemptId}/answers")
+    public ApiResponse<QuizAnswerPatchResponse> patchAnswers(
+            @PathVariable UUID attemptId,
+            @Valid @RequestBody PatchQuizAnswersRequest request,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        QuizAutosaveBuffer.AttemptMeta meta = quizAutosaveBuffer.meta(attemptId).orElse(null);
+        if (meta == null) {
+            QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz attempt not found"));
+            if (attempt.getStatus() != QuizAttemptStatus.IN_PROGRESS) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz attempt is no longer in progress");
+            }
+            meta = quizAutosaveBuffer.remember(attempt);
+        }
+        if (!meta.studentId().equals(currentUser.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to modify this quiz attempt");
+        }
+        ensureWithinTimeLimit(meta.expiresAt());
+
+        Map<String, String> changes = new LinkedHashMap<>();
+        request.getChanges().forEach(change -> changes.put(change.getQuestionId(), change.getAnswer()));
+        QuizAutosaveBuffer.Pending staged = quizAutosaveBuffer.stage(attemptId, changes, request.getDurationSeconds());
+        return ApiResponse.success(QuizAnswerPatchResponse.builder()
+                .attemptId(attemptId)
+                .accepted(changes.size())
+                .receivedAt(staged.receivedAt())
+                .build());
+    }
+
     @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
     @GetMapping("/assignments/{assignmentId}/quiz-attempts")
     public ApiResponse<List<QuizAttemptResponse>> listQuizAttempts(
@@ -121,11 +302,8 @@ public class QuizAttemptController {
         ensureQuizAssignment(assignment);
         ensureCourseAccess(currentUser, assignment.getCourseId());
 
-        List<QuizAttemptResponse> responses = quizAttemptRepository.findByAssignmentId(assignmentId)
-                .stream()
-                .map(this::toResponse)
-                .toList();
-        return ApiResponse.success(responses);
+        return ApiResponse.success(toResponses(quizAttemptRepository.findByAssignmentIdAndStatusNot(
+                assignmentId, QuizAttemptStatus.PROVISIONED)));
     }
 
     @PreAuthorize("hasRole('STUDENT')")
@@ -138,11 +316,9 @@ public class QuizAttemptController {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
         ensureQuizAssignment(assignment);
 
-        List<QuizAttemptResponse> responses = quizAttemptRepository.findByAssignmentIdAndStudentId(assignmentId, currentUser.getId())
-                .stream()
-                .map(this::toResponse)
-                .toList();
-        return ApiResponse.success(responses);
+        return ApiResponse.success(toResponses(
+                quizAttemptRepository.findByAssignmentIdAndStudentIdAndStatusNot(assignmentId, currentUser.getId(),
+                        QuizAttemptStatus.PROVISIONED)));
     }
 
     @GetMapping("/quiz-attempts/{attemptId}")
@@ -189,9 +365,64 @@ public class QuizAttemptController {
         }
 
         QuizAttempt saved = quizAttemptRepository.save(attempt);
+        quizAnalyticsService.record(saved, assignment);
         return ApiResponse.success(toResponse(saved));
     }
 
+    /**
+     * 自动保存：仅写入内存缓冲区，由 QuizAutosaveBuffer 定时合并落库
+     */
+    private QuizAttemptResponse autosave(QuizAutosaveBuffer.AttemptMeta meta, UpdateQuizAttemptRequest request,
+                                         UserAccount currentUser) {
+        if (!meta.studentId().equals(currentUser.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to modify this quiz attempt");
+        }
+        // PUT 保持整份替换语义：给出答案列表时未出现的题目清除，未给出时只更新用时
+        QuizAutosaveBuffer.Pending staged;
+        if (request.getAnswers() != null) {
+            Map<String, String> answers = new LinkedHashMap<>();
+            request.getAnswers().forEach(answer -> answers.put(answer.getQuestionId(), answer.getAnswer()));
+            staged = quizAutosaveBuffer.stageReplacement(meta.attemptId(), answers, request.getDurationSeconds());
+        } else {
+            staged = quizAutosaveBuffer.stage(meta.attemptId(), Map.of(), request.getDurationSeconds());
+        }
+        return QuizAttemptResponse.builder()
+                .id(meta.attemptId())
+                .assignmentId(meta.assignmentId())
+                .studentId(meta.studentId())
+                .status(QuizAttemptStatus.IN_PROGRESS)
+                .durationSeconds(staged.durationSeconds())
+                .startedAt(meta.startedAt())
+                .expiresAt(meta.expiresAt())
+                .answers(request.getAnswers())
+                .createdAt(meta.createdAt())
+                .updatedAt(staged.receivedAt())
+                .build();
+    }
+
+    /**
+     * 超过时限（含宽限期）的保存直接拒绝，判断只用缓存的截止时刻，不读库；作答由定时任务按已保存内容自动提交
+     */
+    private void ensureWithinTimeLimit(Instant expiresAt) {
+        if (quizTimeLimit.isOver(expiresAt, Instant.now())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz time limit exceeded");
+        }
+    }
+
+    /**
+     * 与开始作答相同的开放窗口：未发布或已截止的测验不接受新作答
+     */
+    private void ensureQuizOpen(Assignment assignment, Instant now) {
+        boolean open = Boolean.TRUE.equals(assignment.getPublished())
+                || (assignment.getReleaseAt() != null && !assignment.getReleaseAt().isAfter(now));
+        if (!open) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz has not started yet");
+        }
+        if (assignment.getDeadline() != null && !assignment.getDeadline().isAfter(now)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz is closed");
+        }
+    }
+
     private void ensureQuizAssignment(Assignment assignment) {
         if (assignment.getType() != AssignmentType.QUIZ) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assignment is not a quiz");
@@ -216,7 +447,40 @@ public class QuizAttemptController {
     }
 
     private QuizAttemptResponse toResponse(QuizAttempt attempt) {
-        List<CreateQuizAttemptRequest.Answer> answers = fromJson(attempt.getAnswers());
+        return toResponse(attempt, quizAnswerService.answersOf(attempt.getId()));
+    }
+
+    private List<QuizAttemptResponse> toResponses(List<QuizAttempt> attempts) {
+        Map<UUID, List<CreateQuizAttemptRequest.Answer>> answers = quizAnswerService.answersOf(
+                attempts.stream().map(QuizAttempt::getId).toList());
+        return attempts.stream()
+                .map(attempt -> toResponse(attempt, answers.getOrDefault(attempt.getId(), List.of())))
+                .toList();
+    }
+
+    private QuizAttemptResponse toResponse(QuizAttempt attempt, List<CreateQuizAttemptRequest.Answer> stored) {
+        List<CreateQuizAttemptRequest.Answer> answers = stored;
+        // 进行中的作答叠加缓冲区里尚未落库的增量；整体替换时已存答案作废，只取缓冲区内容
+        QuizAutosaveBuffer.Pending buffered = attempt.getStatus() == QuizAttemptStatus.IN_PROGRESS
+                ? quizAutosaveBuffer.peek(attempt.getId()).orElse(null)
+                : null;
+        if (buffered != null && (buffered.replace() || !buffered.changes().isEmpty())) {
+            Map<String, CreateQuizAttemptRequest.Answer> merged = new LinkedHashMap<>();
+            if (!buffered.replace()) {
+                stored.forEach(answer -> merged.put(answer.getQuestionId(), answer));
+            }
+            buffered.changes().forEach((questionId, value) -> {
+                if (value == null) {
+                    merged.remove(questionId);
+                } else {
+                    CreateQuizAttemptRequest.Answer answer = new CreateQuizAttemptRequest.Answer();
+                    answer.setQuestionId(questionId);
+                    answer.setAnswer(value);
+                    merged.put(questionId, answer);
+                }
+            });
+            answers = List.copyOf(merged.values());
+        }
         return QuizAttemptResponse.builder()
                 .id(attempt.getId())
                 .assignmentId(attempt.getAssignmentId())
@@ -226,34 +490,11 @@ public class QuizAttemptController {
                 .durationSeconds(attempt.getDurationSeconds())
                 .startedAt(attempt.getStartedAt())
                 .submittedAt(attempt.getSubmittedAt())
+                .expiresAt(attempt.getExpiresAt())
                 .answers(answers)
                 .feedback(attempt.getFeedback())
                 .createdAt(attempt.getCreatedAt())
                 .updatedAt(attempt.getUpdatedAt())
                 .build();
     }
-
-    private List<CreateQuizAttemptRequest.Answer> fromJson(String json) {
-        if (json == null || json.isBlank()) {
-            return List.of();
-        }
-        try {
-            return objectMapper.readValue(json, ANSWER_TYPE);
-        } catch (JsonProcessingException e) {
-            return List.of();
-        }
-    }
-
-    private String toJson(List<CreateQuizAttemptRequest.Answer> answers) {
-        if (answers == null || answers.isEmpty()) {
-            return null;
-        }
-        try {
-            return objectMapper.writeValueAsString(answers);
-        } catch (JsonProcessingException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid quiz answers format");
-        }
-    }
 }
-
-
@@ -8,8 +8,13 @@ import fin.c3po.assignment.Assignment;
 import fin.c3po.course.Course;
 import fin.c3po.course.CourseRepository;
 import fin.c3po.common.web.ApiResponse;
+import fin.c3po.common.web.CursorMeta;
+import fin.c3po.common.web.KeysetCursor;
 import fin.c3po.notify.NotificationService;
+import fin.c3po.profile.TeacherStatsCache;
+import fin.c3po.similarity.SimilarityService;
 import fin.c3po.submission.Submission;
+import fin.c3po.submission.SubmissionArchiveService;
 import fin.c3po.submission.SubmissionRepository;
 import fin.c3po.submission.SubmissionStatus;
 import fin.c3po.submission.dto.AppealSubmissionRequest;
@@ -18,11 +23,15 @@ import fin.c3po.submission.dto.CreateSubmissionRequest;
 import fin.c3po.submission.dto.GradeSubmissionRequest;
 import fin.c3po.submission.dto.SubmissionResponse;
 import fin.c3po.submission.dto.UpdateSubmissionRequest;
+import fin.c3po.todo.TodoInboxService;
 import fin.c3po.user.UserAccount;
 import fin.c3po.user.UserRole;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -33,13 +42,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -52,6 +67,12 @@ public class SubmissionController {
     private final CourseRepository courseRepository;
     private final ObjectMapper objectMapper;
     private final NotificationService notificationService;
+    private final SubmissionArchiveService submissionArchiveService;
+    private final SimilarityService similarityService;
+    private final TodoInboxService todoInboxService;
+    private final TeacherStatsCache teacherStatsCache;
+
+    private static final int MAX_PAGE_SIZE = 200;
 
     private static final TypeReference<List<GradeSubmissionRequest.RubricScore>> RUBRIC_TYPE = new TypeReference<>() {
     };
@@ -60,17 +81,80 @@ public class SubmissionController {
     @GetMapping("/assignments/{assignmentId}/submissions")
     public ApiResponse<List<SubmissionResponse>> listSubmissions(
             @PathVariable UUID assignmentId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "50") int limit,
+            @RequestParam(name = "status", required = false) List<SubmissionStatus> statuses,
+            @RequestParam(name = "latestOnly", defaultValue = "false") boolean latestOnly,
             @AuthenticationPrincipal UserAccount currentUser) {
 
         Assignment assignment = assignmentRepository.findById(assignmentId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
         ensureCourseAccess(currentUser, assignment.getCourseId());
 
-        List<SubmissionResponse> responses = submissionRepository.findByAssignmentId(assignmentId)
-                .stream()
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Instant afterSubmittedAt = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            afterSubmittedAt = after.at();
+            afterId = after.id();
+        }
+
+        // 多取一条用于判断是否还有下一页
+        List<UUID> pageIds = submissionRepository.findPageIds(assignmentId, statuses, latestOnly,
+                afterSubmittedAt, afterId, pageSize + 1);
+        boolean hasMore = pageIds.size() > pageSize;
+        if (hasMore) {
+            pageIds = pageIds.subList(0, pageSize);
+        }
+
+        Map<UUID, Submission> byId = submissionRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Submission::getId, Function.identity()));
+        List<Submission> page = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        String nextCursor = null;
+        if (hasMore && !page.isEmpty()) {
+            Submission last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getSubmittedAt(), last.getId()).encode();
+        }
+
+        List<SubmissionResponse> responses = page.stream()
                 .map(this::toResponse)
                 .toList();
-        return ApiResponse.success(responses);
+        CursorMeta meta = CursorMeta.builder()
+                .limit(pageSize)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .sort("submittedAt,asc;id,asc")
+                .build();
+        return ApiResponse.success(responses, meta);
+    }
+
+    /**
+     * 打包下载作业全部提交附件，按学生分目录，边读边写入响应流
+     */
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @GetMapping("/assignments/{assignmentId}/submissions/archive")
+    public ResponseEntity<StreamingResponseBody> downloadArchive(
+            @PathVariable UUID assignmentId,
+            @RequestParam(name = "latestOnly", defaultValue = "true") boolean latestOnly,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
+        ensureCourseAccess(currentUser, assignment.getCourseId());
+
+        StreamingResponseBody body = out -> submissionArchiveService.writeArchive(assignmentId, latestOnly, out);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("submissions-" + assignmentId + ".zip")
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
     }
 
     @PreAuthorize("hasAnyRole('STUDENT','TEACHER','ADMIN')")
@@ -131,6 +215,9 @@ public class SubmissionController {
         submission.setResubmitCount(0);
 
         Submission saved = submissionRepository.save(submission);
+        similarityService.computeSignatureAsync(saved.getId());
+        todoInboxService.submissionChanged(saved.getAssignmentId(), saved.getStudentId());
+        teacherStatsCache.evictCourse(assignment.getCourseId());
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(toResponse(saved)));
     }
 
@@ -141,7 +228,7 @@ public class SubmissionController {
             @Valid @RequestBody UpdateSubmissionRequest request,
             @AuthenticationPrincipal UserAccount currentUser) {
 
-        Submission submission = submissionRepository.findWithAttachmentsById(submissionId)
+        Submission submission = submissionRepository.findById(submissionId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission not found"));
         if (!submission.getStudentId().equals(currentUser.getId())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to update this submission");
@@ -174,6 +261,9 @@ public class SubmissionController {
         submission.setAppealReason(null);
         submission.setAppealedAt(null);
         Submission saved = submissionRepository.save(submission);
+        similarityService.computeSignatureAsync(saved.getId());
+        todoInboxService.submissionChanged(saved.getAssignmentId(), saved.getStudentId());
+        teacherStatsCache.evictCourse(assignment.getCourseId());
         return ApiResponse.success(toResponse(saved));
     }
 
@@ -182,7 +272,7 @@ public class SubmissionController {
             @PathVariable UUID submissionId,
             @AuthenticationPrincipal UserAccount currentUser) {
 
-        Submission submission = submissionRepository.findWithAttachmentsById(submissionId)
+        Submission submission = submissionRepository.findById(submissionId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission not found"));
 
         if (currentUser == null) {
@@ -205,7 +295,7 @@ public class SubmissionController {
             @Valid @RequestBody GradeSubmissionRequest request,
             @AuthenticationPrincipal UserAccount currentUser) {
 
-        Submission submission = submissionRepository.findWithAttachmentsById(submissionId)
+        Submission submission = submissionRepository.findById(submissionId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission not found"));
         Assignment assignment = assignmentRepository.findById(submission.getAssignmentId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
@@ -222,6 +312,8 @@ public class SubmissionController {
         submission.setAppealReason(null);
         submission.setAppealedAt(null);
         Submission saved = submissionRepository.save(submission);
+        todoInboxService.submissionChanged(saved.getAssignmentId(), saved.getStudentId());
+        teacherStatsCache.evictCourse(assignment.getCourseId());
 
         // 如果发布评分，通知学生
         if (request.isPublish()) {
@@ -300,8 +392,10 @@ public class SubmissionController {
 
         // 批量保存
         List<Submission> saved = submissionRepository.saveAll(submissions);
+        saved.forEach(s -> todoInboxService.submissionChanged(s.getAssignmentId(), s.getStudentId()));
+        teacherStatsCache.evictCourse(assignment.getCourseId());
 
-        // 如果发布评分，通知所有被评分的学生
+        // 如果发布评分，为每个被评分的学生发布通知事件（由分发器异步批量写入，不阻塞评分请求）
         List<Submission> publishedSubmissions = saved.stream()
                 .filter(s -> {
                     BatchGradeSubmissionRequest.GradeItem item = gradeMap.get(s.getId());
@@ -350,6 +444,7 @@ public class SubmissionController {
         submission.setAppealedAt(Instant.now());
 
         Submission saved = submissionRepository.save(submission);
+        todoInboxService.submissionChanged(saved.getAssignmentId(), saved.getStudentId());
 
         // 通知教师有学生申诉
         Assignment assignment = assignmentRepository.findById(saved.getAssignmentId())
@@ -0,0 +1,11 @@
+package fin.c3po.todo;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 教师待办：作业及其待批改提交数
+ */
+public record GradingTodoRow(UUID assignmentId, String assignmentTitle, UUID courseId, Instant deadline,
+                             String courseName, UUID teacherId, long pendingCount) {
+}
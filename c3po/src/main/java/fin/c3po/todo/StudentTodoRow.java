@@ -0,0 +1,13 @@
+package fin.c3po.todo;
+
+import fin.c3po.submission.SubmissionStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 学生待办：作业与其最新一次提交的状态（未提交时为 null）
+ */
+public record StudentTodoRow(UUID studentId, UUID assignmentId, String assignmentTitle, UUID courseId, Instant deadline,
+                             String courseName, UUID teacherId, SubmissionStatus submissionStatus) {
+}
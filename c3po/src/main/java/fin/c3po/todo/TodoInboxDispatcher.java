@@ -0,0 +1,55 @@
+package fin.c3po.todo;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 待办收件箱刷新：业务事务提交后入队，定时批量处理；同一批内重复的请求
+ * （如批量评分对同一作业产生的多次待批改刷新）只执行一次。队列只在内存中，
+ * 崩溃或刷新失败丢失的更新由读取时按 built_at 的定期整体重建兜底，也可由管理员立即重建
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TodoInboxDispatcher {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final TodoInboxService todoInboxService;
+    private final BlockingQueue<TodoInboxEvent> queue = new LinkedBlockingQueue<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoInboxEvent(TodoInboxEvent event) {
+        queue.offer(event);
+    }
+
+    @Scheduled(fixedDelayString = "${todo.inbox.refresh-interval-ms:500}")
+    public void drain() {
+        List<TodoInboxEvent> batch = new ArrayList<>(BATCH_SIZE);
+        while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+            for (TodoInboxEvent event : new LinkedHashSet<>(batch)) {
+                try {
+                    todoInboxService.refresh(event);
+                } catch (RuntimeException ex) {
+                    log.error("Failed to refresh todo inbox ({} {})", event.scope(), event.targetId(), ex);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        drain();
+    }
+}
@@ -0,0 +1,22 @@
+package fin.c3po.todo;
+
+import java.util.UUID;
+
+/**
+ * 待办收件箱的刷新请求，业务路径在数据变更后发布，TodoInboxDispatcher 合并去重后批量处理
+ */
+public record TodoInboxEvent(Scope scope, UUID targetId) {
+
+    public enum Scope {
+        /** 整体重建某个用户的收件箱（targetId 为用户 ID） */
+        USER,
+        /** 刷新某个作业对应的学生待办和批改待办 */
+        ASSIGNMENT,
+        /** 只刷新某个作业的批改待办（待批改数） */
+        GRADING,
+        /** 刷新课程下所有作业（课程名等冗余字段变化） */
+        COURSE,
+        /** 刷新所有管理员的审批待办，targetId 为空 */
+        APPROVALS
+    }
+}
@@ -0,0 +1,331 @@
+package fin.c3po.todo;
+
+import fin.c3po.approval.ApprovalRequestRepository;
+import fin.c3po.approval.ApprovalStatus;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.selection.SelectionStatus;
+import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserAccountRepository;
+import fin.c3po.user.UserRole;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 按用户物化的待办收件箱：写路径在作业、提交、选课、审批变更后发布刷新事件，
+ * 读取时只扫描 todo_items；行内容都由 TodoQueryRepository 的聚合查询算出，增量刷新与整体重建结果一致
+ */
+@Service
+@Slf4j
+public class TodoInboxService {
+
+    public static final String TYPE_ASSIGNMENT = "assignment";
+    public static final String TYPE_GRADING = "grading";
+    public static final String TYPE_APPROVAL = "approval";
+
+    private static final UUID APPROVAL_REF = new UUID(0L, 0L);
+    private static final List<SubmissionStatus> PENDING_GRADING =
+            List.of(SubmissionStatus.SUBMITTED, SubmissionStatus.RESUBMITTED);
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_ITEM = "INSERT INTO todo_items (id, created_at, updated_at, user_id, item_type, "
+            + "ref_id, title, description, due_at, status, course_id, course_name, ref_title, publisher_id, "
+            + "publisher_name, pending_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT DO NOTHING";
+
+    private final TodoItemRepository todoItemRepository;
+    private final TodoInboxStateRepository stateRepository;
+    private final TodoQueryRepository todoQueryRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final ApprovalRequestRepository approvalRequestRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration maxAge;
+
+    public TodoInboxService(TodoItemRepository todoItemRepository,
+                            TodoInboxStateRepository stateRepository,
+                            TodoQueryRepository todoQueryRepository,
+                            AssignmentRepository assignmentRepository,
+                            ApprovalRequestRepository approvalRequestRepository,
+                            UserAccountRepository userAccountRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${todo.inbox.max-age-minutes:30}") long maxAgeMinutes) {
+        this.todoItemRepository = todoItemRepository;
+        this.stateRepository = stateRepository;
+        this.todoQueryRepository = todoQueryRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.approvalRequestRepository = approvalRequestRepository;
+        this.userAccountRepository = userAccountRepository;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+    }
+
+    /**
+     * 作业创建、修改、发布后刷新该作业相关的全部待办
+     */
+    public void assignmentChanged(UUID assignmentId) {
+        eventPublisher.publishEvent(new TodoInboxEvent(TodoInboxEvent.Scope.ASSIGNMENT, assignmentId));
+    }
+
+    /**
+     * 提交、重交、评分、申诉后刷新学生本人的收件箱和教师的待批改数
+     */
+    public void submissionChanged(UUID assignmentId, UUID studentId) {
+        eventPublisher.publishEvent(new TodoInboxEvent(TodoInboxEvent.Scope.USER, studentId));
+        eventPublisher.publishEvent(new TodoInboxEvent(TodoInboxEvent.Scope.GRADING, assignmentId));
+    }
+
+    /**
+     * 选课、退课等只影响单个用户的变更
+     */
+    public void userChanged(UUID userId) {
+        eventPublisher.publishEvent(new TodoInboxEvent(TodoInboxEvent.Scope.USER, userId));
+    }
+
+    public void courseChanged(UUID courseId) {
+        eventPublisher.publishEvent(new TodoInboxEvent(TodoInboxEvent.Scope.COURSE, courseId));
+    }
+
+    public void approvalsChanged() {
+        eventPublisher.publishEvent(new TodoInboxEvent(TodoInboxEvent.Scope.APPROVALS, null));
+    }
+
+    /**
+     * 读取用户收件箱；从未构建过、角色已变化或距上次整体构建超过 max-age 的先整体重建。
+     * 刷新请求只在内存中排队，进程崩溃或刷新失败时丢失的更新由这里的定期重建兜底
+     */
+    @Transactional
+    public List<TodoItem> inbox(UserAccount user) {
+        TodoInboxState state = stateRepository.findByUserId(user.getId()).orElse(null);
+        Instant now = Instant.now();
+        if (state == null || state.getRole() != user.getRole() || state.getBuiltAt().plus(maxAge).isBefore(now)) {
+            replaceInbox(user, itemsOf(user, now), Timestamp.from(now));
+        }
+        return todoItemRepository.findByUserIdOrderByCourseNameAscDueAtAsc(user.getId());
+    }
+
+    /**
+     * 一致性检查：按聚合查询整体重建用户收件箱，返回重建前的内容是否与源数据不一致
+     */
+    @Transactional
+    public boolean rebuild(UserAccount user) {
+        Instant now = Instant.now();
+        List<TodoItem> items = itemsOf(user, now);
+        TodoInboxState state = stateRepository.findByUserId(user.getId()).orElse(null);
+        boolean drifted = false;
+        if (state != null && state.getRole() == user.getRole()) {
+            Set<String> before = todoItemRepository.findByUserIdOrderByCourseNameAscDueAtAsc(user.getId()).stream()
+                    .map(TodoInboxService::fingerprint)
+                    .collect(Collectors.toSet());
+            Set<String> after = items.stream()
+                    .map(TodoInboxService::fingerprint)
+                    .collect(Collectors.toSet());
+            drifted = !before.equals(after);
+        }
+        replaceInbox(user, items, Timestamp.from(now));
+        if (drifted) {
+            log.warn("Todo inbox of user {} was out of sync and has been rebuilt with {} items", user.getId(), items.size());
+        }
+        return drifted;
+    }
+
+    /**
+     * 处理一条刷新请求，由 TodoInboxDispatcher 逐条在独立事务中调用
+     */
+    @Transactional
+    public void refresh(TodoInboxEvent event) {
+        Instant now = Instant.now();
+        switch (event.scope()) {
+            case USER -> {
+                // 从未读过待办的用户不必物化，首次读取时会整体构建
+                if (stateRepository.findByUserId(event.targetId()).isPresent()) {
+                    userAccountRepository.findById(event.targetId())
+                            .ifPresent(user -> replaceInbox(user, itemsOf(user, now), Timestamp.from(now)));
+                }
+            }
+            case ASSIGNMENT -> refreshAssignment(event.targetId(), true, now);
+            case GRADING -> refreshAssignment(event.targetId(), false, now);
+            case COURSE -> assignmentRepository.findByCourseId(event.targetId())
+                    .forEach(assignment -> refreshAssignment(assignment.getId(), true, now));
+            case APPROVALS -> {
+                jdbcTemplate.update("DELETE FROM todo_items WHERE item_type = ?", TYPE_APPROVAL);
+                List<UUID> adminIds = userAccountRepository.findByRole(UserRole.ADMIN).stream()
+                        .map(UserAccount::getId)
+                        .toList();
+                insert(withInbox(approvalItems(adminIds, now)), Timestamp.from(now));
+            }
+        }
+    }
+
+    private void refreshAssignment(UUID assignmentId, boolean includeStudents, Instant now) {
+        Timestamp ts = Timestamp.from(now);
+        if (includeStudents) {
+            jdbcTemplate.update("DELETE FROM todo_items WHERE ref_id = ? AND item_type = ?", assignmentId, TYPE_ASSIGNMENT);
+            insert(withInbox(studentItems(todoQueryRepository.findStudentTodosByAssignment(assignmentId,
+                    SelectionStatus.ENROLLED, SubmissionStatus.GRADED))), ts);
+        }
+        jdbcTemplate.update("DELETE FROM todo_items WHERE ref_id = ? AND item_type = ?", assignmentId, TYPE_GRADING);
+        insert(withInbox(gradingItems(todoQueryRepository.findGradingTodosByAssignment(assignmentId, PENDING_GRADING))),
+                ts);
+    }
+
+    /**
+     * 只保留已构建过收件箱的用户的行；其余用户首次读取时会整体构建，提前写入只会留下无人读取的行
+     */
+    private List<TodoItem> withInbox(List<TodoItem> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        Set<UUID> built = new HashSet<>();
+        List<UUID> userIds = items.stream().map(TodoItem::getUserId).distinct().toList();
+        for (int from = 0; from < userIds.size(); from += BATCH_SIZE) {
+            built.addAll(stateRepository.findUserIdsByUserIdIn(
+                    userIds.subList(from, Math.min(from + BATCH_SIZE, userIds.size()))));
+        }
+        return items.stream().filter(item -> built.contains(item.getUserId())).toList();
+    }
+
+    private List<TodoItem> itemsOf(UserAccount user, Instant now) {
+        return switch (user.getRole()) {
+            case STUDENT -> studentItems(todoQueryRepository.findStudentTodos(user.getId(),
+                    SelectionStatus.ENROLLED, SubmissionStatus.GRADED));
+            case TEACHER -> gradingItems(todoQueryRepository.findGradingTodos(user.getId(), PENDING_GRADING));
+            case ADMIN -> approvalItems(List.of(user.getId()), now);
+        };
+    }
+
+    private void replaceInbox(UserAccount user, List<TodoItem> items, Timestamp now) {
+        jdbcTemplate.update("DELETE FROM todo_items WHERE user_id = ?", user.getId());
+        insert(items, now);
+        int updated = jdbcTemplate.update("UPDATE todo_inbox_states SET role = ?, built_at = ?, updated_at = ? "
+                + "WHERE user_id = ?", user.getRole().name(), now, now, user.getId());
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO todo_inbox_states (id, created_at, updated_at, user_id, role, built_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING",
+                    UUID.randomUUID(), now, now, user.getId(), user.getRole().name(), now);
+        }
+    }
+
+    private List<TodoItem> studentItems(List<StudentTodoRow> rows) {
+        Map<UUID, UserAccount> teachers = teachersOf(rows.stream().map(StudentTodoRow::teacherId).toList());
+        // 同一时刻的多次提交会产生重复行，按 (学生, 作业) 去重
+        Map<List<UUID>, TodoItem> items = new LinkedHashMap<>();
+        for (StudentTodoRow row : rows) {
+            items.computeIfAbsent(List.of(row.studentId(), row.assignmentId()), key -> {
+                TodoItem item = assignmentItem(row.studentId(), TYPE_ASSIGNMENT, row.assignmentId(),
+                        row.assignmentTitle(), row.courseId(), row.courseName(), row.deadline(),
+                        teachers.get(row.teacherId()));
+                item.setTitle("提交作业：" + row.assignmentTitle());
+                item.setDescription("课程 ID: " + row.courseId());
+                item.setStatus(row.submissionStatus() == null ? "pending" : "submitted");
+                return item;
+            });
+        }
+        return new ArrayList<>(items.values());
+    }
+
+    private List<TodoItem> gradingItems(List<GradingTodoRow> rows) {
+        Map<UUID, UserAccount> teachers = teachersOf(rows.stream().map(GradingTodoRow::teacherId).toList());
+        List<TodoItem> items = new ArrayList<>(rows.size());
+        for (GradingTodoRow row : rows) {
+            TodoItem item = assignmentItem(row.teacherId(), TYPE_GRADING, row.assignmentId(), row.assignmentTitle(),
+                    row.courseId(), row.courseName(), row.deadline(), teachers.get(row.teacherId()));
+            item.setTitle("批改作业：" + row.assignmentTitle());
+            item.setDescription("待批改提交数：" + row.pendingCount());
+            item.setStatus("pending");
+            item.setPendingCount(row.pendingCount());
+            items.add(item);
+        }
+        return items;
+    }
+
+    private List<TodoItem> approvalItems(Collection<UUID> adminIds, Instant now) {
+        long pendingApprovals = approvalRequestRepository.countByStatus(ApprovalStatus.PENDING);
+        if (pendingApprovals == 0) {
+            return List.of();
+        }
+        List<TodoItem> items = new ArrayList<>(adminIds.size());
+        for (UUID adminId : adminIds) {
+            TodoItem item = new TodoItem();
+            item.setUserId(adminId);
+            item.setItemType(TYPE_APPROVAL);
+            item.setRefId(APPROVAL_REF);
+            item.setTitle("审批事项待处理");
+            item.setDescription("待审批数量：" + pendingApprovals);
+            item.setDueAt(now);
+            item.setStatus("pending");
+            item.setPendingCount(pendingApprovals);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static TodoItem assignmentItem(UUID userId, String type, UUID assignmentId, String assignmentTitle,
+                                           UUID courseId, String courseName, Instant deadline, UserAccount teacher) {
+        TodoItem item = new TodoItem();
+        item.setUserId(userId);
+        item.setItemType(type);
+        item.setRefId(assignmentId);
+        item.setRefTitle(assignmentTitle);
+        item.setCourseId(courseId);
+        item.setCourseName(courseName);
+        item.setDueAt(deadline);
+        if (teacher != null) {
+            item.setPublisherId(teacher.getId());
+            item.setPublisherName(teacher.getUsername());
+        }
+        return item;
+    }
+
+    private Map<UUID, UserAccount> teachersOf(Collection<UUID> teacherIds) {
+        if (teacherIds.isEmpty()) {
+            return Map.of();
+        }
+        return userAccountRepository.findAllById(new HashSet<>(teacherIds)).stream()
+                .collect(Collectors.toMap(UserAccount::getId, Function.identity()));
+    }
+
+    private void insert(List<TodoItem> items, Timestamp now) {
+        List<Object[]> rows = items.stream()
+                .map(item -> new Object[] { UUID.randomUUID(), now, now, item.getUserId(), item.getItemType(),
+                        item.getRefId(), item.getTitle(), item.getDescription(),
+                        item.getDueAt() != null ? Timestamp.from(item.getDueAt()) : null, item.getStatus(),
+                        item.getCourseId(), item.getCourseName(), item.getRefTitle(), item.getPublisherId(),
+                        item.getPublisherName(), item.getPendingCount() })
+                .toList();
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    /**
+     * 比较收件箱内容用的摘要；审批待办的时间是刷新时间，不参与比较
+     */
+    private static String fingerprint(TodoItem item) {
+        Instant dueAt = TYPE_APPROVAL.equals(item.getItemType()) ? null : item.getDueAt();
+        return String.join("|", item.getItemType(), String.valueOf(item.getRefId()), item.getTitle(),
+                Objects.toString(item.getDescription(), ""), Objects.toString(dueAt, ""), item.getStatus(),
+                Objects.toString(item.getCourseName(), ""), Objects.toString(item.getPublisherName(), ""));
+    }
+}
@@ -0,0 +1,36 @@
+package fin.c3po.todo;
+
+import fin.c3po.common.domain.BaseEntity;
+import fin.c3po.user.UserRole;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 收件箱构建标记：没有标记或角色已变化的用户在读取时整体重建
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "todo_inbox_states")
+public class TodoInboxState extends BaseEntity {
+
+    @Column(nullable = false, unique = true)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private UserRole role;
+
+    @Column(nullable = false)
+    private Instant builtAt;
+}
@@ -0,0 +1,18 @@
+package fin.c3po.todo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TodoInboxStateRepository extends JpaRepository<TodoInboxState, UUID> {
+
+    Optional<TodoInboxState> findByUserId(UUID userId);
+
+    @Query("select s.userId from TodoInboxState s where s.userId in :userIds")
+    List<UUID> findUserIdsByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+}
@@ -0,0 +1,69 @@
+package fin.c3po.todo;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 用户待办收件箱中的一行，由 TodoInboxService 在相关数据变更后维护；
+ * 读取待办只需按 (user_id, course_name, due_at) 索引做一次范围扫描
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "todo_items", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_todo_items_user_type_ref", columnNames = {"userId", "itemType", "refId"})
+}, indexes = {
+        @Index(name = "idx_todo_items_user_course_due", columnList = "userId, courseName, dueAt"),
+        @Index(name = "idx_todo_items_ref", columnList = "refId")
+})
+public class TodoItem extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false, length = 16)
+    private String itemType;
+
+    /**
+     * 作业类待办为作业 ID，审批待办为固定值
+     */
+    @Column(nullable = false)
+    private UUID refId;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    @Column(length = 255)
+    private String description;
+
+    private Instant dueAt;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    private UUID courseId;
+
+    @Column(length = 128)
+    private String courseName;
+
+    @Column(length = 128)
+    private String refTitle;
+
+    private UUID publisherId;
+
+    @Column(length = 64)
+    private String publisherName;
+
+    private Long pendingCount;
+}
@@ -0,0 +1,11 @@
+package fin.c3po.todo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TodoItemRepository extends JpaRepository<TodoItem, UUID> {
+
+    List<TodoItem> findByUserIdOrderByCourseNameAscDueAtAsc(UUID userId);
+}
@@ -0,0 +1,64 @@
+package fin.c3po.todo;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.selection.SelectionStatus;
+import fin.c3po.submission.SubmissionStatus;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 待办的聚合查询，每个角色的列表各用一条语句取回；收件箱重建和按作业刷新都以它为准
+ */
+public interface TodoQueryRepository extends Repository<Assignment, UUID> {
+
+    String STUDENT_TODOS = "select new fin.c3po.todo.StudentTodoRow(cs.studentId, a.id, a.title, a.courseId, a.deadline, "
+            + "c.name, c.teacherId, s.status) "
+            + "from CourseSelection cs "
+            + "join Course c on c.id = cs.courseId "
+            + "join Assignment a on a.courseId = c.id "
+            + "left join Submission s on s.assignmentId = a.id and s.studentId = cs.studentId ";
+
+    String STUDENT_TODO_FILTER = "and (s.id is null or (s.status <> :graded and not exists ("
+            + "select 1 from Submission n where n.assignmentId = a.id and n.studentId = cs.studentId "
+            + "and n.submittedAt > s.submittedAt))) ";
+
+    String GRADING_TODOS = "select new fin.c3po.todo.GradingTodoRow(a.id, a.title, a.courseId, a.deadline, c.name, "
+            + "c.teacherId, count(s.id)) "
+            + "from Assignment a "
+            + "join Course c on c.id = a.courseId "
+            + "join Submission s on s.assignmentId = a.id ";
+
+    String GRADING_TODO_GROUP = "group by a.id, a.title, a.courseId, a.deadline, c.name, c.teacherId ";
+
+    /**
+     * 已选课程中需要处理的作业：左连接最新一次提交，未提交（s 为空）或最新提交未批改的保留；
+     * "不存在更晚提交" 的反连接把较早的提交排除掉
+     */
+    @Query(STUDENT_TODOS + "where cs.studentId = :studentId and cs.status = :enrolled " + STUDENT_TODO_FILTER
+            + "order by c.name, a.deadline")
+    List<StudentTodoRow> findStudentTodos(@Param("studentId") UUID studentId,
+                                          @Param("enrolled") SelectionStatus enrolled,
+                                          @Param("graded") SubmissionStatus graded);
+
+    /**
+     * 单个作业对所有选课学生的待办，作业发布/修改后刷新收件箱用
+     */
+    @Query(STUDENT_TODOS + "where a.id = :assignmentId and cs.status = :enrolled " + STUDENT_TODO_FILTER)
+    List<StudentTodoRow> findStudentTodosByAssignment(@Param("assignmentId") UUID assignmentId,
+                                                      @Param("enrolled") SelectionStatus enrolled,
+                                                      @Param("graded") SubmissionStatus graded);
+
+    @Query(GRADING_TODOS + "where c.teacherId = :teacherId and s.status in :statuses " + GRADING_TODO_GROUP
+            + "order by c.name, a.deadline")
+    List<GradingTodoRow> findGradingTodos(@Param("teacherId") UUID teacherId,
+                                          @Param("statuses") Collection<SubmissionStatus> statuses);
+
+    @Query(GRADING_TODOS + "where a.id = :assignmentId and s.status in :statuses " + GRADING_TODO_GROUP)
+    List<GradingTodoRow> findGradingTodosByAssignment(@Param("assignmentId") UUID assignmentId,
+                                                      @Param("statuses") Collection<SubmissionStatus> statuses);
+}
@@ -0,0 +1,16 @@
+package fin.c3po.todo.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Value
+@Builder
+public class TodoRebuildResponse {
+    UUID userId;
+    boolean drifted;
+    int itemCount;
+    Instant rebuiltAt;
+}
@@ -1,29 +1,25 @@
 package fin.c3po.todo.web;
 
-import fin.c3po.assignment.Assignment;
-import fin.c3po.assignment.AssignmentRepository;
 import fin.c3po.common.web.ApiResponse;
-import fin.c3po.course.Course;
-import fin.c3po.course.CourseRepository;
-import fin.c3po.selection.CourseSelection;
-import fin.c3po.selection.CourseSelectionRepository;
-import fin.c3po.selection.SelectionStatus;
-import fin.c3po.submission.Submission;
-import fin.c3po.submission.SubmissionRepository;
-import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.todo.TodoInboxService;
+import fin.c3po.todo.TodoItem;
+import fin.c3po.todo.dto.TodoRebuildResponse;
 import fin.c3po.todo.dto.TodoResponse;
 import fin.c3po.user.UserAccount;
 import fin.c3po.user.UserAccountRepository;
-import fin.c3po.user.UserRole;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,125 +31,65 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TodoController {
 
-    private final CourseSelectionRepository courseSelectionRepository;
-    private final AssignmentRepository assignmentRepository;
-    private final SubmissionRepository submissionRepository;
-    private final CourseRepository courseRepository;
-    private final fin.c3po.approval.ApprovalRequestRepository approvalRequestRepository;
+    private final TodoInboxService todoInboxService;
     private final UserAccountRepository userAccountRepository;
 
     @GetMapping("/todos")
     public ApiResponse<List<TodoResponse>> todos(@AuthenticationPrincipal UserAccount currentUser) {
-        List<TodoResponse> todos = new ArrayList<>();
         if (currentUser == null) {
             return ApiResponse.success(List.of());
         }
-
-        if (currentUser.getRole() == UserRole.STUDENT) {
-            todos.addAll(studentTodos(currentUser.getId()));
-        } else if (currentUser.getRole() == UserRole.TEACHER) {
-            todos.addAll(teacherTodos(currentUser.getId()));
-        } else if (currentUser.getRole() == UserRole.ADMIN) {
-            todos.addAll(adminTodos());
-        }
-
+        List<TodoResponse> todos = todoInboxService.inbox(currentUser).stream()
+                .map(this::toResponse)
+                .toList();
         return ApiResponse.success(todos);
     }
 
-    private List<TodoResponse> studentTodos(UUID studentId) {
-        List<TodoResponse> todos = new ArrayList<>();
-        List<CourseSelection> selections = courseSelectionRepository.findByStudentId(studentId);
-        for (CourseSelection selection : selections) {
-            if (selection.getStatus() != SelectionStatus.ENROLLED) {
-                continue;
-            }
-            Course course = courseRepository.findById(selection.getCourseId()).orElse(null);
-            if (course == null) {
-                continue;
-            }
-            List<Assignment> assignments = assignmentRepository.findByCourseId(selection.getCourseId());
-            for (Assignment assignment : assignments) {
-                Submission submission = submissionRepository
-                        .findTopByAssignmentIdAndStudentIdOrderBySubmittedAtDesc(assignment.getId(), studentId)
-                        .orElse(null);
-                boolean needsAction = submission == null || submission.getStatus() != SubmissionStatus.GRADED;
-                if (needsAction) {
-                    todos.add(TodoResponse.builder()
-                            .id(assignment.getId())
-                            .type("assignment")
-                            .title("提交作业：" + assignment.getTitle())
-                            .description("课程 ID: " + assignment.getCourseId())
-                            .dueAt(assignment.getDeadline())
-                            .status(submission == null ? "pending" : "submitted")
-                            .summary(buildAssignmentSummary(assignment, course))
-                            .build());
-                }
-            }
-        }
-        return todos;
+    /**
+     * 一致性检查：按源数据重建指定用户的待办收件箱
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/admin/users/{userId}/todos/rebuild")
+    public ApiResponse<TodoRebuildResponse> rebuildTodos(@PathVariable UUID userId) {
+        UserAccount user = userAccountRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        boolean drifted = todoInboxService.rebuild(user);
+        int itemCount = todoInboxService.inbox(user).size();
+        return ApiResponse.success(TodoRebuildResponse.builder()
+                .userId(userId)
+                .drifted(drifted)
+                .itemCount(itemCount)
+                .rebuiltAt(Instant.now())
+                .build());
     }
 
-    private List<TodoResponse> teacherTodos(UUID teacherId) {
-        List<TodoResponse> todos = new ArrayList<>();
-        List<Course> courses = courseRepository.findByTeacherId(teacherId);
-        for (Course course : courses) {
-            List<Assignment> assignments = assignmentRepository.findByCourseId(course.getId());
-            for (Assignment assignment : assignments) {
-                long pendingSubmissions = submissionRepository.findByAssignmentId(assignment.getId()).stream()
-                        .filter(submission -> submission.getStatus() == SubmissionStatus.SUBMITTED
-                                || submission.getStatus() == SubmissionStatus.RESUBMITTED)
-                        .count();
-                if (pendingSubmissions > 0) {
-                    todos.add(TodoResponse.builder()
-                            .id(assignment.getId())
-                            .type("grading")
-                            .title("批改作业：" + assignment.getTitle())
-                            .description("待批改提交数：" + pendingSubmissions)
-                            .dueAt(assignment.getDeadline())
-                            .status("pending")
-                            .summary(buildAssignmentSummary(assignment, course))
-                            .build());
-                }
+    private TodoResponse toResponse(TodoItem item) {
+        boolean approval = TodoInboxService.TYPE_APPROVAL.equals(item.getItemType());
+        Map<String, Object> summary = new HashMap<>();
+        if (approval) {
+            summary.put("pendingCount", item.getPendingCount());
+        } else {
+            summary.put("assignmentId", item.getRefId());
+            summary.put("assignmentTitle", item.getRefTitle());
+            summary.put("courseId", item.getCourseId());
+            summary.put("courseName", item.getCourseName());
+            summary.put("deadline", item.getDueAt());
+
+            // 发布者信息（教师）在写入收件箱时已冗余保存
+            if (item.getPublisherId() != null) {
+                summary.put("publisherId", item.getPublisherId());
+                summary.put("publisherName", item.getPublisherName());
             }
         }
-        return todos;
-    }
 
-    private List<TodoResponse> adminTodos() {
-        long pendingApprovals = approvalRequestRepository.countByStatus(fin.c3po.approval.ApprovalStatus.PENDING);
-        if (pendingApprovals == 0) {
-            return List.of();
-        }
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("pendingCount", pendingApprovals);
-        return List.of(TodoResponse.builder()
-                .id(UUID.randomUUID())
-                .type("approval")
-                .title("审批事项待处理")
-                .description("待审批数量：" + pendingApprovals)
-                .dueAt(Instant.now())
-                .status("pending")
+        return TodoResponse.builder()
+                .id(approval ? item.getId() : item.getRefId())
+                .type(item.getItemType())
+                .title(item.getTitle())
+                .description(item.getDescription())
+                .dueAt(item.getDueAt())
+                .status(item.getStatus())
                 .summary(summary)
-                .build());
-    }
-
-    private Map<String, Object> buildAssignmentSummary(Assignment assignment, Course course) {
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("assignmentId", assignment.getId());
-        summary.put("assignmentTitle", assignment.getTitle());
-        summary.put("courseId", course.getId());
-        summary.put("courseName", course.getName());
-        summary.put("deadline", assignment.getDeadline());
-        
-        // 获取发布者信息（教师）
-        UserAccount teacher = userAccountRepository.findById(course.getTeacherId()).orElse(null);
-        if (teacher != null) {
-            summary.put("publisherId", teacher.getId());
-            summary.put("publisherName", teacher.getUsername());
-        }
-        
-        return summary;
+                .build();
     }
 }
-
-
@@ -3,6 +3,7 @@ package fin.c3po.user;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,6 +12,7 @@ public interface UserAccountRepository extends JpaRepository<UserAccount, UUID>,
     Optional<UserAccount> findByEmailIgnoreCase(String email);
     boolean existsByUsernameIgnoreCase(String username);
     boolean existsByEmailIgnoreCase(String email);
+    List<UserAccount> findByRole(UserRole role);
 }
 
 
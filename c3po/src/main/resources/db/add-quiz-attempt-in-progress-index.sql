@@ -0,0 +1,17 @@
+-- 每个学生在同一测验下最多一份进行中的作答（PostgreSQL）
+-- 开始作答以 INSERT ... ON CONFLICT DO NOTHING 依赖该索引去重，需在新版本启动之前执行一次；
+-- 已存在的重复进行中作答保留最早的一份 (created_at, id)，其余标记为取消
+
+UPDATE quiz_attempts q
+SET status = 'CANCELLED', updated_at = now()
+WHERE q.status = 'IN_PROGRESS'
+  AND EXISTS (SELECT 1
+              FROM quiz_attempts o
+              WHERE o.assignment_id = q.assignment_id
+                AND o.student_id = q.student_id
+                AND o.status = 'IN_PROGRESS'
+                AND (o.created_at, o.id) < (q.created_at, q.id));
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_quiz_attempts_in_progress
+    ON quiz_attempts (assignment_id, student_id)
+    WHERE status = 'IN_PROGRESS';
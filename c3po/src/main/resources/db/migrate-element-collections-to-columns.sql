@@ -0,0 +1,28 @@
+-- 将作业可见标签、提交附件、通知发送渠道从独立集合表并入主表（PostgreSQL）
+-- 需在停掉旧版本之后、启动新版本之前执行一次：生产环境 ddl-auto=validate 不会自动建列，
+-- 开发环境 ddl-auto=update 建出的空列会让作业对所有人可见、附件为空，因此新列由本脚本创建并回填
+-- 旧的 notification_send_channels.send_channels 按枚举 ordinal 存储，对应位掩码的第 n 位
+-- 旧集合表没有顺序列，按插入顺序（ctid）聚合以保持原列表顺序
+
+ALTER TABLE assignments ADD COLUMN IF NOT EXISTS visibility_tags varchar(255)[];
+ALTER TABLE submissions ADD COLUMN IF NOT EXISTS attachments varchar(255)[];
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS send_channel_mask integer;
+
+UPDATE assignments a
+SET visibility_tags = COALESCE((SELECT array_agg(t.visibility_tags ORDER BY t.ctid)
+                                FROM assignment_visibility_tags t
+                                WHERE t.assignment_id = a.id), ARRAY[]::varchar[]);
+
+UPDATE submissions s
+SET attachments = COALESCE((SELECT array_agg(x.attachments ORDER BY x.ctid)
+                            FROM submission_attachments x
+                            WHERE x.submission_id = s.id), ARRAY[]::varchar[]);
+
+UPDATE notifications n
+SET send_channel_mask = COALESCE((SELECT bit_or(1 << c.send_channels)
+                                  FROM notification_send_channels c
+                                  WHERE c.notification_id = n.id), 0);
+
+DROP TABLE assignment_visibility_tags;
+DROP TABLE submission_attachments;
+DROP TABLE notification_send_channels;
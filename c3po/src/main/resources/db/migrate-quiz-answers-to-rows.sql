@@ -0,0 +1,27 @@
+-- 将 quiz_attempts.answers（JSON 字符串）拆分为 quiz_answers 按题存储（PostgreSQL）
+-- 需在停掉旧版本之后、启动新版本之前执行一次：生产环境 ddl-auto=validate 不会自动建表，
+-- quiz_answers 及下方 ON CONFLICT 依赖的 (attempt_id, question_id) 唯一约束由本脚本创建
+
+CREATE TABLE IF NOT EXISTS quiz_answers (
+    id          uuid                        NOT NULL PRIMARY KEY,
+    created_at  timestamp(6) with time zone NOT NULL,
+    updated_at  timestamp(6) with time zone NOT NULL,
+    attempt_id  uuid                        NOT NULL,
+    question_id varchar(64)                 NOT NULL,
+    answer      varchar(4096)               NOT NULL,
+    score       float(53),
+    CONSTRAINT uk_quiz_answers_attempt_question UNIQUE (attempt_id, question_id)
+);
+
+INSERT INTO quiz_answers (id, created_at, updated_at, attempt_id, question_id, answer, score)
+SELECT gen_random_uuid(), q.created_at, q.updated_at, q.id,
+       elem ->> 'questionId', elem ->> 'answer', (elem ->> 'score')::double precision
+FROM quiz_attempts q
+CROSS JOIN LATERAL jsonb_array_elements(q.answers::jsonb) AS elem
+WHERE q.answers IS NOT NULL
+  AND q.answers <> ''
+  AND elem ->> 'questionId' IS NOT NULL
+  AND elem ->> 'answer' IS NOT NULL
+ON CONFLICT (attempt_id, question_id) DO NOTHING;
+
+ALTER TABLE quiz_attempts DROP COLUMN answers;
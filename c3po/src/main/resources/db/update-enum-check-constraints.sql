@@ -0,0 +1,13 @@
+-- 重建枚举列的 CHECK 约束（PostgreSQL）
+-- Hibernate 建表时为 @Enumerated(STRING) 列生成 CHECK (col IN (...))，ddl-auto=update 不会随枚举新增取值而修改，
+-- 需在新版本启动之前执行一次：quiz_attempts.status 新增 PROVISIONED，report_jobs.job_type 新增
+-- COURSE_ROLLOVER、SUBMISSION_SIMILARITY、QUIZ_ANALYTICS_REBUILD
+
+ALTER TABLE quiz_attempts DROP CONSTRAINT IF EXISTS quiz_attempts_status_check;
+ALTER TABLE quiz_attempts ADD CONSTRAINT quiz_attempts_status_check
+    CHECK (status IN ('PROVISIONED', 'IN_PROGRESS', 'SUBMITTED', 'GRADED', 'CANCELLED', 'EXPIRED'));
+
+ALTER TABLE report_jobs DROP CONSTRAINT IF EXISTS report_jobs_job_type_check;
+ALTER TABLE report_jobs ADD CONSTRAINT report_jobs_job_type_check
+    CHECK (job_type IN ('SCORE_EXPORT', 'COURSE_STATS', 'COURSE_ROLLOVER', 'SUBMISSION_SIMILARITY',
+                        'QUIZ_ANALYTICS_REBUILD'));
@@ -0,0 +1,139 @@
+package fin.c3po.grading;
+
+import fin.c3po.grading.dto.AnswerKeyItem;
+import fin.c3po.submission.dto.CreateQuizAttemptRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 各题型的匹配规则、得分回写与百分制换算
+ */
+class CompiledAnswerKeyTests {
+
+	@Test
+	void choiceQuestionsNormalizeOptions() {
+		CompiledAnswerKey key = CompiledAnswerKey.compile(List.of(
+				item("q1", QuestionType.SINGLE_CHOICE, 2, "B"),
+				item("q2", QuestionType.TRUE_FALSE, 1, "true")));
+
+		assertThat(points(key, "q1", " b ")).isEqualTo(2);
+		assertThat(points(key, "q1", "C")).isZero();
+		assertThat(points(key, "q2", "TRUE")).isEqualTo(1);
+		assertThat(key.selectedOptions("q1", "b")).containsExactly("B");
+		assertThat(key.correctOptions("q1")).containsExactly("B");
+	}
+
+	@Test
+	void multipleChoiceAwardsPartialCreditOnlyWithoutWrongOptions() {
+		AnswerKeyItem partial = item("q1", QuestionType.MULTIPLE_CHOICE, 4, "A,C", "D");
+		partial.setPartialCredit(true);
+		CompiledAnswerKey key = CompiledAnswerKey.compile(List.of(
+				partial,
+				item("q2", QuestionType.MULTIPLE_CHOICE, 4, "A,C")));
+
+		assertThat(points(key, "q1", "d; c，a")).isEqualTo(4);
+		assertThat(points(key, "q1", "A C")).isEqualTo(8.0 / 3);
+		assertThat(points(key, "q1", "A,B")).isZero();
+		assertThat(points(key, "q2", "c,a")).isEqualTo(4);
+		assertThat(points(key, "q2", "A")).isZero();
+		assertThat(key.selectedOptions("q1", "a, d")).containsExactlyInAnyOrder("A", "D");
+		assertThat(key.correctOptions("q1")).containsExactlyInAnyOrder("A", "C", "D");
+	}
+
+	@Test
+	void textQuestionsCollapseWhitespaceAndHonourCaseSensitivity() {
+		AnswerKeyItem exact = item("q2", QuestionType.TEXT, 1, "Paris");
+		exact.setCaseSensitive(true);
+		CompiledAnswerKey key = CompiledAnswerKey.compile(List.of(
+				item("q1", QuestionType.TEXT, 1, "New  York", "NYC"),
+				exact));
+
+		assertThat(points(key, "q1", "  new york ")).isEqualTo(1);
+		assertThat(points(key, "q1", "nyc")).isEqualTo(1);
+		assertThat(points(key, "q1", "Newark")).isZero();
+		assertThat(points(key, "q2", "Paris")).isEqualTo(1);
+		assertThat(points(key, "q2", "paris")).isZero();
+		assertThat(key.selectedOptions("q1", "nyc")).isEmpty();
+	}
+
+	@Test
+	void numericQuestionsUseTolerance() {
+		AnswerKeyItem pi = item("q1", QuestionType.NUMERIC, 3, "3.14159");
+		pi.setTolerance(0.01);
+		CompiledAnswerKey key = CompiledAnswerKey.compile(List.of(
+				pi,
+				item("q2", QuestionType.NUMERIC, 1, "42")));
+
+		assertThat(points(key, "q1", " 3.14 ")).isEqualTo(3);
+		assertThat(points(key, "q1", "3.2")).isZero();
+		assertThat(points(key, "q1", "pi")).isZero();
+		assertThat(points(key, "q2", "42.0")).isEqualTo(1);
+		assertThat(points(key, "q2", "42.001")).isZero();
+	}
+
+	@Test
+	void regexQuestionsMatchTheWholeTrimmedAnswer() {
+		CompiledAnswerKey key = CompiledAnswerKey.compile(List.of(
+				item("q1", QuestionType.REGEX, 2, "o\\(n( log n)?\\)")));
+
+		assertThat(points(key, "q1", " O(N log n) ")).isEqualTo(2);
+		assertThat(points(key, "q1", "O(n)")).isEqualTo(2);
+		assertThat(points(key, "q1", "about O(n)")).isZero();
+	}
+
+	@Test
+	void gradeWritesScoresBackAndRoundsToPercent() {
+		CompiledAnswerKey key = CompiledAnswerKey.compile(List.of(
+				item("q1", QuestionType.SINGLE_CHOICE, 1, "A"),
+				item("q2", QuestionType.SINGLE_CHOICE, 1, "B"),
+				item("q3", QuestionType.SINGLE_CHOICE, 1, "C")));
+		List<CreateQuizAttemptRequest.Answer> answers = List.of(
+				answer("q1", "A"),
+				answer("q2", "A"),
+				answer("q3", "C"));
+
+		QuizGradeResult result = key.grade(answers);
+
+		assertThat(result).isEqualTo(new QuizGradeResult(67, 2, true));
+		assertThat(answers).extracting(CreateQuizAttemptRequest.Answer::getScore).containsExactly(1.0, 0.0, 1.0);
+		assertThat(key.questionIds()).containsExactly("q1", "q2", "q3");
+	}
+
+	@Test
+	void answersOutsideTheKeyMarkTheResultIncomplete() {
+		CompiledAnswerKey key = CompiledAnswerKey.compile(List.of(
+				item("q1", QuestionType.SINGLE_CHOICE, 1, "A")));
+		CreateQuizAttemptRequest.Answer unknown = answer("q9", "A");
+
+		QuizGradeResult result = key.grade(List.of(answer("q1", "A"), unknown));
+
+		assertThat(result).isEqualTo(new QuizGradeResult(100, 1, false));
+		assertThat(unknown.getScore()).isNull();
+		assertThat(key.pointsOf("q9")).isZero();
+	}
+
+	static AnswerKeyItem item(String questionId, QuestionType type, double points, String... accepted) {
+		AnswerKeyItem item = new AnswerKeyItem();
+		item.setQuestionId(questionId);
+		item.setType(type);
+		item.setPoints(points);
+		item.setAccepted(List.of(accepted));
+		return item;
+	}
+
+	static CreateQuizAttemptRequest.Answer answer(String questionId, String value) {
+		CreateQuizAttemptRequest.Answer answer = new CreateQuizAttemptRequest.Answer();
+		answer.setQuestionId(questionId);
+		answer.setAnswer(value);
+		return answer;
+	}
+
+	private static double points(CompiledAnswerKey key, String questionId, String value) {
+		CreateQuizAttemptRequest.Answer answer = answer(questionId, value);
+		key.grade(List.of(answer));
+		return answer.getScore();
+	}
+}
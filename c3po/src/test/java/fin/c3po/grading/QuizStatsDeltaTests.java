@@ -0,0 +1,120 @@
+package fin.c3po.grading;
+
+import fin.c3po.grading.dto.AnswerKeyItem;
+import fin.c3po.submission.dto.CreateQuizAttemptRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static fin.c3po.grading.CompiledAnswerKeyTests.answer;
+import static fin.c3po.grading.CompiledAnswerKeyTests.item;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 增量的矩：逐份作答累加、合并后与直接按定义求和一致，人工改分只修正与总分相关的项
+ */
+class QuizStatsDeltaTests {
+
+	private static final CompiledAnswerKey KEY = key();
+
+	@Test
+	void mergedAttemptsAccumulateMoments() {
+		QuizStatsDelta delta = QuizStatsDelta.ofAttempt(KEY, answers("a", "A"), 80)
+				.merge(QuizStatsDelta.ofAttempt(KEY, answers("B", null), 20));
+
+		assertThat(delta.attempts()).isEqualTo(2);
+		assertThat(delta.scoreSum()).isEqualTo(100);
+		assertThat(delta.scoreSquares()).isEqualTo(6_800);
+		assertThat(delta.items()).containsOnlyKeys("q1", "q2");
+
+		// q1：第一份全对 x = 1，第二份答错 x = 0
+		assertSums(delta.items().get("q1"), 2, 2, 1, 1, 100, 6_800, 80);
+		// q2：第一份选对一半 x = 0.5，第二份未作答计 x = 0
+		assertSums(delta.items().get("q2"), 1, 2, 0.5, 0.25, 100, 6_800, 40);
+
+		assertThat(delta.options()).isEqualTo(Map.of(
+				"q1", Map.of("A", 1L, "B", 1L),
+				"q2", Map.of("A", 1L)));
+	}
+
+	@Test
+	void rescoreOnlyShiftsScoreMoments() {
+		QuizStatsDelta delta = QuizStatsDelta.ofAttempt(KEY, answers("A", "A"), 80)
+				.merge(QuizStatsDelta.ofRescore(KEY, answers("A", "A"), 80, 90));
+
+		assertThat(delta.attempts()).isEqualTo(1);
+		assertThat(delta.scoreSum()).isEqualTo(90);
+		assertThat(delta.scoreSquares()).isEqualTo(8_100);
+		assertSums(delta.items().get("q1"), 1, 1, 1, 1, 90, 8_100, 90);
+		assertSums(delta.items().get("q2"), 1, 1, 0.5, 0.25, 90, 8_100, 45);
+		assertThat(delta.options().get("q1")).isEqualTo(Map.of("A", 1L));
+	}
+
+	@Test
+	void mergeIsIndependentOfOrder() {
+		List<QuizStatsDelta> forward = attempts();
+		List<QuizStatsDelta> backward = attempts().reversed();
+		QuizStatsDelta a = forward.stream().reduce(new QuizStatsDelta(), QuizStatsDelta::merge);
+		QuizStatsDelta b = backward.stream().reduce(new QuizStatsDelta(), QuizStatsDelta::merge);
+
+		assertThat(a.attempts()).isEqualTo(b.attempts()).isEqualTo(4);
+		assertThat(a.scoreSum()).isEqualTo(b.scoreSum());
+		assertThat(a.options()).isEqualTo(b.options());
+		for (String questionId : KEY.questionIds()) {
+			QuizStatsDelta.ItemSums x = a.items().get(questionId);
+			QuizStatsDelta.ItemSums y = b.items().get(questionId);
+			assertSums(y, x.responses, x.scored, x.sumX, x.sumX2, x.sumY, x.sumY2, x.sumXY);
+		}
+	}
+
+	@Test
+	void attemptWithoutKeyOnlyCountsScore() {
+		QuizStatsDelta delta = QuizStatsDelta.ofAttempt(null, answers("A", "A,C"), 70);
+
+		assertThat(delta.attempts()).isEqualTo(1);
+		assertThat(delta.scoreSum()).isEqualTo(70);
+		assertThat(delta.scoreSquares()).isEqualTo(4_900);
+		assertThat(delta.items()).isEmpty();
+		assertThat(delta.options()).isEmpty();
+	}
+
+	private static CompiledAnswerKey key() {
+		AnswerKeyItem partial = item("q2", QuestionType.MULTIPLE_CHOICE, 4, "A,C");
+		partial.setPartialCredit(true);
+		return CompiledAnswerKey.compile(List.of(item("q1", QuestionType.SINGLE_CHOICE, 2, "A"), partial));
+	}
+
+	private static List<QuizStatsDelta> attempts() {
+		return List.of(
+				QuizStatsDelta.ofAttempt(KEY, answers("A", "A,C"), 100),
+				QuizStatsDelta.ofAttempt(KEY, answers("B", "C"), 30),
+				QuizStatsDelta.ofAttempt(KEY, answers(null, "A,B"), 0),
+				QuizStatsDelta.ofAttempt(KEY, answers("A", null), 50),
+				QuizStatsDelta.ofRescore(KEY, answers("B", "C"), 30, 40));
+	}
+
+	private static List<CreateQuizAttemptRequest.Answer> answers(String q1, String q2) {
+		List<CreateQuizAttemptRequest.Answer> answers = new ArrayList<>();
+		if (q1 != null) {
+			answers.add(answer("q1", q1));
+		}
+		if (q2 != null) {
+			answers.add(answer("q2", q2));
+		}
+		return answers;
+	}
+
+	private static void assertSums(QuizStatsDelta.ItemSums sums, long responses, long scored,
+			double sumX, double sumX2, double sumY, double sumY2, double sumXY) {
+		assertThat(sums.responses).isEqualTo(responses);
+		assertThat(sums.scored).isEqualTo(scored);
+		assertThat(sums.sumX).isCloseTo(sumX, within(1e-9));
+		assertThat(sums.sumX2).isCloseTo(sumX2, within(1e-9));
+		assertThat(sums.sumY).isCloseTo(sumY, within(1e-9));
+		assertThat(sums.sumY2).isCloseTo(sumY2, within(1e-9));
+		assertThat(sums.sumXY).isCloseTo(sumXY, within(1e-9));
+	}
+}
@@ -0,0 +1,62 @@
+package fin.c3po.notify;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 渠道位号一经落库不能变；任意渠道组合写入再读出都应还原为按枚举顺序去重后的列表
+ */
+class NotificationChannelMaskConverterTests {
+
+	private final NotificationChannelMaskConverter converter = new NotificationChannelMaskConverter();
+
+	@Test
+	void channelBitsAreStable() {
+		assertThat(NotificationChannel.INBOX.mask()).isEqualTo(1);
+		assertThat(NotificationChannel.EMAIL.mask()).isEqualTo(2);
+		assertThat(NotificationChannel.SMS.mask()).isEqualTo(4);
+		assertThat(converter.convertToDatabaseColumn(List.of(NotificationChannel.values()))).isEqualTo(7);
+	}
+
+	@Test
+	void everySubsetRoundTrips() {
+		NotificationChannel[] channels = NotificationChannel.values();
+		for (int subset = 0; subset < 1 << channels.length; subset++) {
+			List<NotificationChannel> selected = new ArrayList<>();
+			for (int i = 0; i < channels.length; i++) {
+				if ((subset & 1 << i) != 0) {
+					selected.add(channels[i]);
+				}
+			}
+
+			Integer mask = converter.convertToDatabaseColumn(selected);
+
+			assertThat(converter.convertToEntityAttribute(mask)).isEqualTo(selected);
+			assertThat(converter.convertToDatabaseColumn(converter.convertToEntityAttribute(mask))).isEqualTo(mask);
+		}
+	}
+
+	@Test
+	void duplicatesAndOrderAreNormalized() {
+		Integer mask = converter.convertToDatabaseColumn(List.of(
+				NotificationChannel.SMS, NotificationChannel.INBOX, NotificationChannel.SMS));
+
+		assertThat(mask).isEqualTo(5);
+		assertThat(converter.convertToEntityAttribute(mask))
+				.containsExactly(NotificationChannel.INBOX, NotificationChannel.SMS);
+	}
+
+	@Test
+	void nullAndUnknownBitsAreTolerated() {
+		assertThat(converter.convertToDatabaseColumn(null)).isZero();
+		assertThat(converter.convertToEntityAttribute(null)).isEmpty();
+		assertThat(converter.convertToEntityAttribute(0)).isEmpty();
+		// 未来版本新增渠道写入的高位，旧版本读取时忽略
+		assertThat(converter.convertToEntityAttribute(1 << 10 | 2))
+				.containsExactly(NotificationChannel.EMAIL);
+	}
+}
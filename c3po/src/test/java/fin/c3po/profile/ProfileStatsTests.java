@@ -0,0 +1,65 @@
+package fin.c3po.profile;
+
+import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.submission.SubmissionSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 学生统计：哈希查找与原先逐作业扫描全部提交的写法结果一致
+ */
+class ProfileStatsTests {
+
+	private static final int ASSIGNMENTS = 500;
+	private static final int SUBMISSIONS = 5_000;
+
+	@Test
+	void countCompletedMatchesNestedScan() {
+		Random random = new Random(42);
+		List<UUID> assignmentIds = new ArrayList<>(ASSIGNMENTS);
+		for (int i = 0; i < ASSIGNMENTS; i++) {
+			assignmentIds.add(new UUID(0L, i));
+		}
+		SubmissionStatus[] statuses = SubmissionStatus.values();
+		UUID studentId = UUID.randomUUID();
+		List<SubmissionSummary> submissions = new ArrayList<>(SUBMISSIONS);
+		for (int i = 0; i < SUBMISSIONS; i++) {
+			// 一部分提交落在未选课程的作业上，不应计入
+			UUID assignmentId = new UUID(0L, random.nextInt(ASSIGNMENTS * 2));
+			submissions.add(new SubmissionSummary(UUID.randomUUID(), assignmentId, studentId,
+					statuses[random.nextInt(statuses.length)], null, Instant.EPOCH));
+		}
+
+		int expected = nestedScan(assignmentIds, submissions);
+		assertThat(ProfileService.countCompleted(assignmentIds, submissions)).isEqualTo(expected);
+	}
+
+	@Test
+	void countCompletedHandlesEmptyInputs() {
+		List<SubmissionSummary> submissions = List.of(new SubmissionSummary(UUID.randomUUID(), new UUID(0L, 1),
+				UUID.randomUUID(), SubmissionStatus.GRADED, null, Instant.EPOCH));
+
+		assertThat(ProfileService.countCompleted(List.of(), submissions)).isZero();
+		assertThat(ProfileService.countCompleted(List.of(new UUID(0L, 1)), List.of())).isZero();
+		assertThat(ProfileService.countCompleted(List.of(new UUID(0L, 1)), submissions)).isEqualTo(1);
+	}
+
+	/**
+	 * 优化前的写法：每个作业都在全部提交里 anyMatch 一遍
+	 */
+	private static int nestedScan(List<UUID> assignmentIds, List<SubmissionSummary> submissions) {
+		return (int) assignmentIds.stream()
+				.filter(assignmentId -> submissions.stream()
+						.anyMatch(submission -> submission.assignmentId().equals(assignmentId)
+								&& (submission.status() == SubmissionStatus.SUBMITTED
+										|| submission.status() == SubmissionStatus.GRADED)))
+				.count();
+	}
+}
@@ -0,0 +1,90 @@
+package fin.c3po.schedule;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.assignment.AssignmentType;
+import fin.c3po.submission.QuizAttemptProvisioner;
+import fin.c3po.submission.QuizAttemptRepository;
+import fin.c3po.submission.QuizAttemptStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 截止定时触发时以库中当前的截止时间为准：延期后旧定时不能关闭仍在进行的测验
+ */
+@ExtendWith(MockitoExtension.class)
+class AssignmentTimerHandlerTests {
+
+	@Mock
+	private AssignmentRepository assignmentRepository;
+
+	@Mock
+	private QuizAttemptRepository quizAttemptRepository;
+
+	@Mock
+	private QuizAttemptProvisioner quizAttemptProvisioner;
+
+	@Mock
+	private QuizAutoSubmitter quizAutoSubmitter;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@InjectMocks
+	private AssignmentTimerHandler handler;
+
+	@Test
+	void staleTimerDoesNotCloseExtendedQuiz() {
+		Assignment extended = quiz(Instant.now().plus(Duration.ofHours(2)));
+		when(assignmentRepository.findAllById(Set.of(extended.getId()))).thenReturn(List.of(extended));
+
+		handler.closeDeadlines(Set.of(extended.getId()));
+
+		verifyNoInteractions(quizAttemptRepository, quizAutoSubmitter, quizAttemptProvisioner, transactionTemplate);
+	}
+
+	@Test
+	void onlyAssignmentsPastTheirCurrentDeadlineAreClosed() {
+		Assignment extended = quiz(Instant.now().plus(Duration.ofMinutes(30)));
+		Assignment expired = quiz(Instant.now().minusSeconds(1));
+		Assignment cleared = quiz(null);
+		Set<UUID> candidates = Set.of(extended.getId(), expired.getId(), cleared.getId());
+		UUID attemptId = UUID.randomUUID();
+		when(assignmentRepository.findAllById(candidates)).thenReturn(List.of(extended, expired, cleared));
+		when(quizAttemptRepository.findIdsByAssignmentIdInAndStatus(eq(List.of(expired.getId())),
+				eq(QuizAttemptStatus.IN_PROGRESS), any(Pageable.class))).thenReturn(List.of(attemptId));
+		when(quizAutoSubmitter.submit(List.of(attemptId))).thenReturn(true);
+		when(transactionTemplate.execute(any())).thenReturn(0);
+
+		handler.closeDeadlines(candidates);
+
+		verify(quizAutoSubmitter).submit(List.of(attemptId));
+		verify(quizAttemptProvisioner).forget(List.of(expired.getId()));
+	}
+
+	private static Assignment quiz(Instant deadline) {
+		Assignment assignment = new Assignment();
+		assignment.setId(UUID.randomUUID());
+		assignment.setType(AssignmentType.QUIZ);
+		assignment.setPublished(true);
+		assignment.setDeadline(deadline);
+		return assignment;
+	}
+}
@@ -0,0 +1,93 @@
+package fin.c3po.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 时间轮的逐层下沉：4 格 × 2 层只覆盖 16 格，更远的任务进入溢出表，每个任务都必须恰好在自己的那一格到期
+ */
+class HierarchicalTimingWheelTests {
+
+	private static final long TICK = 1_000;
+	private static final int WHEEL_SIZE = 4;
+	private static final int LEVELS = 2;
+
+	@Test
+	void everyEntryFiresExactlyAtItsTick() {
+		for (long startTick = 0; startTick < 2 * WHEEL_SIZE * WHEEL_SIZE; startTick++) {
+			HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, LEVELS, at(startTick));
+			List<Long> due = new ArrayList<>();
+			for (long delay = 1; delay <= 100; delay++) {
+				wheel.schedule(at(startTick + delay), startTick + delay, due);
+			}
+			assertThat(due).isEmpty();
+			assertThat(wheel.size()).isEqualTo(100);
+
+			for (long tick = startTick + 1; tick <= startTick + 100; tick++) {
+				assertThat(wheel.advanceTo(at(tick)))
+						.as("start %d, tick %d", startTick, tick)
+						.containsExactly(tick);
+				assertThat(wheel.size()).isEqualTo((int) (startTick + 100 - tick));
+			}
+		}
+	}
+
+	@Test
+	void entriesScheduledMidRotationCascadeToTheirTick() {
+		HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, LEVELS, at(0));
+		List<Long> due = new ArrayList<>();
+		int fired = 0;
+		for (long tick = 1; tick <= 200; tick++) {
+			// 每推进一格追加一个跨度不同的任务，覆盖第 0 层、第 1 层与溢出表
+			long fireAt = tick + 1 + (tick * 7) % 40;
+			wheel.schedule(at(fireAt), fireAt, due);
+			for (Long payload : wheel.advanceTo(at(tick))) {
+				assertThat(payload).isEqualTo(tick);
+				fired++;
+			}
+		}
+		assertThat(due).isEmpty();
+		int remaining = wheel.size();
+		assertThat(fired + remaining).isEqualTo(200);
+		assertThat(wheel.advanceTo(at(1_000))).hasSize(remaining);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void jumpingAheadReturnsEverythingDueInOrderOfTicks() {
+		HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, LEVELS, at(0));
+		List<Long> due = new ArrayList<>();
+		for (long fireAt : new long[]{70, 3, 17, 16, 5, 64, 15}) {
+			wheel.schedule(at(fireAt), fireAt, due);
+		}
+
+		assertThat(wheel.advanceTo(at(16))).containsExactly(3L, 5L, 15L, 16L);
+		assertThat(wheel.size()).isEqualTo(3);
+		assertThat(wheel.advanceTo(at(100))).containsExactly(17L, 64L, 70L);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void entriesAlreadyDueAreReturnedImmediately() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, LEVELS, at(10));
+		List<String> due = new ArrayList<>();
+
+		wheel.schedule(at(9), "past", due);
+		wheel.schedule(at(10), "now", due);
+		wheel.schedule(Instant.ofEpochMilli(10 * TICK + TICK - 1), "same tick", due);
+		wheel.schedule(at(11), "next", due);
+
+		assertThat(due).containsExactly("past", "now", "same tick");
+		assertThat(wheel.size()).isEqualTo(1);
+		assertThat(wheel.advanceTo(at(11))).containsExactly("next");
+	}
+
+	private static Instant at(long tick) {
+		return Instant.ofEpochMilli(tick * TICK);
+	}
+}
@@ -0,0 +1,131 @@
+package fin.c3po.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 签名估计值与切片规则：固定种子下结果确定，估计值应落在真实 Jaccard 相似度附近
+ */
+class MinHashTests {
+
+	@Test
+	void identicalSetsEstimateOne() {
+		MinHash a = signature(0, 1_000);
+		MinHash b = signature(0, 1_000);
+
+		assertThat(MinHash.estimate(ints(a), ints(b))).isEqualTo(1.0);
+		for (int band = 0; band < MinHash.BANDS; band++) {
+			assertThat(MinHash.bandKey(ints(a), band)).isEqualTo(MinHash.bandKey(ints(b), band));
+		}
+	}
+
+	@Test
+	void disjointSetsEstimateNearZero() {
+		assertThat(MinHash.estimate(ints(signature(0, 1_000)), ints(signature(1_000, 2_000))))
+				.isLessThan(0.05);
+	}
+
+	@Test
+	void overlappingSetsEstimateJaccardSimilarity() {
+		// |A ∩ B| = 1000，|A ∪ B| = 2000
+		double estimate = MinHash.estimate(ints(signature(0, 1_500)), ints(signature(500, 2_000)));
+
+		assertThat(estimate).isCloseTo(0.5, within(0.15));
+	}
+
+	@Test
+	void signatureRoundTripsThroughBytes() {
+		MinHash minHash = signature(0, 100);
+
+		byte[] bytes = minHash.toBytes();
+		int[] values = MinHash.fromBytes(bytes);
+
+		ByteBuffer repacked = ByteBuffer.allocate(MinHash.NUM_HASHES * Integer.BYTES);
+		for (int value : values) {
+			repacked.putInt(value);
+		}
+		assertThat(values).hasSize(MinHash.NUM_HASHES).doesNotContain(-1);
+		assertThat(repacked.array()).isEqualTo(bytes);
+		assertThat(minHash.shingleCount()).isEqualTo(100);
+	}
+
+	@Test
+	void textShinglesIgnoreCaseWhitespaceAndPunctuation() throws IOException {
+		List<Long> plain = shingles("notes.txt", "The quick brown fox jumps over");
+		List<Long> noisy = shingles("NOTES.MD", "  the QUICK\n\tbrown fox,  jumps... over\n");
+
+		assertThat(plain).hasSize(2).isEqualTo(noisy);
+		assertThat(shingles("notes.txt", "only four words here")).isEmpty();
+	}
+
+	@Test
+	void chineseTextIsShingledPerCharacter() throws IOException {
+		assertThat(shingles("notes.txt", "分布式系统")).hasSize(1);
+		assertThat(shingles("notes.txt", "Java 虚拟机")).isEmpty();
+		assertThat(shingles("notes.txt", "学习 Java 虚拟机原理")).hasSize(4);
+
+		List<Long> original = shingles("essay.txt", "本文讨论分布式系统中的一致性协议，并比较两阶段提交与共识算法的优缺点。");
+		List<Long> edited = shingles("essay.txt", "本文讨论分布式系统里的一致性协议，并且比较两阶段提交与共识算法的优缺点。");
+		MinHash a = new MinHash();
+		MinHash b = new MinHash();
+		original.forEach(a::update);
+		edited.forEach(b::update);
+
+		assertThat(original).hasSizeGreaterThan(20);
+		// 两处改动后真实 Jaccard 相似度约 0.51
+		assertThat(MinHash.estimate(ints(a), ints(b))).isGreaterThan(0.4);
+	}
+
+	@Test
+	void binaryShinglesSlideOneByteAtATime() throws IOException {
+		List<Long> shingles = shingles("report.pdf", "0123456789");
+
+		assertThat(shingles).hasSize(3);
+		assertThat(shingles.getFirst()).isEqualTo(0x3031323334353637L);
+		assertThat(shingles("report.pdf", "0123456")).isEmpty();
+	}
+
+	@Test
+	void mediaFilesAreSkipped() {
+		assertThat(Shingler.isSkipped("photo.JPG")).isTrue();
+		assertThat(Shingler.isSkipped("lecture.mp4")).isTrue();
+		assertThat(Shingler.isSkipped("essay.docx")).isFalse();
+		assertThat(Shingler.isSkipped("Makefile")).isFalse();
+	}
+
+	private static MinHash signature(long from, long to) {
+		MinHash minHash = new MinHash();
+		for (long i = from; i < to; i++) {
+			minHash.update(mix(i));
+		}
+		return minHash;
+	}
+
+	/**
+	 * 真实的 shingle 是 FNV 哈希值，这里用 SplitMix64 的终结函数把连续整数打散成同样分布的输入
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private static int[] ints(MinHash minHash) {
+		return MinHash.fromBytes(minHash.toBytes());
+	}
+
+	private static List<Long> shingles(String key, String content) throws IOException {
+		List<Long> shingles = new ArrayList<>();
+		Shingler.shingle(key, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), shingles::add);
+		return shingles;
+	}
+}
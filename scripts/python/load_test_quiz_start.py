@@ -0,0 +1,139 @@
+#!/usr/bin/env python3
+"""
+Exam-start burst load test for POST /assignments/{id}/quiz-attempts/start (Python).
+
+Prerequisites: a published (or about to be released) QUIZ assignment whose course
+has the student accounts enrolled; optionally provision attempts beforehand with
+POST /assignments/{id}/quiz-attempts/provision. Student accounts are expected to
+follow the pattern <prefix><n> (e.g. loadstudent1 .. loadstudent3000) with a
+shared password.
+
+All students log in first, then wait on a barrier and call the start endpoint in
+the same instant. The script prints the latency distribution and exits non-zero
+when any request fails or p99 exceeds --max-p99-ms.
+"""
+
+from __future__ import annotations
+
+import argparse
+import json
+import math
+import os
+import sys
+import threading
+import time
+import urllib.error
+import urllib.request
+from concurrent.futures import ThreadPoolExecutor
+from typing import List, Optional, Tuple
+
+
+API_BASE_URL = os.environ.get("C3PO_API_BASE_URL", "http://localhost:8080/api/v1")
+API_TIMEOUT = float(os.environ.get("C3PO_API_TIMEOUT", "30"))
+
+
+def request(method: str, path: str, payload: Optional[dict] = None,
+            token: Optional[str] = None) -> Tuple[int, str]:
+    data = json.dumps(payload).encode("utf-8") if payload is not None else b""
+    headers = {"Content-Type": "application/json"}
+    if token:
+        headers["Authorization"] = f"Bearer {token}"
+    req = urllib.request.Request(f"{API_BASE_URL}{path}", data=data, headers=headers, method=method)
+    try:
+        with urllib.request.urlopen(req, timeout=API_TIMEOUT) as response:
+            return response.getcode(), response.read().decode("utf-8", errors="replace")
+    except urllib.error.HTTPError as exc:
+        return exc.code, exc.read().decode("utf-8", errors="replace")
+    except (urllib.error.URLError, OSError) as exc:
+        return 0, f"Request failed: {exc}"
+
+
+def login(username: str, password: str) -> Optional[str]:
+    status, body = request("POST", "/auth/login", {"identifier": username, "password": password})
+    if status != 200:
+        return None
+    try:
+        parsed = json.loads(body)
+    except json.JSONDecodeError:
+        return None
+    data = parsed.get("data", parsed) if isinstance(parsed, dict) else {}
+    return data.get("accessToken") if isinstance(data, dict) else None
+
+
+def percentile(sorted_values: List[float], pct: float) -> float:
+    if not sorted_values:
+        return 0.0
+    index = min(len(sorted_values) - 1, max(0, math.ceil(pct / 100 * len(sorted_values)) - 1))
+    return sorted_values[index]
+
+
+def main() -> int:
+    parser = argparse.ArgumentParser(description="Quiz start burst load test")
+    parser.add_argument("assignment_id", help="QUIZ assignment id")
+    parser.add_argument("--users", type=int, default=3000, help="number of concurrent students (default 3000)")
+    parser.add_argument("--prefix", default=os.environ.get("C3PO_LOAD_USER_PREFIX", "loadstudent"))
+    parser.add_argument("--password", default=os.environ.get("C3PO_LOAD_USER_PASSWORD", "student123"))
+    parser.add_argument("--login-workers", type=int, default=50)
+    parser.add_argument("--max-p99-ms", type=float, default=None, help="fail when p99 exceeds this value")
+    args = parser.parse_args()
+
+    print(f"Logging in {args.users} students against {API_BASE_URL} ...")
+    usernames = [f"{args.prefix}{i}" for i in range(1, args.users + 1)]
+    with ThreadPoolExecutor(max_workers=args.login_workers) as pool:
+        tokens = list(pool.map(lambda name: login(name, args.password), usernames))
+    missing = [name for name, token in zip(usernames, tokens) if token is None]
+    if missing:
+        print(f"Login failed for {len(missing)} users, e.g. {missing[:5]}")
+        return 1
+
+    barrier = threading.Barrier(args.users)
+    latencies: List[float] = [0.0] * args.users
+    statuses: List[int] = [0] * args.users
+    path = f"/assignments/{args.assignment_id}/quiz-attempts/start"
+
+    def worker(index: int) -> None:
+        token = tokens[index]
+        barrier.wait()
+        started = time.perf_counter()
+        status, _ = request("POST", path, token=token)
+        latencies[index] = (time.perf_counter() - started) * 1000
+        statuses[index] = status
+
+    threading.stack_size(256 * 1024)
+    threads = [threading.Thread(target=worker, args=(i,), daemon=True) for i in range(args.users)]
+    print(f"Starting burst of {args.users} concurrent start requests ...")
+    burst_started = time.perf_counter()
+    for thread in threads:
+        thread.start()
+    for thread in threads:
+        thread.join()
+    wall = (time.perf_counter() - burst_started) * 1000
+
+    ok = sorted(latency for latency, status in zip(latencies, statuses) if status == 200)
+    failures = {}
+    for status in statuses:
+        if status != 200:
+            failures[status] = failures.get(status, 0) + 1
+
+    print("==================================")
+    print(f"Requests:   {args.users} (ok {len(ok)}, failed {args.users - len(ok)})")
+    if failures:
+        print(f"Failures:   {failures}")
+    print(f"Wall time:  {wall:.0f} ms")
+    if ok:
+        print(f"p50:        {percentile(ok, 50):.1f} ms")
+        print(f"p95:        {percentile(ok, 95):.1f} ms")
+        print(f"p99:        {percentile(ok, 99):.1f} ms")
+        print(f"max:        {ok[-1]:.1f} ms")
+    print("==================================")
+
+    if failures:
+        return 1
+    if args.max_p99_ms is not None and percentile(ok, 99) > args.max_p99_ms:
+        print(f"p99 above limit of {args.max_p99_ms:.0f} ms")
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())